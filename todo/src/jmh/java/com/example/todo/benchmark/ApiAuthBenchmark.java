@@ -0,0 +1,110 @@
+package com.example.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GET /api/todos の1リクエスト（実際の HTTP）をトークン認証とフォームログインのセッションで比べる
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiAuthBenchmark {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    private ConfigurableApplicationContext context;
+    private int port;
+    private HttpClient tokenClient;
+    private HttpRequest tokenRequest;
+    private HttpClient sessionClient;
+    private HttpRequest sessionRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        tokenClient = HttpClient.newHttpClient();
+        String body = tokenClient.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"user\",\"password\":\"password\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString()).body();
+        String accessToken = context.getBean(ObjectMapper.class).readTree(body)
+                .path("data").path("accessToken").asText();
+        tokenRequest = HttpRequest.newBuilder(uri("/api/todos"))
+                .header("Authorization", "Bearer " + accessToken).build();
+
+        sessionClient = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+        formLogin(sessionClient);
+        sessionRequest = HttpRequest.newBuilder(uri("/api/todos")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int token() throws Exception {
+        return send(tokenClient, tokenRequest);
+    }
+
+    @Benchmark
+    public int session() throws Exception {
+        return send(sessionClient, sessionRequest);
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws Exception {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("GET /api/todos returned " + status);
+        }
+        return status;
+    }
+
+    private void formLogin(HttpClient client) throws IOException, InterruptedException {
+        String page = client.send(HttpRequest.newBuilder(uri("/login")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = CSRF.matcher(page);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token on /login");
+        }
+        String form = "username=user&password=password&_csrf="
+                + URLEncoder.encode(matcher.group(1), StandardCharsets.UTF_8);
+        client.send(HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
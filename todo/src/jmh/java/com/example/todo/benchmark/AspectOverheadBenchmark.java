@@ -0,0 +1,68 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.service.TodoSearchService;
+import com.example.todo.trace.TraceSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * サービス層アスペクト（TracingAspect + MetricsAspect）の1呼び出しあたりのコスト
+ * 中身がほぼ空の TodoSearchService.size() を、プロキシ経由と直接呼び出しで比べる
+ * （旧 LoggingAspect / PerformanceAspect は TracingAspect に置き換え済み）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectOverheadBenchmark {
+
+    // off: トレース無効（既定） / unsampled: 有効だがサンプリング対象外（判定のみ）
+    @Param({"off", "unsampled"})
+    public String tracing;
+
+    private ConfigurableApplicationContext context;
+    private TodoSearchService proxied;
+    private TodoSearchService target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        TraceSettings settings = context.getBean(TraceSettings.class);
+        settings.setEnabled("unsampled".equals(tracing));
+        settings.setSampleRate(0);
+        proxied = context.getBean(TodoSearchService.class);
+        target = AopTestUtils.getUltimateTargetObject(proxied);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int throughAspects() {
+        return proxied.size();
+    }
+
+    @Benchmark
+    public int direct() {
+        return target.size();
+    }
+}
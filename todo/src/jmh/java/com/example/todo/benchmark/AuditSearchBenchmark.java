@@ -0,0 +1,108 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.entity.AuditLog;
+import com.example.todo.service.AuditQueryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 監査ログ検索（AuditQueryService）を rows 件の audit_logs で計測する
+ * 先頭ページ・51ページ目（キーセット）・action / username / todoId での絞り込み・上限付きの件数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditSearchBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private AuditQueryService auditQueryService;
+    private AuditQuery deepPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        auditQueryService = context.getBean(AuditQueryService.class);
+        // 15秒おき・3種類の action・200ユーザー・5000 ToDo に散らして1文で投入する
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO audit_logs (id, action, todo_id, username, created_at)
+                SELECT 10000000 + x,
+                       CASEWHEN(MOD(x, 3) = 0, 'DELETE', CASEWHEN(MOD(x, 3) = 1, 'UPDATE', 'CREATE')),
+                       MOD(x, 5000), CONCAT('bench', MOD(x, 200)),
+                       DATEADD('SECOND', -x * 15, CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, rows);
+
+        deepPage = new AuditQuery();
+        for (int i = 0; i < 50; i++) {
+            CursorSlice<AuditLog> slice = auditQueryService.search(deepPage);
+            deepPage.setCursor(slice.getNextCursor());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AuditLog> firstPage() {
+        return auditQueryService.search(new AuditQuery()).getContent();
+    }
+
+    @Benchmark
+    public List<AuditLog> page51() {
+        return auditQueryService.search(deepPage).getContent();
+    }
+
+    @Benchmark
+    public List<AuditLog> byAction() {
+        AuditQuery query = new AuditQuery();
+        query.setAction("DELETE");
+        return auditQueryService.search(query).getContent();
+    }
+
+    @Benchmark
+    public List<AuditLog> byUsername() {
+        AuditQuery query = new AuditQuery();
+        query.setUsername("bench17");
+        return auditQueryService.search(query).getContent();
+    }
+
+    @Benchmark
+    public List<AuditLog> byTodoIdLast30Days() {
+        AuditQuery query = new AuditQuery();
+        query.setTodoId(42L);
+        query.setFrom(LocalDate.now().minusDays(30));
+        return auditQueryService.search(query).getContent();
+    }
+
+    @Benchmark
+    public long cappedCount() {
+        return auditQueryService.estimateTotal(new AuditQuery());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.audit.AuditWriter;
+import com.example.todo.entity.User;
+import com.example.todo.service.AuditService;
+import com.example.todo.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * 一括登録の所要時間（1回 = rows 件）
+ * サンプル登録（ToDo + 監査ログのバッチ INSERT）と、監査ログの1件ずつ書き込み / logAll の比較
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private AuditService auditService;
+    private AuditWriter auditWriter;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        todoService = context.getBean(TodoService.class);
+        auditService = context.getBean(AuditService.class);
+        auditWriter = context.getBean(AuditWriter.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        user = todoService.loadUser("user");
+        ids = LongStream.rangeClosed(1, rows).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createSamples() {
+        return todoService.createSamples(rows, user);
+    }
+
+    @Benchmark
+    public int auditOneByOne() {
+        ids.forEach(id -> auditService.log("BENCH", id, user.getUsername()));
+        return auditWriter.flush();
+    }
+
+    @Benchmark
+    public Integer auditLogAll() {
+        // logAll は呼び出し側のトランザクションで書く
+        return transactionTemplate.execute(status -> auditService.logAll("BENCH", ids, user.getUsername()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.TodoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * ベンチマーク用にアプリケーションを起動する（空きポート・専用のインメモリ H2・ログ最小）
+ * Spring Security の設定が MVC を前提にしているので Web サーバーも起動する
+ * 既定プロパティ（SpringApplicationBuilder#properties）は application.properties に負けるので、コマンドライン引数で渡す
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        String[] args = Stream.concat(Stream.of(
+                                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                                "spring.jpa.show-sql=false",
+                                "app.sql-stats.enabled=false",
+                                "spring.main.banner-mode=off",
+                                "server.port=0",
+                                "logging.level.root=WARN",
+                                "app.audit.archive.initial-delay=PT24H",
+                                "app.api.token.allow-random-secret=true"),
+                        Stream.of(extraProperties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(TodoApplication.class).run(args);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.dto.TodoDto;
+import com.example.todo.entity.User;
+import com.example.todo.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TodoService.findPage（一覧画面の OFFSET ページング）を組み込み H2 で計測する
+ * 1ユーザーに todos 件を投入し、先頭ページと深いページ（全体の中ほど）を比べる
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindPageBenchmark {
+
+    @Param({"10000", "100000"})
+    public int todos;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private User user;
+    private Pageable firstPage;
+    private Pageable deepPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        todoService = context.getBean(TodoService.class);
+        user = todoService.loadUser("user");
+        todoService.createSamples(todos, user);
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        firstPage = PageRequest.of(0, 20, sort);
+        deepPage = PageRequest.of(todos / 40, 20, sort);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TodoDto> firstPage() {
+        return todoService.findPage(user, null, null, firstPage, false);
+    }
+
+    @Benchmark
+    public Page<TodoDto> deepPage() {
+        return todoService.findPage(user, null, null, deepPage, false);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.dto.TodoDto;
+import com.example.todo.entity.Category;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import com.example.todo.enums.Priority;
+import com.example.todo.export.TodoCsvWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB を使わない一覧・API・エクスポートの処理
+ * TodoDto.from / ApiResponse<List<TodoDto>> の JSON 化 / CSV 1行の整形 / 期限判定
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoHotPathBenchmark {
+
+    // API の既定ページサイズと、エクスポート相当の件数
+    @Param({"20", "500"})
+    public int rows;
+
+    private List<Todo> todos;
+    private List<TodoDto> dtos;
+    private ApiResponse<List<TodoDto>> response;
+    private ObjectMapper objectMapper;
+    private final StringBuilder line = new StringBuilder(256);
+
+    @Setup
+    public void setUp() {
+        // Spring Boot の既定に合わせる（日時は ISO 文字列）
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user");
+        Category category = new Category(2L, "仕事");
+        LocalDate today = LocalDate.now();
+        todos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Todo todo = new Todo();
+            todo.setId((long) i + 1);
+            todo.setTitle("サンプル ToDo " + i);
+            todo.setDescription(i % 3 == 0 ? null : "説明文 \"引用\" を含む " + i);
+            todo.setPriority(Priority.values()[i % Priority.values().length]);
+            todo.setCompleted(i % 4 == 0);
+            todo.setCategory(category);
+            todo.setUser(user);
+            todo.setDueDate(i % 5 == 0 ? null : today.plusDays(i % 11 - 5));
+            todo.setCreatedAt(LocalDateTime.now().minusHours(i));
+            todo.setUpdatedAt(todo.getCreatedAt());
+            todos.add(todo);
+        }
+        dtos = todos.stream().map(TodoDto::from).toList();
+        response = ApiResponse.success(dtos);
+    }
+
+    @Benchmark
+    public void dtoFrom(Blackhole bh) {
+        for (Todo todo : todos) {
+            bh.consume(TodoDto.from(todo));
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonApiResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public int csvRows() {
+        int length = 0;
+        for (TodoDto dto : dtos) {
+            line.setLength(0);
+            TodoCsvWriter.formatRow(dto, line);
+            length += line.length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public void deadlineChecks(Blackhole bh) {
+        for (Todo todo : todos) {
+            bh.consume(todo.isExpired());
+            bh.consume(todo.isDeadlineSoon());
+            bh.consume(todo.getDaysUntilDeadline());
+        }
+    }
+}
@@ -1,43 +0,0 @@
-package com.example.todo.aspect;
-
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.aspectj.lang.annotation.Pointcut;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
-
-import java.util.Arrays;
-
-@Aspect
-@Component
-public class LoggingAspect {
-
-    private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
-
-    @Pointcut("execution(* com.example.todo.service.*.*(..))")
-    public void serviceLayer() {
-    }
-
-    @Before("serviceLayer()")
-    public void logBefore(JoinPoint joinPoint) {
-        String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
-        logger.info("【開始】{} 引数: {}", methodName, Arrays.toString(args));
-    }
-
-    @AfterReturning(pointcut = "serviceLayer()", returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        String methodName = joinPoint.getSignature().getName();
-        logger.info("【終了】{} 戻り値: {}", methodName, result);
-    }
-
-    @AfterThrowing(pointcut = "serviceLayer()", throwing = "ex")
-    public void logAfterThrowing(JoinPoint joinPoint, Exception ex) {
-        String methodName = joinPoint.getSignature().getName();
-        logger.error("【例外】{} エラー: {}", methodName, ex.getMessage());
-    }
-}
@@ -0,0 +1,112 @@
+package com.example.todo.aspect;
+
+import com.example.todo.exception.BusinessException;
+import com.example.todo.exception.TodoNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * サービス層のメソッドごと・結果ごとの Timer（todo.service）
+ * ヒストグラムの設定は application.properties の management.metrics.distribution.*.todo.service
+ * Timer はメソッドごとに一度だけ登録し、呼び出しごとにレジストリを引かない
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class MetricsAspect {
+
+    static final String METRIC = "todo.service";
+
+    private final MeterRegistry registry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* com.example.todo.service.*.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimers methodTimers = timersFor(joinPoint);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.get(Outcome.SUCCESS).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            methodTimers.get(Outcome.of(ex)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private MethodTimers timersFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers.computeIfAbsent(method, m -> new MethodTimers(
+                ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName(), m.getName()));
+    }
+
+    enum Outcome {
+        SUCCESS, BUSINESS_ERROR, NOT_FOUND, ERROR;
+
+        static Outcome of(Throwable ex) {
+            if (ex instanceof TodoNotFoundException) {
+                return NOT_FOUND;
+            }
+            if (ex instanceof BusinessException) {
+                return BUSINESS_ERROR;
+            }
+            return ERROR;
+        }
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * 失敗側の Timer は初めて失敗したときに登録する（使わない系列を増やさない）
+     */
+    private final class MethodTimers {
+
+        private final String className;
+        private final String methodName;
+        private final Timer[] byOutcome = new Timer[Outcome.values().length];
+
+        MethodTimers(String className, String methodName) {
+            this.className = className;
+            this.methodName = methodName;
+            byOutcome[Outcome.SUCCESS.ordinal()] = register(Outcome.SUCCESS);
+        }
+
+        Timer get(Outcome outcome) {
+            Timer timer = byOutcome[outcome.ordinal()];
+            if (timer == null) {
+                // 登録は冪等なので競合しても同じ Timer が返る
+                timer = register(outcome);
+                byOutcome[outcome.ordinal()] = timer;
+            }
+            return timer;
+        }
+
+        private Timer register(Outcome outcome) {
+            return Timer.builder(METRIC)
+                    .description("Service method latency")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("outcome", outcome.tag())
+                    .register(registry);
+        }
+    }
+}
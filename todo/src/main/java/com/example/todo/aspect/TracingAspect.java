@@ -0,0 +1,83 @@
+package com.example.todo.aspect;
+
+import com.example.todo.trace.TraceSettings;
+import com.example.todo.trace.TraceValues;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * サービス層の呼び出しトレース（旧 LoggingAspect / PerformanceAspect を統合）
+ * 無効時は設定を1回読むだけで素通しする。有効時もサンプリングされた呼び出しだけ要約を作り、
+ * key=value 形式で "trace" ロガー（logback-spring.xml で非同期 appender）に出す
+ * 例外はサンプリングに関係なく出す
+ * キャッシュ・トランザクションより外側で計測し、呼び出し側から見た時間を出す
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger("trace");
+
+    private final TraceSettings settings;
+    // Method ごとの "TodoService.findPage" を毎回組み立てない
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(TraceSettings settings) {
+        this.settings = settings;
+    }
+
+    @Around("execution(* com.example.todo.service.*.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!settings.isEnabled() || !logger.isInfoEnabled()) {
+            return joinPoint.proceed();
+        }
+        String method = methodName(joinPoint);
+        boolean sampled = settings.sample(method);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            if (sampled) {
+                int max = settings.getMaxValueLength();
+                logger.atInfo()
+                        .setMessage("trace")
+                        .addKeyValue("method", method)
+                        .addKeyValue("outcome", "ok")
+                        .addKeyValue("durationUs", (System.nanoTime() - start) / 1_000)
+                        .addKeyValue("args", TraceValues.summarize(joinPoint.getArgs(), max))
+                        .addKeyValue("result", TraceValues.summarize(result, max))
+                        .log();
+            }
+            return result;
+        } catch (Throwable ex) {
+            logger.atWarn()
+                    .setMessage("trace")
+                    .addKeyValue("method", method)
+                    .addKeyValue("outcome", "error")
+                    .addKeyValue("durationUs", (System.nanoTime() - start) / 1_000)
+                    .addKeyValue("args", TraceValues.summarize(joinPoint.getArgs(), settings.getMaxValueLength()))
+                    .addKeyValue("exception", ex.getClass().getSimpleName())
+                    .addKeyValue("message", TraceValues.summarize(ex.getMessage(), settings.getMaxValueLength()))
+                    .log();
+            throw ex;
+        }
+    }
+
+    private String methodName(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return methodNames.computeIfAbsent(method, m ->
+                ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName() + "." + m.getName());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.todo.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * 書き込み待ちの監査ログ1件（発生時刻はキューに入れた時点）
+ */
+public record AuditEvent(String action, Long todoId, String username, LocalDateTime createdAt) {
+
+    public static AuditEvent of(String action, Long todoId, String username) {
+        return new AuditEvent(action, todoId, username, LocalDateTime.now());
+    }
+}
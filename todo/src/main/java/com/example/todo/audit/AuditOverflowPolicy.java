@@ -0,0 +1,13 @@
+package com.example.todo.audit;
+
+/**
+ * 非同期監査ログのキューが満杯のときの扱い
+ */
+public enum AuditOverflowPolicy {
+    /** offer-timeout まで空きを待ち、それでも満杯なら呼び出し元で同期書き込みする */
+    BLOCK,
+    /** すぐに呼び出し元で同期書き込みする（取りこぼさない） */
+    CALLER_RUNS,
+    /** 捨てて件数だけ数える（書き込み側を絶対に待たせない） */
+    DROP
+}
@@ -0,0 +1,91 @@
+package com.example.todo.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定長のロックフリー・リングバッファ（複数の書き手、読み手は1スレッド）
+ * 各スロットにシーケンス番号を持たせ、書き手は CAS で位置を確保してから値を置く（Vyukov 方式）
+ * 満杯のときは offer が false を返すだけで、待ち方は呼び出し側が決める
+ */
+public class AuditRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 2 の累乗に切り上げる
+     */
+    public AuditRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, element);
+                    // 値を置いてから「読める」印を付ける
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 読み手スレッドからのみ呼ぶ
+     *
+     * @return 取り出した件数
+     */
+    public int drainTo(List<? super E> target, int max) {
+        long pos = head.get();
+        int count = 0;
+        while (count < max) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                break;
+            }
+            target.add(slots.get(index));
+            slots.lazySet(index, null);
+            sequences.set(index, pos + capacity);
+            pos++;
+            count++;
+        }
+        head.lazySet(pos);
+        return count;
+    }
+
+    /**
+     * おおよその件数（監視用）
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
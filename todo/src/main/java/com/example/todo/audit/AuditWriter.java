@@ -0,0 +1,267 @@
+package com.example.todo.audit;
+
+import com.example.todo.entity.AuditLog;
+import com.example.todo.repository.AuditLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 監査ログの書き込み
+ * async モードでは呼び出し元はリングバッファに積むだけで、専用スレッドが batch-size 件ごと
+ * または flush-interval ごとにまとめて1トランザクションでバッチ INSERT する（write-behind）
+ * sync モードでは従来どおり呼び出しごとに別トランザクションで書く
+ * 停止時はキューに残った分を書き切ってから終了する
+ * （呼び出しごとのオーバーヘッドを避けるため、service パッケージのアスペクト対象には置かない）
+ */
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean async;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final AuditOverflowPolicy overflowPolicy;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushNanosTotal = new AtomicLong();
+    private final AtomicLong flushNanosMax = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(AuditLogRepository auditLogRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.audit.mode:async}") String mode,
+                       @Value("${app.audit.async.capacity:8192}") int capacity,
+                       @Value("${app.audit.async.batch-size:100}") int batchSize,
+                       @Value("${app.audit.async.flush-interval:PT0.2S}") Duration flushInterval,
+                       @Value("${app.audit.async.offer-timeout:PT0.05S}") Duration offerTimeout,
+                       @Value("${app.audit.async.overflow:BLOCK}") AuditOverflowPolicy overflowPolicy) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.async = "async".equalsIgnoreCase(mode);
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void submit(AuditEvent event) {
+        if (!async || !running) {
+            writeNow(List.of(event));
+            return;
+        }
+        if (offer(event)) {
+            enqueued.incrementAndGet();
+            if (!running) {
+                // 停止処理と競合した場合に取り残さない
+                flush();
+            } else if (buffer.size() >= batchSize) {
+                LockSupport.unpark(worker);
+            }
+            return;
+        }
+        if (overflowPolicy == AuditOverflowPolicy.DROP) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                logger.warn("Audit queue full, dropping events (dropped so far: {})", dropped.get());
+            }
+            return;
+        }
+        callerRuns.incrementAndGet();
+        writeNow(List.of(event));
+    }
+
+    private boolean offer(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        if (overflowPolicy != AuditOverflowPolicy.BLOCK) {
+            return false;
+        }
+        LockSupport.unpark(worker);
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * キューに溜まっている分をこの場で書き切る（停止時・テスト・管理画面用）
+     *
+     * @return 書き込んだ件数
+     */
+    public synchronized int flush() {
+        int total = 0;
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            total += batch.size();
+            writeBatch(batch);
+            batch.clear();
+        }
+        return total;
+    }
+
+    private void runWorker() {
+        long lastFlush = System.nanoTime();
+        while (running) {
+            long waited = System.nanoTime() - lastFlush;
+            if (buffer.size() >= batchSize || (waited >= flushIntervalNanos && buffer.size() > 0)) {
+                flush();
+                lastFlush = System.nanoTime();
+            } else {
+                LockSupport.parkNanos(this, Math.max(flushIntervalNanos - waited, TimeUnit.MILLISECONDS.toNanos(1)));
+                if (waited >= flushIntervalNanos) {
+                    lastFlush = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            writeNow(batch);
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            logger.error("Audit batch write failed: {} events lost", batch.size(), e);
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        flushes.incrementAndGet();
+        flushNanosTotal.addAndGet(elapsed);
+        flushNanosMax.accumulateAndGet(elapsed, Math::max);
+        lastFlushNanos = elapsed;
+    }
+
+    private void writeNow(List<AuditEvent> events) {
+        List<AuditLog> logs = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            AuditLog log = new AuditLog();
+            log.setAction(event.action());
+            log.setTodoId(event.todoId());
+            log.setUsername(event.username());
+            log.setCreatedAt(event.createdAt());
+            logs.add(log);
+        }
+        transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(logs));
+        written.addAndGet(logs.size());
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * 監視用の統計（キュー深さ・書き込み件数・フラッシュ所要時間）
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = flushes.get();
+        stats.put("mode", async ? "async" : "sync");
+        stats.put("overflowPolicy", overflowPolicy);
+        stats.put("queueDepth", buffer.size());
+        stats.put("queueCapacity", buffer.capacity());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("callerRuns", callerRuns.get());
+        stats.put("failed", failed.get());
+        stats.put("flushes", count);
+        stats.put("flushMillisAvg", count == 0 ? 0.0 : flushNanosTotal.get() / 1_000_000.0 / count);
+        stats.put("flushMillisMax", flushNanosMax.get() / 1_000_000.0);
+        stats.put("flushMillisLast", lastFlushNanos / 1_000_000.0);
+        return stats;
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public int queueCapacity() {
+        return buffer.capacity();
+    }
+
+    long writtenCount() {
+        return written.get();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    long failedCount() {
+        return failed.get();
+    }
+
+    long flushCount() {
+        return flushes.get();
+    }
+
+    long flushNanosTotal() {
+        return flushNanosTotal.get();
+    }
+
+    @Override
+    public void start() {
+        if (!async || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runWorker, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = flush();
+        logger.info("Audit writer stopped ({} queued events flushed)", remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
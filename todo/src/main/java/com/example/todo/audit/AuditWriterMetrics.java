@@ -0,0 +1,45 @@
+package com.example.todo.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 監査ログ書き込みキューのメトリクス（/admin/audit/pipeline と同じ値を Micrometer に出す）
+ */
+@Component
+public class AuditWriterMetrics implements MeterBinder {
+
+    private final AuditWriter auditWriter;
+
+    public AuditWriterMetrics(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.writer.queue.depth", auditWriter, AuditWriter::queueDepth)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        Gauge.builder("audit.writer.queue.capacity", auditWriter, AuditWriter::queueCapacity)
+                .register(registry);
+        FunctionCounter.builder("audit.writer.events", auditWriter, AuditWriter::writtenCount)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("audit.writer.events", auditWriter, AuditWriter::droppedCount)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("audit.writer.events", auditWriter, AuditWriter::failedCount)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionTimer.builder("audit.writer.flush", auditWriter,
+                        AuditWriter::flushCount, AuditWriter::flushNanosTotal, TimeUnit.NANOSECONDS)
+                .description("Batched audit flushes")
+                .register(registry);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.todo.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -41,6 +42,30 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    @Bean(name = "exportExecutor")
+    public Executor exportExecutor(@Value("${app.export.job.threads:2}") int threads,
+                                   @Value("${app.export.job.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Export-");
+        executor.initialize();
+        return executor;
+    }
+
+    // SSE の書き込み用（TodoEventHub）。接続ごとに直列で、1タスクはその接続のキューを書き切るまで
+    @Bean(name = "streamExecutor")
+    public Executor streamExecutor(@Value("${app.stream.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("Stream-");
+        executor.initialize();
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         return taskExecutor();
@@ -0,0 +1,57 @@
+package com.example.todo.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * プロセス内キャッシュ（Caffeine）
+ * ほぼ変更されないマスタ（カテゴリ）とログインユーザーの参照を DB に行かせない
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // カテゴリ一覧（キーなし）
+    public static final String CATEGORIES = "categories";
+    // カテゴリ単体（キー: id）
+    public static final String CATEGORY = "category";
+    // ログインユーザー（キー: username）
+    public static final String USERS = "users";
+    // カーソル一覧の概算総件数（キー: userId|keyword|categoryId）
+    public static final String TODO_COUNTS = "todoCounts";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.categories.ttl:PT30M}") Duration ttl,
+                                     @Value("${app.cache.categories.max-size:500}") long maxSize,
+                                     @Value("${app.cache.users.ttl:PT10M}") Duration userTtl,
+                                     @Value("${app.cache.users.max-size:10000}") long userMaxSize,
+                                     @Value("${app.cache.todo-counts.ttl:PT30S}") Duration countTtl,
+                                     @Value("${app.cache.todo-counts.max-size:1000}") long countMaxSize) {
+        CaffeineCacheManager manager = new CaffeineCacheManager(CATEGORIES, CATEGORY);
+        manager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats());
+        manager.setAllowNullValues(false);
+        // ユーザー数に比例するので上限と TTL を別に持つ
+        manager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .expireAfterWrite(userTtl)
+                .maximumSize(userMaxSize)
+                .recordStats()
+                .build());
+        // 総件数は目安なので、変更で消さずに短い TTL で古くなるのを許す
+        manager.registerCustomCache(TODO_COUNTS, Caffeine.newBuilder()
+                .expireAfterWrite(countTtl)
+                .maximumSize(countMaxSize)
+                .recordStats()
+                .build());
+        return manager;
+    }
+}
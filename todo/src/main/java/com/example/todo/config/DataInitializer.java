@@ -1,7 +1,7 @@
 package com.example.todo.config;
 
 import com.example.todo.entity.User;
-import com.example.todo.repository.UserRepository;
+import com.example.todo.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -12,32 +12,32 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @RequiredArgsConstructor
 public class DataInitializer {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
 
     @Bean
     public CommandLineRunner initUser() {
         return args -> {
-            if (userRepository.findByUsername("user").isEmpty()) {
+            if (userService.findByUsername("user").isEmpty()) {
                 User user = new User();
                 user.setUsername("user");
                 user.setPassword(passwordEncoder.encode("password"));
                 user.setRole("USER");
-                userRepository.save(user);
+                userService.save(user);
             }
-            if (userRepository.findByUsername("user2").isEmpty()) {
+            if (userService.findByUsername("user2").isEmpty()) {
                 User user = new User();
                 user.setUsername("user2");
                 user.setPassword(passwordEncoder.encode("password"));
                 user.setRole("USER");
-                userRepository.save(user);
+                userService.save(user);
             }
-            if (userRepository.findByUsername("admin").isEmpty()) {
+            if (userService.findByUsername("admin").isEmpty()) {
                 User user = new User();
                 user.setUsername("admin");
                 user.setPassword(passwordEncoder.encode("adminpass"));
                 user.setRole("ADMIN");
-                userRepository.save(user);
+                userService.save(user);
             }
         };
     }
@@ -1,26 +1,101 @@
 package com.example.todo.config;
 
+import com.example.todo.security.ApiTokenAuthenticationFilter;
+import com.example.todo.security.ApiTokenService;
+import com.example.todo.security.MetricsScrapeTokenFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.DelegatingSecurityContextRepository;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.csrf.CsrfFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * /api/** はトークン認証（ステートレス、セッションを作らない）
+     * session-fallback=true の間は、画面からログイン済みのセッションも受け付ける（セッションは読むだけで作らない）
+     * セッションはブラウザが自動で送るので、Bearer トークンのない更新系リクエストには画面と同じ CSRF トークンを求める
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http,
+                                                      ApiTokenService tokenService,
+                                                      @Value("${app.api.auth.session-fallback:true}") boolean sessionFallback) throws Exception {
+        AuthenticationEntryPoint entryPoint = new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED);
+        SecurityContextRepository repository = sessionFallback
+                ? new DelegatingSecurityContextRepository(
+                        new RequestAttributeSecurityContextRepository(), new ReadOnlySessionSecurityContextRepository())
+                : new RequestAttributeSecurityContextRepository();
+        http
+                .securityMatcher("/api/**")
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/auth/**").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .securityContext(context -> context
+                        .securityContextRepository(repository)
+                )
+                .csrf(csrf -> {
+                    if (sessionFallback) {
+                        csrf.requireCsrfProtectionMatcher(new AndRequestMatcher(
+                                CsrfFilter.DEFAULT_CSRF_MATCHER,
+                                new NegatedRequestMatcher(ApiTokenAuthenticationFilter::hasBearerToken)))
+                                .ignoringRequestMatchers("/api/auth/**");
+                    } else {
+                        csrf.disable();
+                    }
+                })
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint(entryPoint)
+                )
+                .addFilterBefore(new ApiTokenAuthenticationFilter(tokenService, entryPoint),
+                        UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    /**
+     * 画面（フォームログイン）と actuator
+     * /actuator/prometheus は ADMIN か、app.metrics.scrape-token を Bearer で送るスクレイパーだけが読める
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${app.metrics.scrape-token:}") String scrapeToken) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/css/**", "/js/**", "/images/**").permitAll()
                         .requestMatchers("/login").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(MetricsScrapeTokenFilter.PATH).hasAnyRole("ADMIN", MetricsScrapeTokenFilter.ROLE)
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
@@ -36,11 +111,12 @@ public class SecurityConfig {
                         .permitAll()
                 )
                 .csrf(csrf -> csrf
-                        .ignoringRequestMatchers("/h2-console/**", "/api/**")
+                        .ignoringRequestMatchers("/h2-console/**")
                 )
                 .headers(headers -> headers
                         .frameOptions(frame -> frame.disable())
-                );
+                )
+                .addFilterBefore(new MetricsScrapeTokenFilter(scrapeToken), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -49,4 +125,14 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    /**
+     * 既存セッションの認証情報は読むが、トークン認証の結果をセッションへ書かない
+     * （SessionManagementFilter が保存しようとしてセッションを作るのを防ぐ）
+     */
+    private static final class ReadOnlySessionSecurityContextRepository extends HttpSessionSecurityContextRepository {
+        @Override
+        public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        }
+    }
 }
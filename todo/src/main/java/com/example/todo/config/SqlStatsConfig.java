@@ -0,0 +1,43 @@
+package com.example.todo.config;
+
+import com.example.todo.trace.SqlStatsFilter;
+import com.example.todo.trace.SqlStatsInspector;
+import com.example.todo.trace.SqlStatsSessionListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * リクエスト単位の SQL 計測（app.sql-stats.enabled=true のときだけ。dev プロファイルとテストで有効）
+ * 無効時は Hibernate に何も登録しないので本番のコストはない
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true")
+public class SqlStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatsInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatsSessionListener.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(
+            MeterRegistry registry,
+            @Value("${app.sql-stats.repeat-threshold:5}") int repeatThreshold,
+            @Value("${app.sql-stats.buffer-size:1048576}") int bufferSize) {
+        FilterRegistrationBean<SqlStatsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatsFilter(registry, repeatThreshold, bufferSize));
+        // セキュリティフィルタ（ユーザー読み込み）の SQL も含める
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.dto.ApiTokenRequest;
+import com.example.todo.security.ApiTokenService;
+import com.example.todo.security.TokenPair;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST API 用のトークン発行
+ * POST /api/auth/login   {"username": "...", "password": "..."}
+ * POST /api/auth/refresh {"refreshToken": "..."}
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ApiAuthController {
+
+    private final ApiTokenService tokenService;
+
+    @PostMapping("/login")
+    public ApiResponse<TokenPair> login(@Valid @RequestBody ApiTokenRequest req) {
+        return ApiResponse.success(tokenService.login(req.getUsername(), req.getPassword()));
+    }
+
+    @PostMapping("/refresh")
+    public ApiResponse<TokenPair> refresh(@RequestBody ApiTokenRequest req) {
+        return ApiResponse.success(tokenService.refresh(req.getRefreshToken()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.service.AuditArchiveService;
+import com.example.todo.audit.AuditWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 監査ログ書き込みキューの状態（キュー深さ・フラッシュ所要時間）と手動フラッシュ、アーカイブの一覧と手動実行
+ */
+@RestController
+@RequestMapping("/admin/audit")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AuditAdminController {
+
+    private final AuditWriter auditWriter;
+    private final AuditArchiveService auditArchiveService;
+
+    @GetMapping("/pipeline")
+    public ApiResponse<Map<String, Object>> status() {
+        return ApiResponse.success(auditWriter.stats());
+    }
+
+    @PostMapping("/pipeline/flush")
+    public ApiResponse<Integer> flush() {
+        return ApiResponse.success(auditWriter.flush());
+    }
+
+    @GetMapping("/archive")
+    public ApiResponse<List<AuditArchiveService.Segment>> archives() {
+        return ApiResponse.success(auditArchiveService.segments());
+    }
+
+    @PostMapping("/archive")
+    public ApiResponse<Long> archive() {
+        return ApiResponse.success(auditArchiveService.archiveExpired());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * プロセス内キャッシュの統計（ヒット/ミス）と手動クリア
+ */
+@RestController
+@RequestMapping("/admin/caches")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping
+    public ApiResponse<Map<String, Map<String, Object>>> status() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeine) {
+                CacheStats stats = caffeine.getNativeCache().stats();
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("size", caffeine.getNativeCache().estimatedSize());
+                row.put("hitCount", stats.hitCount());
+                row.put("missCount", stats.missCount());
+                row.put("hitRate", stats.hitRate());
+                row.put("evictionCount", stats.evictionCount());
+                result.put(name, row);
+            }
+        }
+        return ApiResponse.success(result);
+    }
+
+    @PostMapping("/{name}/clear")
+    public ApiResponse<Void> clear(@PathVariable String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+        return ApiResponse.success(null);
+    }
+}
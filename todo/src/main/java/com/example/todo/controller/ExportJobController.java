@@ -0,0 +1,94 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.dto.ExportJobDto;
+import com.example.todo.entity.ExportJob;
+import com.example.todo.entity.User;
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.service.ExportJobService;
+import com.example.todo.service.TodoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * バックグラウンド CSV エクスポート
+ * POST で受け付け、GET で進捗確認、完了後に download で取得する
+ */
+@RestController
+@RequestMapping("/todos/export/jobs")
+@RequiredArgsConstructor
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+    private final TodoService todoService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ExportJobDto>> submit(@RequestParam(required = false) String keyword,
+                                                            @RequestParam(required = false) Long categoryId,
+                                                            @RequestParam(required = false, defaultValue = "createdAt") String sort,
+                                                            @RequestParam(required = false, defaultValue = "desc") String order,
+                                                            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
+        ExportJob job = exportJobService.submit(user, keyword, categoryId,
+                TodoSortKey.fromParam(sort).getParam(), "asc".equalsIgnoreCase(order) ? "asc" : "desc", isAdmin);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(ExportJobDto.from(job)));
+    }
+
+    @GetMapping
+    public ApiResponse<List<ExportJobDto>> list(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        List<ExportJobDto> jobs = exportJobService.findRecent(user).stream()
+                .map(ExportJobDto::from)
+                .toList();
+        return ApiResponse.success(jobs);
+    }
+
+    @GetMapping("/{id}")
+    public ApiResponse<ExportJobDto> status(@PathVariable Long id,
+                                            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        ExportJob job = exportJobService.findForUser(id, user, hasRole(userDetails, "ROLE_ADMIN"));
+        return ApiResponse.success(ExportJobDto.from(job));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable Long id,
+                                             @AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        ExportJob job = exportJobService.findForUser(id, user, hasRole(userDetails, "ROLE_ADMIN"));
+        Resource resource = new FileSystemResource(exportJobService.resultFile(job));
+        String filename = "todo_" + job.getCreatedAt().format(DateTimeFormatter.BASIC_ISO_DATE) + "_" + job.getId() + ".csv";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(resource);
+    }
+
+    private boolean hasRole(UserDetails userDetails, String role) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            if (authority.getAuthority().equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
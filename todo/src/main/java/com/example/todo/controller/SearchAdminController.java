@@ -0,0 +1,33 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.dto.SearchIndexStatus;
+import com.example.todo.service.TodoSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 全文検索インデックスの管理（障害時の再構築）
+ */
+@RestController
+@RequestMapping("/admin/search")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class SearchAdminController {
+
+    private final TodoSearchService searchService;
+
+    @GetMapping("/status")
+    public ApiResponse<SearchIndexStatus> status() {
+        return ApiResponse.success(searchService.status());
+    }
+
+    @PostMapping("/rebuild")
+    public ApiResponse<Integer> rebuild() {
+        return ApiResponse.success(searchService.rebuild());
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.todo.controller;
 
+import com.example.todo.dto.ApiBulkRequest;
 import com.example.todo.dto.ApiResponse;
 import com.example.todo.dto.ApiTodoRequest;
+import com.example.todo.dto.BulkResult;
+import com.example.todo.dto.CursorSlice;
 import com.example.todo.dto.TodoDto;
 import com.example.todo.entity.Todo;
 import com.example.todo.entity.User;
+import com.example.todo.enums.TodoSortKey;
 import com.example.todo.service.TodoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -40,9 +44,50 @@ public class TodoApiController {
         User user = todoService.loadUser(userDetails.getUsername());
         boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
 
-        List<Todo> todos = todoService.findAll(user, keyword, categoryId, sortSpec, isAdmin);
-        List<TodoDto> data = todos.stream().map(TodoDto::from).toList();
-        return ApiResponse.success(data);
+        return ApiResponse.success(todoService.findAll(user, keyword, categoryId, sortSpec, isAdmin));
+    }
+
+    /**
+     * カーソル方式の一覧（limit 指定時）
+     * GET /api/todos?limit=20&cursor=...&dir=next|prev&withTotal=true
+     */
+    @GetMapping(params = "limit")
+    public ApiResponse<CursorSlice<TodoDto>> getSlice(@RequestParam(required = false) String keyword,
+                                                      @RequestParam(required = false) Long categoryId,
+                                                      @RequestParam(required = false, defaultValue = "createdAt") String sort,
+                                                      @RequestParam(required = false, defaultValue = "desc") String order,
+                                                      @RequestParam int limit,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false, defaultValue = "next") String dir,
+                                                      @RequestParam(required = false, defaultValue = "false") boolean withTotal,
+                                                      @AuthenticationPrincipal UserDetails userDetails) {
+        org.springframework.data.domain.Sort.Direction direction =
+                "asc".equalsIgnoreCase(order) ? org.springframework.data.domain.Sort.Direction.ASC
+                        : org.springframework.data.domain.Sort.Direction.DESC;
+        TodoSortKey sortKey = TodoSortKey.fromParam(normalizeSort(sort));
+
+        User user = todoService.loadUser(userDetails.getUsername());
+        boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
+
+        CursorSlice<TodoDto> slice = todoService.findSlice(user, keyword, categoryId, sortKey, direction,
+                cursor, "prev".equals(dir), Math.max(1, Math.min(limit, 100)), isAdmin);
+        if (withTotal) {
+            slice.getTotal();
+        }
+        return ApiResponse.success(slice);
+    }
+
+    /**
+     * タイトル・説明の全文検索（関連度順）
+     */
+    @GetMapping("/search")
+    public ApiResponse<List<TodoDto>> search(@RequestParam String q,
+                                             @RequestParam(required = false, defaultValue = "50") int limit,
+                                             @AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
+        List<Todo> todos = todoService.searchByTitle(user, q, isAdmin, Math.max(1, Math.min(limit, 200)));
+        return ApiResponse.success(todos.stream().map(TodoDto::from).toList());
     }
 
     @GetMapping("/{id}")
@@ -92,6 +137,19 @@ public class TodoApiController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * 一括操作
+     * POST /api/todos/bulk {"ids":[1,2], "operations":[{"type":"COMPLETE"},{"type":"SET_PRIORITY","priority":"HIGH"}]}
+     * ids の代わりに keyword / categoryId で対象を指定できる（上限 1000 件）
+     */
+    @PostMapping("/bulk")
+    public ApiResponse<BulkResult> bulk(@Valid @RequestBody ApiBulkRequest req,
+                                        @AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
+        return ApiResponse.success(todoService.bulk(req, user, isAdmin));
+    }
+
     private boolean hasRole(UserDetails userDetails, String role) {
         for (GrantedAuthority authority : userDetails.getAuthorities()) {
             if (authority.getAuthority().equals(role)) {
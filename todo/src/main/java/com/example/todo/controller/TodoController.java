@@ -1,8 +1,12 @@
 package com.example.todo.controller;
 
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.dto.TodoDto;
 import com.example.todo.dto.TodoForm;
 import com.example.todo.entity.Todo;
 import com.example.todo.entity.User;
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.export.TodoCsvWriter;
 import com.example.todo.service.CategoryService;
 import com.example.todo.service.TodoService;
 import com.example.todo.service.TodoAttachmentService;
@@ -10,6 +14,7 @@ import com.example.todo.service.FileStorageService;
 import com.example.todo.entity.TodoAttachment;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -21,14 +26,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.util.List;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -51,6 +56,9 @@ public class TodoController {
     private final TodoAttachmentService attachmentService;
     private final FileStorageService fileStorageService;
 
+    @Value("${app.export.fetch-size:500}")
+    private int exportFetchSize;
+
     /**
      * 一覧画面を表示
      * GET /todos でアクセス
@@ -62,6 +70,10 @@ public class TodoController {
                        @RequestParam(required = false, defaultValue = "desc") String order,
                        @RequestParam(required = false, defaultValue = "0") int page,
                        @RequestParam(required = false, defaultValue = "10") int size,
+                       @RequestParam(required = false) String paging,
+                       @RequestParam(required = false) String cursor,
+                       @RequestParam(required = false, defaultValue = "next") String dir,
+                       @RequestParam(required = false, defaultValue = "false") boolean withTotal,
                        @AuthenticationPrincipal UserDetails userDetails,
                        Model model) {
         String sortKey = normalizeSort(sort);
@@ -71,17 +83,28 @@ public class TodoController {
                 sortOrder.equals("asc") ? org.springframework.data.domain.Sort.Direction.ASC
                         : org.springframework.data.domain.Sort.Direction.DESC;
 
-        org.springframework.data.domain.Sort sortSpec = buildSort(sortKey, direction);
-        org.springframework.data.domain.Pageable pageable =
-                org.springframework.data.domain.PageRequest.of(page, size, sortSpec);
-
         User user = todoService.loadUser(userDetails.getUsername());
         boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
-        org.springframework.data.domain.Page<com.example.todo.entity.Todo> todoPage =
-                todoService.findPage(user, keyword, categoryId, pageable, isAdmin);
 
-        model.addAttribute("todoPage", todoPage);
-        model.addAttribute("todos", todoPage.getContent());
+        // カーソル方式: OFFSET と count(*) を発行しない
+        if ("cursor".equals(paging) || (cursor != null && !cursor.isBlank())) {
+            CursorSlice<TodoDto> todoSlice = todoService.findSlice(user, keyword, categoryId,
+                    TodoSortKey.fromParam(sortKey), direction, cursor, "prev".equals(dir),
+                    normalizeSize(size), isAdmin);
+            model.addAttribute("todoSlice", todoSlice);
+            model.addAttribute("paging", "cursor");
+            // 総件数は「件数を表示」を押したときだけ数える
+            model.addAttribute("withTotal", withTotal);
+            model.addAttribute("todos", todoSlice.getContent());
+        } else {
+            org.springframework.data.domain.Sort sortSpec = buildSort(sortKey, direction);
+            org.springframework.data.domain.Pageable pageable =
+                    org.springframework.data.domain.PageRequest.of(page, size, sortSpec);
+            org.springframework.data.domain.Page<TodoDto> todoPage =
+                    todoService.findPage(user, keyword, categoryId, pageable, isAdmin);
+            model.addAttribute("todoPage", todoPage);
+            model.addAttribute("todos", todoPage.getContent());
+        }
         model.addAttribute("keyword", keyword);
         model.addAttribute("categoryId", categoryId);
         model.addAttribute("sort", sortKey);
@@ -93,11 +116,6 @@ public class TodoController {
     }
 
 
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        return value.replace("\"", "\"\"");
-    }
-
     private String normalizeSort(String sort) {
         if (sort == null) return "createdAt";
         switch (sort) {
@@ -113,6 +131,10 @@ public class TodoController {
         }
     }
 
+    private int normalizeSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
     private String normalizeOrder(String order) {
         if ("asc".equalsIgnoreCase(order)) return "asc";
         if ("desc".equalsIgnoreCase(order)) return "desc";
@@ -381,10 +403,9 @@ public class TodoController {
     }
 
     /**
-     * 一括削除
+     * 一括削除（一般ユーザーは自分の ToDo のみ削除される）
      */
     @PostMapping("/bulk-delete")
-    @PreAuthorize("hasRole('ADMIN')")
     public String bulkDelete(@RequestParam(required = false) List<Long> ids,
                              @AuthenticationPrincipal UserDetails userDetails,
                              RedirectAttributes redirectAttributes) {
@@ -420,7 +441,6 @@ public class TodoController {
 
         User user = todoService.loadUser(userDetails.getUsername());
         boolean isAdmin = hasRole(userDetails, "ROLE_ADMIN");
-        List<Todo> todos = todoService.findAll(user, keyword, categoryId, sortSpec, isAdmin);
 
         String filename = URLEncoder.encode("todo_" +
                 java.time.LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".csv",
@@ -428,30 +448,17 @@ public class TodoController {
         response.setContentType("text/csv; charset=UTF-8");
         response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
 
-        PrintWriter writer = response.getWriter();
-        writer.print('\ufeff');
-        writer.println("ID,タイトル,説明,優先度,状態,カテゴリ,期限日,作成日");
-
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd");
-        for (Todo todo : todos) {
-            String due = todo.getDueDate() != null ? todo.getDueDate().format(dateFormatter) : "";
-            String created = todo.getCreatedAt() != null ? todo.getCreatedAt().format(dateFormatter) : "";
-            String priority = todo.getPriority() != null ? todo.getPriority().getDisplayName() : "";
-            String status = Boolean.TRUE.equals(todo.getCompleted()) ? "完了" : "未完了";
-            String category = todo.getCategory() != null ? todo.getCategory().getName() : "";
-
-            writer.println(String.format("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"",
-                    todo.getId(),
-                    escapeCsv(todo.getTitle()),
-                    escapeCsv(todo.getDescription()),
-                    escapeCsv(priority),
-                    escapeCsv(status),
-                    escapeCsv(category),
-                    escapeCsv(due),
-                    escapeCsv(created)
-            ));
-        }
-        writer.flush();
+        // DB カーソルから読みながら書き出す（全件を List に載せない）
+        TodoCsvWriter csv = new TodoCsvWriter(response.getWriter(), exportFetchSize);
+        csv.writeHeader();
+        todoService.forEachForExport(user, keyword, categoryId, sortSpec, isAdmin, exportFetchSize, todo -> {
+            try {
+                csv.writeRow(todo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        csv.flush();
     }
 
     private boolean hasRole(UserDetails userDetails, String role) {
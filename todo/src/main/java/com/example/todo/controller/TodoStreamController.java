@@ -0,0 +1,63 @@
+package com.example.todo.controller;
+
+import com.example.todo.entity.User;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.service.TodoService;
+import com.example.todo.stream.TodoEventHub;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * 自分の ToDo の変更通知（Server-Sent Events）
+ * GET /api/todos/stream
+ *   event: stats  接続直後の件数（ダッシュボードの初期値）
+ *   event: todo   {id, type, todoIds, stats}（id は Last-Event-ID に使われる）
+ *   event: reset  再送できる範囲を超えて切れていた（一覧を読み直す）
+ * 同時接続数の上限を超えたら 429
+ * ブラウザからはログインセッションのまま EventSource で、API クライアントは Bearer トークンで接続する
+ */
+@RestController
+@RequestMapping("/api/todos/stream")
+public class TodoStreamController {
+
+    private final TodoService todoService;
+    private final TodoEventHub eventHub;
+
+    public TodoStreamController(TodoService todoService, TodoEventHub eventHub) {
+        this.todoService = todoService;
+        this.eventHub = eventHub;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                             @AuthenticationPrincipal UserDetails userDetails,
+                                             HttpServletResponse response) throws IOException {
+        User user = todoService.loadUser(userDetails.getUsername());
+        try {
+            SseEmitter emitter = eventHub.connect(user.getId(), lastEventId);
+            // イベントは別スレッドが書くので、セキュリティ・X-Sql-* ヘッダはこのスレッドで確定させてから渡す
+            // （初期化前に送られたイベントは SseEmitter が溜めておく）
+            response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            response.flushBuffer();
+            return ResponseEntity.ok(emitter);
+        } catch (BusinessException e) {
+            // EventSource は Accept: text/event-stream なので JSON のエラー本文は返せない（ステータスだけ返す）
+            // 200 以外を受け取った EventSource は再接続しない
+            if ("E429".equals(e.getErrorCode())) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+            }
+            throw e;
+        }
+    }
+}
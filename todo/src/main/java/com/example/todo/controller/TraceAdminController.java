@@ -0,0 +1,48 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.trace.TraceSettings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * サービス呼び出しトレースの状態確認と実行時の切り替え
+ * method を指定するとそのメソッドだけサンプリング率を変える（rate に負数で個別設定を解除）
+ */
+@RestController
+@RequestMapping("/admin/trace")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class TraceAdminController {
+
+    private final TraceSettings traceSettings;
+
+    @GetMapping
+    public ApiResponse<Map<String, Object>> status() {
+        return ApiResponse.success(traceSettings.snapshot());
+    }
+
+    @PostMapping
+    public ApiResponse<Map<String, Object>> update(@RequestParam(required = false) Boolean enabled,
+                                                   @RequestParam(required = false) Double rate,
+                                                   @RequestParam(required = false) String method) {
+        if (enabled != null) {
+            traceSettings.setEnabled(enabled);
+        }
+        if (rate != null) {
+            if (method != null && !method.isBlank()) {
+                traceSettings.setMethodRate(method.trim(), rate);
+            } else {
+                traceSettings.setSampleRate(rate);
+            }
+        }
+        return ApiResponse.success(traceSettings.snapshot());
+    }
+}
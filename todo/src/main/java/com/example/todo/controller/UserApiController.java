@@ -0,0 +1,44 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ApiResponse;
+import com.example.todo.dto.ReminderOffsetDto;
+import com.example.todo.entity.User;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ログインユーザー自身の設定
+ * GET /api/users/me/reminder-offset
+ * PUT /api/users/me/reminder-offset {"minutes": 120}（null で既定値に戻す）
+ */
+@RestController
+@RequestMapping("/api/users/me")
+@RequiredArgsConstructor
+public class UserApiController {
+
+    private final TodoService todoService;
+    private final UserService userService;
+
+    @GetMapping("/reminder-offset")
+    public ApiResponse<ReminderOffsetDto> getReminderOffset(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        return ApiResponse.success(new ReminderOffsetDto(user.getReminderOffsetMinutes()));
+    }
+
+    @PutMapping("/reminder-offset")
+    public ApiResponse<ReminderOffsetDto> updateReminderOffset(@Valid @RequestBody ReminderOffsetDto req,
+                                                               @AuthenticationPrincipal UserDetails userDetails) {
+        User user = todoService.loadUser(userDetails.getUsername());
+        User saved = userService.updateReminderOffset(user, req.getMinutes());
+        return ApiResponse.success(new ReminderOffsetDto(saved.getReminderOffsetMinutes()));
+    }
+}
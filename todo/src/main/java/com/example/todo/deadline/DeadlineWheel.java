@@ -0,0 +1,361 @@
+package com.example.todo.deadline;
+
+import com.example.todo.dto.TodoStatsRow;
+import com.example.todo.enums.ReminderMode;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.ReminderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 期限リマインダーのタイミングホイール（app.reminder.mode=WHEEL）
+ * 未完了で期限が明日以降の ToDo を「期限日の 0 時 − ユーザーごとのオフセット + ユーザーごとのずらし」に発火するよう載せておき、
+ * tick ごとに時刻が来たものを ReminderService.sendNow に渡す。9時に一斉に送る代わりに1日に散らばり、
+ * 9時以降に作った ToDo も翌日を待たずに通知される
+ *
+ * 起動時に todos から読み込み、以降は poll-interval ごとに updatedAt が進んだ ToDo とユーザーの通知オフセットを読み直して反映する
+ * （どのノードで変更されても届く）。このノードの TodoService での変更は、待たずにコミット後にも反映する
+ * 削除は取り込めないが、発火したものは送る前に DB で読み直すので送られないだけで済む
+ * 送信は1秒あたり rate 通まで（トークンバケット）。超えた分は次の tick 以降に回す
+ *
+ * 送信済みかどうかは todos.reminderSentFor に残るので（ReminderService.sendNow）、同じ期限日には1回しか送らない。
+ * WHEEL のノードが複数あっても重複しないが、各ノードが全件をメモリに持つ
+ * 停止中に通知時刻を過ぎたものは、まだ送っていなければ起動後すぐに送る
+ *
+ * TodoService から毎回呼ばれるので、MetricsAspect / TracingAspect の対象外（service パッケージの外）に置く
+ */
+@Component
+public class DeadlineWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineWheel.class);
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int POLL_BATCH_SIZE = 1000;
+
+    private final TodoRepository todoRepository;
+    private final UserRepository userRepository;
+    private final ReminderService reminderService;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final long defaultOffsetMinutes;
+    private final long jitterSeconds;
+    private final int rate;
+    private final Duration pollOverlap;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // ロックは wheel。オフセットを個別に設定したユーザーだけを持つ
+    private final TimingWheel wheel;
+    private final Map<Long, Integer> offsets = new ConcurrentHashMap<>();
+    // 前回 pollChanges を始めた時刻（load で初期化する）
+    private volatile LocalDateTime lastPoll;
+
+    // ここから下は tick のスレッドだけが触る（tick は synchronized）
+    private final ArrayDeque<long[]> ready = new ArrayDeque<>();
+    private final AtomicInteger readyCount = new AtomicInteger();
+    private double tokens;
+    private long lastRefill;
+
+    private final Counter fired;
+
+    public DeadlineWheel(TodoRepository todoRepository,
+                         UserRepository userRepository,
+                         ReminderService reminderService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.reminder.mode:DAILY}") ReminderMode mode,
+                         @Value("${app.reminder.wheel.tick:PT1S}") Duration tick,
+                         @Value("${app.reminder.wheel.default-offset:PT15H}") Duration defaultOffset,
+                         @Value("${app.reminder.wheel.jitter:PT1H}") Duration jitter,
+                         @Value("${app.reminder.wheel.rate:20}") int rate,
+                         @Value("${app.reminder.wheel.poll-overlap:PT30S}") Duration pollOverlap) {
+        this.todoRepository = todoRepository;
+        this.userRepository = userRepository;
+        this.reminderService = reminderService;
+        this.enabled = mode == ReminderMode.WHEEL;
+        this.tickMillis = tick.toMillis();
+        this.defaultOffsetMinutes = defaultOffset.toMinutes();
+        this.jitterSeconds = jitter.toSeconds();
+        this.rate = rate;
+        this.pollOverlap = pollOverlap;
+        long now = System.currentTimeMillis();
+        this.wheel = new TimingWheel(now / tickMillis, 1024);
+        this.tokens = rate;
+        this.lastRefill = now;
+        this.fired = Counter.builder("todo.reminder.wheel.fired")
+                .description("Deadlines whose reminder time has come")
+                .register(meterRegistry);
+        Gauge.builder("todo.reminder.wheel.pending", this, DeadlineWheel::size)
+                .description("Deadlines waiting in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("todo.reminder.wheel.ready", readyCount, AtomicInteger::get)
+                .description("Users whose reminders are due but held back by the rate limit")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * 未完了で期限が明日以降、まだ送っていない ToDo を id 順に読んで載せる。エンティティは作らない
+     * 通知時刻を過ぎていたもの（停止中に来たもの）は次の tick で送る
+     *
+     * @return 載せた件数
+     */
+    public int load() {
+        long start = System.currentTimeMillis();
+        lastPoll = LocalDateTime.now();
+        userRepository.findReminderOffsets().forEach(row -> offsets.put((Long) row[0], (Integer) row[1]));
+        LocalDate from = LocalDate.now().plusDays(1);
+        long lastId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Object[]> rows = todoRepository.findDeadlineRows(from, lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            synchronized (wheel) {
+                for (Object[] row : rows) {
+                    long id = (Long) row[0];
+                    wheel.schedule(id, (Long) row[1], fireAt((Long) row[1], (LocalDate) row[2]) / tickMillis);
+                    loaded++;
+                    lastId = id;
+                }
+            }
+            if (rows.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+        }
+        logger.info("Deadline wheel loaded: {} reminders in {}ms", loaded, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    /**
+     * 作成・更新・完了切替の後の状態を反映する（未完了で期限が先なら載せ直し、それ以外は外す）
+     */
+    public void scheduleAfterCommit(Collection<TodoStatsRow> rows) {
+        if (!enabled || rows.isEmpty()) {
+            return;
+        }
+        List<TodoStatsRow> copy = List.copyOf(rows);
+        afterCommit(() -> {
+            long now = System.currentTimeMillis();
+            synchronized (wheel) {
+                copy.forEach(row -> apply(row, now));
+            }
+        });
+    }
+
+    public void cancelAfterCommit(Collection<TodoStatsRow> rows) {
+        if (!enabled || rows.isEmpty()) {
+            return;
+        }
+        List<TodoStatsRow> copy = List.copyOf(rows);
+        afterCommit(() -> {
+            synchronized (wheel) {
+                copy.forEach(row -> wheel.cancel(row.id()));
+            }
+        });
+    }
+
+    /**
+     * ユーザーの通知オフセットが変わったら、そのユーザーの ToDo を DB から読み直して載せ直す
+     *
+     * @param minutes null なら既定値に戻す
+     */
+    public void offsetChangedAfterCommit(Long userId, Integer minutes) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> reschedule(userId, minutes));
+    }
+
+    /**
+     * 前回から変わった ToDo（updatedAt が進んだもの）と通知オフセットを DB から読み直して反映する
+     * コミットの順序が updatedAt の順とずれた分を拾えるよう、poll-overlap だけ遡って読む（反映は何度しても同じ）
+     *
+     * @return 反映した ToDo の件数
+     */
+    public int pollChanges() {
+        if (!enabled || lastPoll == null) {
+            return 0;
+        }
+        LocalDateTime pollStart = LocalDateTime.now();
+        int applied = refreshOffsets();
+
+        LocalDateTime since = lastPoll.minus(pollOverlap);
+        long afterId = Long.MAX_VALUE;
+        while (true) {
+            List<Object[]> rows = todoRepository.findDeadlineChanges(since, afterId, PageRequest.of(0, POLL_BATCH_SIZE));
+            long now = System.currentTimeMillis();
+            synchronized (wheel) {
+                for (Object[] row : rows) {
+                    apply(new TodoStatsRow((Long) row[0], (Long) row[1], (Boolean) row[3], null, null,
+                            (LocalDate) row[2]), now);
+                }
+            }
+            applied += rows.size();
+            if (rows.size() < POLL_BATCH_SIZE) {
+                break;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            since = (LocalDateTime) last[4];
+            afterId = (Long) last[0];
+        }
+        lastPoll = pollStart;
+        return applied;
+    }
+
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    /**
+     * now までホイールを進め、発火した分をユーザーごとにまとめて送信待ちに積み、rate の範囲で送る
+     *
+     * @return 送ったまとめの数
+     */
+    synchronized int tick(long now) {
+        if (!enabled) {
+            return 0;
+        }
+        Map<Long, List<Long>> byUser = new HashMap<>();
+        synchronized (wheel) {
+            wheel.advance(now / tickMillis,
+                    (todoId, userId) -> byUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(todoId));
+        }
+        for (List<Long> todoIds : byUser.values()) {
+            fired.increment(todoIds.size());
+            ready.add(todoIds.stream().mapToLong(Long::longValue).toArray());
+        }
+
+        tokens = Math.min(rate, tokens + (now - lastRefill) * rate / 1000.0);
+        lastRefill = now;
+        List<Long> batch = new ArrayList<>();
+        while (tokens >= 1 && !ready.isEmpty()) {
+            for (long todoId : ready.poll()) {
+                batch.add(todoId);
+            }
+            tokens--;
+        }
+        readyCount.set(ready.size());
+        return batch.isEmpty() ? 0 : reminderService.sendNow(batch);
+    }
+
+    /**
+     * @return 通知予定の時刻（epoch ミリ秒）。載っていなければ -1
+     */
+    public long scheduledAt(long todoId) {
+        synchronized (wheel) {
+            long tick = wheel.expiryOf(todoId);
+            return tick < 0 ? -1 : tick * tickMillis;
+        }
+    }
+
+    // 他のノードで変わった通知オフセットを取り込み、変わったユーザーの ToDo を載せ直す
+    private int refreshOffsets() {
+        Map<Long, Integer> current = new HashMap<>();
+        userRepository.findReminderOffsets().forEach(row -> current.put((Long) row[0], (Integer) row[1]));
+        List<Long> changed = new ArrayList<>();
+        offsets.forEach((userId, minutes) -> {
+            if (!minutes.equals(current.get(userId))) {
+                changed.add(userId);
+            }
+        });
+        current.forEach((userId, minutes) -> {
+            if (!minutes.equals(offsets.get(userId))) {
+                changed.add(userId);
+            }
+        });
+        int applied = 0;
+        for (Long userId : changed) {
+            applied += reschedule(userId, current.get(userId));
+        }
+        return applied;
+    }
+
+    private int reschedule(Long userId, Integer minutes) {
+        if (minutes == null) {
+            offsets.remove(userId);
+        } else {
+            offsets.put(userId, minutes);
+        }
+        List<Object[]> rows = todoRepository.findDeadlineRowsByUserId(userId, LocalDate.now().plusDays(1));
+        long now = System.currentTimeMillis();
+        synchronized (wheel) {
+            for (Object[] row : rows) {
+                apply(new TodoStatsRow((Long) row[0], userId, false, null, null, (LocalDate) row[2]), now);
+            }
+        }
+        return rows.size();
+    }
+
+    // 呼び出し側で wheel をロックしておく
+    private void apply(TodoStatsRow row, long now) {
+        if (row.completed() || row.dueDate() == null || row.userId() == null) {
+            wheel.cancel(row.id());
+            return;
+        }
+        long deadline = row.dueDate().atStartOfDay(zone).toInstant().toEpochMilli();
+        if (deadline <= now) {
+            wheel.cancel(row.id());
+            return;
+        }
+        // 通知時刻を過ぎていても期限前なら次の tick で送る（送信済みなら sendNow が送らない）
+        wheel.schedule(row.id(), row.userId(), fireAt(row.userId(), row.dueDate()) / tickMillis);
+    }
+
+    // 期限日の 0 時からオフセット分前。同じ時刻に集中しないよう、ユーザーごとに決まった量だけ後ろへずらす
+    private long fireAt(long userId, LocalDate dueDate) {
+        long deadline = dueDate.atStartOfDay(zone).toInstant().toEpochMilli();
+        long offsetMinutes = offsets.getOrDefault(userId, (int) defaultOffsetMinutes);
+        long spread = jitterSeconds > 0 ? Math.floorMod(userId * 0x9E3779B97F4A7C15L, jitterSeconds) : 0;
+        return Math.min(deadline - 1, deadline - offsetMinutes * 60_000 + spread * 1000);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.todo.deadline;
+
+/**
+ * long → int のオープンアドレス法（線形探索）のハッシュマップ
+ * Map&lt;Long, Integer&gt; のようにエントリごとのオブジェクトを作らないので、1件あたり 24〜48 バイトで済む
+ * キー 0 は空きの印に使うため格納できない（todoId は 1 から採番される）
+ */
+final class LongIntMap {
+
+    private static final long EMPTY = 0L;
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return 値。なければ -1
+     */
+    int get(long key) {
+        for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("key must not be 0");
+        }
+        int i = slot(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        // 負荷率 1/2 を超えたら倍にする
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * @return 削除した値。なければ -1
+     */
+    int remove(long key) {
+        int i = slot(key);
+        for (; keys[i] != key; i = (i + 1) & mask) {
+            if (keys[i] == EMPTY) {
+                return MISSING;
+            }
+        }
+        int removed = values[i];
+        // 墓石を残さず、後ろに続く要素のうち本来の位置が空いた穴より前のものを詰める
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.todo.deadline;
+
+import java.util.Arrays;
+
+/**
+ * 階層型タイミングホイール（1段 64 枠 × 6段、1段上がるごとに1枠の幅が 64 倍）
+ * 時刻は「tick」（呼び出し側が決める単位の通し番号）で扱う。1 tick = 1 秒なら 64^6 秒（2000 年余り）先まで入る
+ *
+ * 登録・取消・時刻を1つ進める処理はどれも件数によらず O(1)（上の段の枠が回ってきたときだけ、その枠の分を下の段へ移す）
+ * エントリはオブジェクトを作らず、todoId / userId / 発火 tick とリンクを並列の配列に持つ
+ * 1件あたり配列 36 バイト + todoId の索引 24〜48 バイト
+ *
+ * スレッドセーフではない（DeadlineWheel がロックして使う）
+ */
+final class TimingWheel {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 6;
+
+    private static final int NONE = -1;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    @FunctionalInterface
+    interface ExpiryHandler {
+        void expired(long todoId, long userId);
+    }
+
+    // 枠（段 * SLOTS + 位置）ごとの先頭エントリ
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final LongIntMap index;
+
+    private long[] todoIds;
+    private long[] userIds;
+    private long[] expiries;
+    private int[] next;
+    private int[] prev;
+    private int[] buckets;
+    // 未使用のエントリ（next でつなぐ）と、一度も使っていない先頭位置
+    private int free = NONE;
+    private int allocated;
+    private int size;
+    private long currentTick;
+
+    TimingWheel(long startTick, int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        Arrays.fill(heads, NONE);
+        index = new LongIntMap(capacity);
+        todoIds = new long[capacity];
+        userIds = new long[capacity];
+        expiries = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        buckets = new int[capacity];
+        currentTick = startTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * todoId を expiryTick に発火するよう登録する（登録済みなら付け替える）
+     * 処理済みの tick 以前を指定したら次の tick で発火する
+     */
+    void schedule(long todoId, long userId, long expiryTick) {
+        int entry = index.get(todoId);
+        if (entry == NONE) {
+            entry = allocate();
+            index.put(todoId, entry);
+            size++;
+        } else {
+            unlink(entry);
+        }
+        todoIds[entry] = todoId;
+        userIds[entry] = userId;
+        expiries[entry] = Math.max(expiryTick, currentTick + 1);
+        link(entry);
+    }
+
+    boolean cancel(long todoId) {
+        int entry = index.remove(todoId);
+        if (entry == NONE) {
+            return false;
+        }
+        unlink(entry);
+        release(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * @return 発火予定の tick。登録されていなければ -1
+     */
+    long expiryOf(long todoId) {
+        int entry = index.get(todoId);
+        return entry == NONE ? -1 : expiries[entry];
+    }
+
+    /**
+     * toTick まで1 tick ずつ進め、発火したエントリを取り除いて handler に渡す
+     */
+    void advance(long toTick, ExpiryHandler handler) {
+        while (currentTick < toTick) {
+            currentTick++;
+            // 下の段が一周したら、上の段の今の枠を下の段へ振り直す
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+            }
+            int bucket = (int) (currentTick & SLOT_MASK);
+            for (int entry = heads[bucket]; entry != NONE; entry = heads[bucket]) {
+                long todoId = todoIds[entry];
+                long userId = userIds[entry];
+                index.remove(todoId);
+                unlink(entry);
+                release(entry);
+                size--;
+                handler.expired(todoId, userId);
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        int bucket = level * SLOTS + slot;
+        int entry = heads[bucket];
+        heads[bucket] = NONE;
+        while (entry != NONE) {
+            int following = next[entry];
+            link(entry);
+            entry = following;
+        }
+    }
+
+    // 残り時間が 64^(段+1) 未満になる最も下の段に入れる（範囲外は最上段の一番遠い枠に入れ、回ってきたら振り直す）
+    private void link(int entry) {
+        long delta = Math.max(0, expiries[entry] - currentTick);
+        long position = currentTick + Math.min(delta, MAX_DELTA);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int bucket = level * SLOTS + (int) ((position >>> (SLOT_BITS * level)) & SLOT_MASK);
+        int head = heads[bucket];
+        next[entry] = head;
+        prev[entry] = NONE;
+        if (head != NONE) {
+            prev[head] = entry;
+        }
+        heads[bucket] = entry;
+        buckets[entry] = bucket;
+    }
+
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before == NONE) {
+            heads[buckets[entry]] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            int entry = free;
+            free = next[entry];
+            return entry;
+        }
+        if (allocated == todoIds.length) {
+            int capacity = todoIds.length * 2;
+            todoIds = Arrays.copyOf(todoIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            expiries = Arrays.copyOf(expiries, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int entry) {
+        next[entry] = free;
+        free = entry;
+    }
+}
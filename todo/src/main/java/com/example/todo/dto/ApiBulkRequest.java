@@ -0,0 +1,101 @@
+package com.example.todo.dto;
+
+import com.example.todo.enums.BulkOperationType;
+import com.example.todo.enums.Priority;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * POST /api/todos/bulk
+ * 対象は ids か、フィルタ（keyword / categoryId）のどちらかで指定する
+ */
+public class ApiBulkRequest {
+
+    @Size(max = 1000, message = "ids は1000件以内で指定してください")
+    private List<Long> ids;
+
+    private String keyword;
+
+    private Long categoryId;
+
+    @NotEmpty(message = "操作を指定してください")
+    @Valid
+    private List<Operation> operations;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public boolean hasFilter() {
+        return (keyword != null && !keyword.isBlank()) || categoryId != null;
+    }
+
+    /**
+     * priority は SET_PRIORITY、categoryId は SET_CATEGORY のときだけ使う
+     */
+    public static class Operation {
+
+        @NotNull(message = "操作の種類を指定してください")
+        private BulkOperationType type;
+
+        private Priority priority;
+
+        private Long categoryId;
+
+        public BulkOperationType getType() {
+            return type;
+        }
+
+        public void setType(BulkOperationType type) {
+            this.type = type;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(Priority priority) {
+            this.priority = priority;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public void setCategoryId(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+    }
+}
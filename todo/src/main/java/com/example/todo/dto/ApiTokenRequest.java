@@ -0,0 +1,40 @@
+package com.example.todo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * /api/auth/login と /api/auth/refresh のリクエスト
+ */
+public class ApiTokenRequest {
+    @NotBlank(message = "ユーザー名は必須です")
+    private String username;
+
+    @NotBlank(message = "パスワードは必須です")
+    private String password;
+
+    private String refreshToken;
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
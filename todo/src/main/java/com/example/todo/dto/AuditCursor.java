@@ -0,0 +1,47 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.AuditLog;
+import com.example.todo.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 監査ログのキーセットページング用カーソル（createdAt の新しい順 + id）
+ */
+public record AuditCursor(LocalDateTime createdAt, long id) {
+
+    public static AuditCursor of(AuditLog log) {
+        return new AuditCursor(log.getCreatedAt(), log.getId());
+    }
+
+    /**
+     * このカーソルより後ろ（古い側）の行か
+     */
+    public boolean isBefore(AuditLog log) {
+        int c = log.getCreatedAt().compareTo(createdAt);
+        return c < 0 || (c == 0 && log.getId() < id);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 空なら null、壊れていれば E400
+     */
+    public static AuditCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new AuditCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new BusinessException("E400", "ページングカーソルが不正です");
+        }
+    }
+}
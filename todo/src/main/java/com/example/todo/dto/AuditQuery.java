@@ -0,0 +1,132 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.AuditLog;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * 監査ログの検索条件（管理画面のクエリパラメータ）
+ * インデックスが効くよう、action は大文字の完全一致、username は前方一致（大文字小文字を区別する）
+ * 期間は from 日の 0 時から to 日の終わりまで
+ */
+public class AuditQuery {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private String action;
+    private String username;
+    private Long todoId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String cursor;
+    private int size = DEFAULT_SIZE;
+    private boolean archive;
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action != null && !action.isBlank() ? action.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username != null && !username.isBlank() ? username.trim() : null;
+    }
+
+    public Long getTodoId() {
+        return todoId;
+    }
+
+    public void setTodoId(Long todoId) {
+        this.todoId = todoId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public boolean isArchive() {
+        return archive;
+    }
+
+    public void setArchive(boolean archive) {
+        this.archive = archive;
+    }
+
+    public LocalDateTime fromTime() {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    /**
+     * 上限（この時刻は含まない）
+     */
+    public LocalDateTime toTimeExclusive() {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+
+    public boolean hasFilter() {
+        return action != null || username != null || todoId != null || from != null || to != null;
+    }
+
+    /**
+     * DB を介さない判定（アーカイブ検索用）。SQL 側の条件と同じ意味にする
+     */
+    public boolean matches(AuditLog log) {
+        if (action != null && !action.equals(log.getAction())) {
+            return false;
+        }
+        if (username != null && (log.getUsername() == null || !log.getUsername().startsWith(username))) {
+            return false;
+        }
+        if (todoId != null && !todoId.equals(log.getTodoId())) {
+            return false;
+        }
+        LocalDateTime createdAt = log.getCreatedAt();
+        if (from != null && createdAt.isBefore(fromTime())) {
+            return false;
+        }
+        return to == null || createdAt.isBefore(toTimeExclusive());
+    }
+}
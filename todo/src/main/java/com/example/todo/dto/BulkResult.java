@@ -0,0 +1,50 @@
+package com.example.todo.dto;
+
+import com.example.todo.enums.BulkOperationType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一括操作の結果
+ * matched は所有者で絞り込んだ後の対象件数、results は操作ごとの更新（削除）件数
+ */
+public class BulkResult {
+
+    private final int matched;
+    private final List<OperationResult> results = new ArrayList<>();
+
+    public BulkResult(int matched) {
+        this.matched = matched;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public List<OperationResult> getResults() {
+        return results;
+    }
+
+    public void add(BulkOperationType type, int affected) {
+        results.add(new OperationResult(type, affected));
+    }
+
+    public static class OperationResult {
+        private final BulkOperationType type;
+        private final int affected;
+
+        public OperationResult(BulkOperationType type, int affected) {
+            this.type = type;
+            this.affected = affected;
+        }
+
+        public BulkOperationType getType() {
+            return type;
+        }
+
+        public int getAffected() {
+            return affected;
+        }
+    }
+}
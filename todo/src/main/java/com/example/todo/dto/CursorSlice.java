@@ -0,0 +1,91 @@
+package com.example.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * カーソル方式の1ページ分の結果
+ * 件数(count)は取得せず、必要になったときだけ total を遅延評価する
+ */
+public class CursorSlice<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final boolean hasPrevious;
+    private final String nextCursor;
+    private final String prevCursor;
+    private final Supplier<Long> totalSupplier;
+    private Long total;
+
+    public CursorSlice(List<T> content, int size, boolean hasNext, boolean hasPrevious,
+                       String nextCursor, String prevCursor, Supplier<Long> totalSupplier) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+        this.totalSupplier = totalSupplier;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getNumberOfElements() {
+        return content.size();
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public boolean isHasPrevious() {
+        return hasPrevious;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    /**
+     * 概算の総件数（短時間キャッシュされた count）
+     * テンプレート等から参照されたときだけ問い合わせる
+     */
+    @JsonIgnore
+    public long getTotal() {
+        if (total == null) {
+            total = totalSupplier != null ? totalSupplier.get() : content.size();
+        }
+        return total;
+    }
+
+    /**
+     * 既に評価済みの総件数。未評価なら null（JSONには出力しない）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getApproximateTotal() {
+        return total;
+    }
+
+    public <R> CursorSlice<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        CursorSlice<R> result = new CursorSlice<>(mapped, size, hasNext, hasPrevious,
+                nextCursor, prevCursor, totalSupplier);
+        result.total = total;
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.ExportJob;
+import com.example.todo.enums.ExportStatus;
+
+import java.time.LocalDateTime;
+
+public class ExportJobDto {
+    private Long id;
+    private String status;
+    private Long totalRows;
+    private Long processedRows;
+    private Integer progress;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private String downloadUrl;
+
+    public static ExportJobDto from(ExportJob job) {
+        long processedRows = job.getProcessedRows() != null ? job.getProcessedRows() : 0;
+        ExportJobDto dto = new ExportJobDto();
+        dto.id = job.getId();
+        dto.status = job.getStatus().name();
+        dto.totalRows = job.getTotalRows();
+        dto.processedRows = processedRows;
+        if (job.getTotalRows() != null && job.getTotalRows() > 0) {
+            dto.progress = (int) Math.min(100, processedRows * 100 / job.getTotalRows());
+        } else if (job.getStatus() == ExportStatus.COMPLETED) {
+            dto.progress = 100;
+        }
+        dto.errorMessage = job.getErrorMessage();
+        dto.createdAt = job.getCreatedAt();
+        dto.finishedAt = job.getFinishedAt();
+        dto.expiresAt = job.getExpiresAt();
+        if (job.getStatus() == ExportStatus.COMPLETED) {
+            dto.downloadUrl = "/todos/export/jobs/" + job.getId() + "/download";
+        }
+        return dto;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getTotalRows() {
+        return totalRows;
+    }
+
+    public Long getProcessedRows() {
+        return processedRows;
+    }
+
+    public Integer getProgress() {
+        return progress;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+}
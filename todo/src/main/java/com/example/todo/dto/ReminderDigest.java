@@ -0,0 +1,13 @@
+package com.example.todo.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 1ユーザー分の期限前日リマインダー（1通にまとめて送る）
+ *
+ * @param items 本文に載せる ToDo（最大 app.reminder.max-items-per-digest 件）
+ * @param total 対象の ToDo の件数（items に載らなかった分も含む）
+ */
+public record ReminderDigest(Long userId, String username, LocalDate dueDate, List<ReminderItem> items, int total) {
+}
@@ -0,0 +1,13 @@
+package com.example.todo.dto;
+
+import com.example.todo.enums.Priority;
+
+import java.time.LocalDate;
+
+/**
+ * リマインダーの対象になる ToDo 1件（ReminderService のチャンク読み出し用）
+ * エンティティを作らずコンストラクタ式で読む
+ */
+public record ReminderItem(Long todoId, Long userId, String username, String title, Priority priority,
+                           LocalDate dueDate) {
+}
@@ -0,0 +1,29 @@
+package com.example.todo.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * /api/users/me/reminder-offset のリクエスト・レスポンス
+ * 期限（期限日の 0 時）の何分前にリマインダーを送るか。null ならアプリの既定値
+ */
+public class ReminderOffsetDto {
+    @Min(value = 0, message = "通知オフセットは0分以上で指定してください")
+    @Max(value = 10080, message = "通知オフセットは7日（10080分）以内で指定してください")
+    private Integer minutes;
+
+    public ReminderOffsetDto() {
+    }
+
+    public ReminderOffsetDto(Integer minutes) {
+        this.minutes = minutes;
+    }
+
+    public Integer getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(Integer minutes) {
+        this.minutes = minutes;
+    }
+}
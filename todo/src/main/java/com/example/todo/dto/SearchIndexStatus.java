@@ -0,0 +1,30 @@
+package com.example.todo.dto;
+
+/**
+ * 全文検索インデックスの状態（/admin/search/status）
+ * ready は起動時の再構築が終わり検索を受け付けているか、rebuilding は再構築中か
+ */
+public class SearchIndexStatus {
+
+    private final int size;
+    private final boolean ready;
+    private final boolean rebuilding;
+
+    public SearchIndexStatus(int size, boolean ready, boolean rebuilding) {
+        this.size = size;
+        this.ready = ready;
+        this.rebuilding = rebuilding;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.todo.dto;
+
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * キーセットページング用のカーソル
+ * 「ソートキーの値 + id」を不透明な文字列として画面/APIへ渡す
+ */
+public final class TodoCursor {
+
+    private static final String NULL_MARK = "~";
+    private static final String VALUE_MARK = "=";
+
+    private final TodoSortKey sortKey;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Long id;
+
+    private TodoCursor(TodoSortKey sortKey, Sort.Direction direction, Object value, Long id) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static TodoCursor of(TodoDto todo, TodoSortKey sortKey, Sort.Direction direction) {
+        return new TodoCursor(sortKey, direction, sortKey.valueOf(todo), todo.getId());
+    }
+
+    public TodoSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String formatted = sortKey.format(value);
+        String raw = sortKey.getParam() + "|" + (direction.isAscending() ? "a" : "d") + "|" + id + "|"
+                + (formatted == null ? NULL_MARK : VALUE_MARK + formatted);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * カーソル文字列を復元する
+     * 空ならnull、壊れている or 現在のソート条件と一致しない場合は E400
+     */
+    public static TodoCursor decode(String token, TodoSortKey sortKey, Sort.Direction direction) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4
+                    || !sortKey.getParam().equals(parts[0])
+                    || !(direction.isAscending() ? "a" : "d").equals(parts[1])) {
+                throw invalid();
+            }
+            Long id = Long.valueOf(parts[2]);
+            Object value;
+            if (NULL_MARK.equals(parts[3])) {
+                value = null;
+            } else if (parts[3].startsWith(VALUE_MARK)) {
+                value = sortKey.parse(parts[3].substring(VALUE_MARK.length()));
+            } else {
+                throw invalid();
+            }
+            if (value == null && !sortKey.isNullable()) {
+                throw invalid();
+            }
+            return new TodoCursor(sortKey, direction, value, id);
+        } catch (BusinessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException("E400", "ページングカーソルが不正です");
+    }
+}
@@ -1,15 +1,23 @@
 package com.example.todo.dto;
 
 import com.example.todo.entity.Todo;
+import com.example.todo.enums.Priority;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+/**
+ * ToDo の読み取り専用表現（一覧画面・REST API・CSV 共通）
+ * 一覧系はエンティティを経由せず、JPQL のコンストラクタ式で直接生成する
+ */
 public class TodoDto {
     private Long id;
     private String title;
     private String description;
     private String priority;
+    private Priority priorityLevel;
     private Boolean completed;
     private Long categoryId;
     private String categoryName;
@@ -18,12 +26,36 @@ public class TodoDto {
     private LocalDateTime updatedAt;
     private String username;
 
+    private TodoDto() {
+    }
+
+    /**
+     * JPQL コンストラクタ式用（TodoKeysetRepositoryImpl 参照）
+     */
+    public TodoDto(Long id, String title, String description, Priority priority, Boolean completed,
+                   Long categoryId, String categoryName, LocalDate dueDate,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, String username) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority != null ? priority.name() : null;
+        this.priorityLevel = priority;
+        this.completed = completed;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.username = username;
+    }
+
     public static TodoDto from(Todo todo) {
         TodoDto dto = new TodoDto();
         dto.id = todo.getId();
         dto.title = todo.getTitle();
         dto.description = todo.getDescription();
         dto.priority = todo.getPriority() != null ? todo.getPriority().name() : null;
+        dto.priorityLevel = todo.getPriority();
         dto.completed = todo.getCompleted();
         dto.categoryId = todo.getCategory() != null ? todo.getCategory().getId() : null;
         dto.categoryName = todo.getCategory() != null ? todo.getCategory().getName() : null;
@@ -50,6 +82,11 @@ public class TodoDto {
         return priority;
     }
 
+    @JsonIgnore
+    public Priority getPriorityLevel() {
+        return priorityLevel;
+    }
+
     public Boolean getCompleted() {
         return completed;
     }
@@ -77,4 +114,24 @@ public class TodoDto {
     public String getUsername() {
         return username;
     }
+
+    // 以下は画面表示用（JSON には出さない）
+
+    @JsonIgnore
+    public boolean isExpired() {
+        return dueDate != null && dueDate.isBefore(LocalDate.now());
+    }
+
+    @JsonIgnore
+    public boolean isDeadlineSoon() {
+        if (dueDate == null) return false;
+        long days = ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
+        return days >= 0 && days <= 3;
+    }
+
+    @JsonIgnore
+    public long getDaysUntilDeadline() {
+        if (dueDate == null) return Long.MAX_VALUE;
+        return ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
+    }
 }
@@ -1,12 +1,16 @@
 package com.example.todo.dto;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 public class TodoStats {
     private long total;
     private long completed;
     private long pending;
     private long dueSoon;
+    private Map<String, Long> byPriority = Map.of();
+    // カテゴリ id -> 件数
+    private Map<Long, Long> byCategory = Map.of();
     private LocalDateTime generatedAt;
 
     public long getTotal() {
@@ -41,6 +45,22 @@ public class TodoStats {
         this.dueSoon = dueSoon;
     }
 
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public void setByPriority(Map<String, Long> byPriority) {
+        this.byPriority = byPriority;
+    }
+
+    public Map<Long, Long> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<Long, Long> byCategory) {
+        this.byCategory = byCategory;
+    }
+
     public LocalDateTime getGeneratedAt() {
         return generatedAt;
     }
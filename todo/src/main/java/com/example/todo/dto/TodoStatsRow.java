@@ -0,0 +1,41 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.Todo;
+import com.example.todo.enums.Priority;
+
+import java.time.LocalDate;
+
+/**
+ * 件数集計（TodoStatsService）に効く列だけを抜き出した ToDo の状態
+ * 更新前後の2つを比べて差分をカウンタに反映する（id は変更通知の宛先振り分け用）
+ */
+public record TodoStatsRow(Long id, Long userId, boolean completed, Priority priority, Long categoryId,
+                           LocalDate dueDate) {
+
+    /**
+     * JPQL のコンストラクタ式用（completed は NULL の可能性がある）
+     */
+    public TodoStatsRow(Long id, Long userId, Boolean completed, Priority priority, Long categoryId,
+                        LocalDate dueDate) {
+        this(id, userId, Boolean.TRUE.equals(completed), priority, categoryId, dueDate);
+    }
+
+    // コミット時点ではエンティティが切り離されている可能性があるので、変更前に値を取り出しておく
+    public static TodoStatsRow of(Todo todo) {
+        return new TodoStatsRow(todo.getId(), todo.getUser() != null ? todo.getUser().getId() : null,
+                Boolean.TRUE.equals(todo.getCompleted()), todo.getPriority(),
+                todo.getCategory() != null ? todo.getCategory().getId() : null, todo.getDueDate());
+    }
+
+    public TodoStatsRow withCompleted(boolean completed) {
+        return new TodoStatsRow(id, userId, completed, priority, categoryId, dueDate);
+    }
+
+    public TodoStatsRow withPriority(Priority priority) {
+        return new TodoStatsRow(id, userId, completed, priority, categoryId, dueDate);
+    }
+
+    public TodoStatsRow withCategoryId(Long categoryId) {
+        return new TodoStatsRow(id, userId, completed, priority, categoryId, dueDate);
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,14 +15,22 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+// 管理画面の検索条件（AuditLogQueryRepository）ごとに「条件列 + created_at」の複合インデックスを張る
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_audit_logs_action", columnList = "action, created_at"),
+        @Index(name = "idx_audit_logs_username", columnList = "username, created_at"),
+        @Index(name = "idx_audit_logs_todo_id", columnList = "todo_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AuditLog {
 
+    // 一括操作の監査ログをバッチ INSERT できるようシーケンス採番にする（Todo と同じ）
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_seq", allocationSize = 50)
     private Long id;
 
     private String action;
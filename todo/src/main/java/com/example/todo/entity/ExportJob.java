@@ -0,0 +1,75 @@
+package com.example.todo.entity;
+
+import com.example.todo.enums.ExportStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * バックグラウンドで実行する CSV エクスポートのジョブ
+ * 条件は一覧画面と同じ（キーワード・カテゴリ・ソート）
+ */
+@Entity
+@Table(name = "export_jobs", indexes = {
+        @Index(name = "idx_export_jobs_username_status", columnList = "username, status"),
+        @Index(name = "idx_export_jobs_expires_at", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    private boolean adminScope;
+
+    private String keyword;
+    private Long categoryId;
+    private String sortKey;
+    private String sortOrder;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ExportStatus status = ExportStatus.QUEUED;
+
+    private Long totalRows;
+    private Long processedRows;
+    private String storedFilename;
+    private Long fileSize;
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+
+    // 実行中のノードが定期的に更新する。止まったジョブは ExportJobService.failStaleJobs が失敗にする
+    private LocalDateTime heartbeatAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (heartbeatAt == null) {
+            heartbeatAt = createdAt;
+        }
+    }
+}
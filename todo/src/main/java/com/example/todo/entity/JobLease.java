@@ -0,0 +1,41 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 複数ノードのうち1つだけで動かす定期ジョブのリース（1ジョブ1行）
+ * owner と leaseUntil を条件付き UPDATE で奪い合い、取れた実行だけが処理する。終わったら leaseUntil を NULL に戻す
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false, length = 150)
+    private String owner;
+
+    private LocalDateTime leaseUntil;
+
+    // 新規判定（persist か merge か）にも使う
+    @Version
+    private Long version;
+
+    public JobLease(String name, String owner, LocalDateTime leaseUntil) {
+        this(name, owner, leaseUntil, null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.todo.entity;
+
+import com.example.todo.enums.MailOutboxStatus;
+import com.example.todo.enums.MailType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 送信待ちメール（トランザクショナル・アウトボックス）
+ * ToDo と同じトランザクションで INSERT するので、ロールバックされた操作のメールは残らない
+ * MailOutboxService が SELECT ... FOR UPDATE SKIP LOCKED で送信待ちの行をロックし、同じトランザクションで claimToken を書く
+ * 他のノードはロック中の行を飛ばして次の行を取るので、各ノードが別々の行を送る
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next", columnList = "status, next_attempt_at, id"),
+        @Index(name = "idx_mail_outbox_claim_token", columnList = "claim_token")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailOutbox {
+
+    // ToDo と一緒にバッチ INSERT できるようシーケンス採番にする
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_seq")
+    @SequenceGenerator(name = "mail_outbox_seq", sequenceName = "mail_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MailType type;
+
+    // 宛先のユーザー名
+    @Column(nullable = false, length = 50)
+    private String recipient;
+
+    private Long todoId;
+
+    // 本文に載せる件名（送信時点ではなく登録時点の値）
+    private String subject;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(length = 100)
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
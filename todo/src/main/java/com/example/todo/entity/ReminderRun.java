@@ -0,0 +1,59 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 期限日ごとのリマインダー送信の実行状態（ReminderService）
+ * 行そのものがリース: owner と leaseUntil を条件付き UPDATE で奪い合い、取れたノードだけが送る
+ * lastUserId はチェックポイントで、送信が終わったユーザーまで進める（落ちたら次の実行がその次から再開する）
+ */
+@Entity
+@Table(name = "reminder_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderRun {
+
+    // 通知対象の期限日（= 実行枠）
+    @Id
+    private LocalDate slot;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    private long lastUserId;
+
+    @Column(nullable = false)
+    private long digests;
+
+    @Column(nullable = false)
+    private long todos;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime checkpointAt;
+    private LocalDateTime completedAt;
+
+    // 新規判定（persist か merge か）にも使う
+    @Version
+    private Long version;
+
+    public ReminderRun(LocalDate slot, String owner, LocalDateTime leaseUntil, LocalDateTime startedAt) {
+        this(slot, owner, leaseUntil, 0, 0, 0, 1, startedAt, null, null, null);
+    }
+}
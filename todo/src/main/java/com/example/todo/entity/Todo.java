@@ -5,17 +5,22 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -23,14 +28,21 @@ import java.time.temporal.ChronoUnit;
 import com.example.todo.enums.Priority;
 
 @Entity
-@Table(name = "todos")
+// リマインダーのキーセット読み出し（期限日で絞って userId, id 順）と、期限のタイミングホイールへの変更の取り込み用
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_due_date_user", columnList = "dueDate, user_id, id"),
+        @Index(name = "idx_todos_updated_at", columnList = "updatedAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Todo {
 
+    // IDENTITY だと INSERT ごとに採番を待つため JDBC バッチが効かない
+    // シーケンスを 50 件ずつ確保（pooled）し、一括登録をバッチで流せるようにする
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -48,12 +60,17 @@ public class Todo {
     @Column(name = "priority_rank")
     private Integer priorityRank;
 
-    @ManyToOne
+    // 一覧系は用途ごとに fetch join / EntityGraph で取得する（TodoRepository 参照）
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(columnDefinition = "BOOLEAN DEFAULT FALSE")
@@ -62,6 +79,11 @@ public class Todo {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // 期限リマインダー（DeadlineWheel）を送った期限日。期限日が変わればまた送る
+    // ReminderService.sendNow が条件付き UPDATE で書き込み、書き込めた行だけを送る（reminderClaim はその印）
+    private LocalDate reminderSentFor;
+    private Long reminderClaim;
+
     @Version
     private Long version;
 
@@ -92,11 +114,7 @@ public class Todo {
     }
 
     private int toRank(Priority priority) {
-        return switch (priority) {
-            case HIGH -> 1;
-            case MEDIUM -> 2;
-            case LOW -> 3;
-        };
+        return priority.getRank();
     }
 
     public boolean isExpired() {
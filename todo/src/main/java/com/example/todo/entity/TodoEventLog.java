@@ -0,0 +1,60 @@
+package com.example.todo.entity;
+
+import com.example.todo.enums.TodoEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ToDo の変更通知（SSE）の共有ログ。1行 = 1ユーザー宛ての1イベント
+ * ToDo と同じトランザクションで INSERT し、各ノードの TodoEventHub がポーリングして自ノードの接続へ配る
+ * id は Last-Event-ID にも使うので、どのノードに再接続してもここから続きを再送できる
+ */
+@Entity
+@Table(name = "todo_event_log", indexes = {
+        @Index(name = "idx_todo_event_log_user", columnList = "user_id, id"),
+        @Index(name = "idx_todo_event_log_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoEventLog {
+
+    // コミット直前に INSERT するので、採番からコミットまでの間が短くなるよう IDENTITY にする
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TodoEventType type;
+
+    // 対象 ToDo の id をカンマ区切りで（一括操作でも最大 1000 件）
+    @Column(nullable = false, length = 20000)
+    private String todoIds;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo.entity;
+
+import com.example.todo.enums.StatsDimension;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ユーザーごとの ToDo 件数（各ノードの TodoStatsService が溜めた増減を定期的に加算で書き出す）
+ * ダッシュボードはここの値のキャッシュを読むので、todos を数え直さずに出せる
+ * 総数の行の updatedAt は最後に書き出した時刻（照合が書き出し前の増減を見分けるのに使う）
+ */
+@Entity
+@Table(name = "todo_stats_counters", indexes = {
+        @Index(name = "idx_todo_stats_counters_user", columnList = "user_id, dimension, bucket", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStatsCounter {
+
+    // 新しいバケットや照合での洗い替えをバッチ INSERT できるようシーケンス採番にする
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_stats_counters_seq")
+    @SequenceGenerator(name = "todo_stats_counters_seq", sequenceName = "todo_stats_counters_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatsDimension dimension;
+
+    @Column(nullable = false, length = 20)
+    private String bucket;
+
+    @Column(name = "todo_count", nullable = false)
+    private long count;
+
+    private LocalDateTime updatedAt;
+
+    public TodoStatsCounter(Long userId, StatsDimension dimension, String bucket, long count, LocalDateTime updatedAt) {
+        this(null, userId, dimension, bucket, count, updatedAt);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.todo.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -23,11 +24,16 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // ログインのたびに検索するため一意インデックスを張る
+    @Column(nullable = false, unique = true, length = 50)
     private String username;
     private String password;
     private String role;
     private LocalDateTime createdAt;
 
+    // 期限の何分前にリマインダーを送るか（null ならアプリの既定値）
+    private Integer reminderOffsetMinutes;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
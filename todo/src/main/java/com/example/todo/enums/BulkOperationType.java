@@ -0,0 +1,16 @@
+package com.example.todo.enums;
+
+public enum BulkOperationType {
+    COMPLETE,
+    UNCOMPLETE,
+    SET_PRIORITY,
+    SET_CATEGORY,
+    DELETE;
+
+    /**
+     * 監査ログの action 名
+     */
+    public String auditAction() {
+        return "BULK_" + name();
+    }
+}
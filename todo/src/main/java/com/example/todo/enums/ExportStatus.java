@@ -0,0 +1,13 @@
+package com.example.todo.enums;
+
+public enum ExportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED;
+
+    public boolean isActive() {
+        return this == QUEUED || this == RUNNING;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.todo.enums;
+
+/**
+ * 送信待ちメール（mail_outbox）の状態
+ */
+public enum MailOutboxStatus {
+    // 送信待ち（nextAttemptAt 以降に送る。失敗して再送待ちのものも含む）
+    PENDING,
+    // いずれかのノードが取って送信中（claimedUntil を過ぎたら他のノードが取り直す）
+    SENDING,
+    SENT,
+    // 再送の上限に達した（手動で PENDING に戻すまで送らない）
+    DEAD
+}
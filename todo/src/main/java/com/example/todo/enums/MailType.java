@@ -0,0 +1,8 @@
+package com.example.todo.enums;
+
+/**
+ * 送信待ちメールの種類（MailService のどのメソッドで送るか）
+ */
+public enum MailType {
+    TODO_CREATED
+}
@@ -1,16 +1,19 @@
 package com.example.todo.enums;
 
 public enum Priority {
-    HIGH("高", "priority-high"),
-    MEDIUM("中", "priority-medium"),
-    LOW("低", "priority-low");
+    HIGH("高", "priority-high", 1),
+    MEDIUM("中", "priority-medium", 2),
+    LOW("低", "priority-low", 3);
 
     private final String displayName;
     private final String cssClass;
+    // 並び替え用（todos.priority_rank）
+    private final int rank;
 
-    Priority(String displayName, String cssClass) {
+    Priority(String displayName, String cssClass, int rank) {
         this.displayName = displayName;
         this.cssClass = cssClass;
+        this.rank = rank;
     }
 
     public String getDisplayName() {
@@ -20,4 +23,8 @@ public enum Priority {
     public String getCssClass() {
         return cssClass;
     }
+
+    public int getRank() {
+        return rank;
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.todo.enums;
+
+/**
+ * 期限リマインダーの送り方（app.reminder.mode）
+ */
+public enum ReminderMode {
+    // 毎日決まった時刻に翌日期限の分をまとめて送る（ReminderService.run、リースで1ノードだけが送る）
+    DAILY,
+    // 期限ごとに通知時刻をタイミングホイールに載せ、時刻が来たものから送る（DeadlineWheel。各ノードが全件をメモリに持つ）
+    WHEEL,
+    // 送らない（WHEEL を一部のノードに寄せるときの他のノード。変更は DB 経由で WHEEL のノードに届く）
+    OFF
+}
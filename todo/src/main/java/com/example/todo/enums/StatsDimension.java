@@ -0,0 +1,12 @@
+package com.example.todo.enums;
+
+/**
+ * todo_stats_counters の集計軸（bucket に入る値）
+ */
+public enum StatsDimension {
+    TOTAL,        // ""
+    COMPLETED,    // ""
+    PRIORITY,     // Priority の名前
+    CATEGORY,     // カテゴリ id
+    DUE_DATE      // yyyy-MM-dd
+}
@@ -0,0 +1,10 @@
+package com.example.todo.enums;
+
+/**
+ * SSE で配信する ToDo の変更種別（event の data.type）
+ */
+public enum TodoEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
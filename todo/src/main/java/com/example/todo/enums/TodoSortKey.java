@@ -0,0 +1,80 @@
+package com.example.todo.enums;
+
+import com.example.todo.dto.TodoDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 一覧のソートキー
+ * キーセットページングで使う「並び順の値」の取り出しと文字列化を担う
+ * dueDate のみ NULL を取りうるため、カーソルモードでは常に NULLS LAST で並べる
+ */
+public enum TodoSortKey {
+    ID("id", "id", false),
+    TITLE("title", "title", false),
+    CREATED_AT("createdAt", "createdAt", false),
+    COMPLETED("completed", "completed", false),
+    PRIORITY("priority", "priorityRank", false),
+    DUE_DATE("dueDate", "dueDate", true);
+
+    private final String param;
+    private final String property;
+    private final boolean nullable;
+
+    TodoSortKey(String param, String property, boolean nullable) {
+        this.param = param;
+        this.property = property;
+        this.nullable = nullable;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public static TodoSortKey fromParam(String param) {
+        for (TodoSortKey key : values()) {
+            if (key.param.equals(param)) {
+                return key;
+            }
+        }
+        return CREATED_AT;
+    }
+
+    public Object valueOf(TodoDto todo) {
+        return switch (this) {
+            case ID -> todo.getId();
+            case TITLE -> todo.getTitle();
+            case CREATED_AT -> todo.getCreatedAt();
+            case COMPLETED -> todo.getCompleted();
+            case PRIORITY -> todo.getPriorityLevel() != null ? todo.getPriorityLevel().getRank() : null;
+            case DUE_DATE -> todo.getDueDate();
+        };
+    }
+
+    public String format(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    public Object parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        return switch (this) {
+            case ID -> Long.valueOf(text);
+            case TITLE -> text;
+            case CREATED_AT -> LocalDateTime.parse(text);
+            case COMPLETED -> Boolean.valueOf(text);
+            case PRIORITY -> Integer.valueOf(text);
+            case DUE_DATE -> LocalDate.parse(text);
+        };
+    }
+}
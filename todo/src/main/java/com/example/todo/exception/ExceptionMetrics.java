@@ -0,0 +1,33 @@
+package com.example.todo.exception;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 例外ハンドラまで届いた例外の件数（todo.exceptions）
+ * サービス内で入れ子に伝播しても、リクエスト単位で1回だけ数える
+ */
+@Component
+public class ExceptionMetrics {
+
+    static final String METRIC = "todo.exceptions";
+
+    private final MeterRegistry registry;
+
+    public ExceptionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void notFound() {
+        registry.counter(METRIC, "exception", "TodoNotFoundException", "code", "E404").increment();
+    }
+
+    public void business(BusinessException ex) {
+        registry.counter(METRIC, "exception", "BusinessException", "code", String.valueOf(ex.getErrorCode()))
+                .increment();
+    }
+
+    public void unexpected(Exception ex) {
+        registry.counter(METRIC, "exception", ex.getClass().getSimpleName(), "code", "E500").increment();
+    }
+}
@@ -11,8 +11,15 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final ExceptionMetrics exceptionMetrics;
+
+    public GlobalExceptionHandler(ExceptionMetrics exceptionMetrics) {
+        this.exceptionMetrics = exceptionMetrics;
+    }
+
     @ExceptionHandler(TodoNotFoundException.class)
     public String handleTodoNotFound(TodoNotFoundException ex, Model model) {
+        exceptionMetrics.notFound();
         model.addAttribute("errorMessage", "指定されたToDoが見つかりません");
         model.addAttribute("todoId", ex.getTodoId());
         return "error/404";
@@ -20,6 +27,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(BusinessException.class)
     public String handleBusinessException(BusinessException ex, Model model) {
+        exceptionMetrics.business(ex);
         model.addAttribute("errorCode", ex.getErrorCode());
         model.addAttribute("errorMessage", ex.getMessage());
         return "error/business";
@@ -28,6 +36,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public String handleException(Exception ex, Model model) {
         log.error("Unexpected error", ex);
+        exceptionMetrics.unexpected(ex);
         model.addAttribute("errorMessage", "システムエラーが発生しました");
         return "error/500";
     }
@@ -3,32 +3,70 @@ package com.example.todo.exception;
 import com.example.todo.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.stream.Collectors;
 
-@RestControllerAdvice(assignableTypes = com.example.todo.controller.TodoApiController.class)
+// GlobalExceptionHandler（画面用）より先に適用させる
+// @RestController なら /api 以外（/admin の管理 API など）もエラーを JSON で返す
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RestControllerAdvice(annotations = RestController.class)
 public class RestExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(RestExceptionHandler.class);
 
+    private final ExceptionMetrics exceptionMetrics;
+
+    public RestExceptionHandler(ExceptionMetrics exceptionMetrics) {
+        this.exceptionMetrics = exceptionMetrics;
+    }
+
     @ExceptionHandler(TodoNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(TodoNotFoundException ex) {
+        exceptionMetrics.notFound();
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ErrorResponse("NOT_FOUND", ex.getMessage()));
     }
 
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponse> handleBusiness(BusinessException ex) {
-        HttpStatus status = "E403".equals(ex.getErrorCode()) ? HttpStatus.FORBIDDEN : HttpStatus.BAD_REQUEST;
+        exceptionMetrics.business(ex);
+        HttpStatus status = switch (String.valueOf(ex.getErrorCode())) {
+            case "E401" -> HttpStatus.UNAUTHORIZED;
+            case "E403" -> HttpStatus.FORBIDDEN;
+            case "E404" -> HttpStatus.NOT_FOUND;
+            case "E409" -> HttpStatus.CONFLICT;
+            case "E429" -> HttpStatus.TOO_MANY_REQUESTS;
+            case "E503" -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.BAD_REQUEST;
+        };
         return ResponseEntity.status(status)
                 .body(new ErrorResponse(ex.getErrorCode(), ex.getMessage()));
     }
 
+    // @PreAuthorize で弾かれたもの（管理 API への一般ユーザー）を 500 にしない
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "権限がありません"));
+    }
+
+    // CategoryService などが投げる 404 を 500 にしない
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleStatus(ResponseStatusException ex) {
+        return ResponseEntity.status(ex.getStatusCode())
+                .body(new ErrorResponse(String.valueOf(ex.getStatusCode().value()), ex.getReason()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult()
@@ -43,6 +81,7 @@ public class RestExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception ex) {
         log.error("Unexpected API error", ex);
+        exceptionMetrics.unexpected(ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ErrorResponse("INTERNAL_ERROR", "システムエラーが発生しました"));
     }
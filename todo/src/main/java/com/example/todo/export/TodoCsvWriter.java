@@ -0,0 +1,110 @@
+package com.example.todo.export;
+
+import com.example.todo.dto.TodoDto;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ToDo の CSV 出力
+ * 1行ごとに String.format / DateTimeFormatter の文字列を作らず、
+ * 使い回しの StringBuilder に直接書き込む
+ */
+public class TodoCsvWriter {
+
+    public static final String HEADER = "ID,タイトル,説明,優先度,状態,カテゴリ,期限日,作成日";
+
+    private final Writer writer;
+    private final int flushInterval;
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] buffer = new char[256];
+    private long rows;
+
+    public TodoCsvWriter(Writer writer, int flushInterval) {
+        this.writer = writer;
+        this.flushInterval = flushInterval;
+    }
+
+    public void writeHeader() throws IOException {
+        writer.write('\ufeff');
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    public void writeRow(TodoDto todo) throws IOException {
+        line.setLength(0);
+        formatRow(todo, line);
+        // Writer.append(CharSequence) は toString() するので char[] 経由で書く
+        int length = line.length();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        line.getChars(0, length, buffer, 0);
+        writer.write(buffer, 0, length);
+        rows++;
+        if (rows % flushInterval == 0) {
+            writer.flush();
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * 1行分（改行込み）を追記する
+     * 形式は従来どおり: ID は素のまま、それ以外はダブルクォートで囲む
+     */
+    public static void formatRow(TodoDto todo, StringBuilder out) {
+        out.append(todo.getId());
+        appendQuoted(out, todo.getTitle());
+        appendQuoted(out, todo.getDescription());
+        appendQuoted(out, todo.getPriorityLevel() != null ? todo.getPriorityLevel().getDisplayName() : null);
+        appendQuoted(out, Boolean.TRUE.equals(todo.getCompleted()) ? "完了" : "未完了");
+        appendQuoted(out, todo.getCategoryName());
+        out.append(",\"");
+        LocalDate due = todo.getDueDate();
+        if (due != null) {
+            appendDate(out, due.getYear(), due.getMonthValue(), due.getDayOfMonth());
+        }
+        out.append("\",\"");
+        LocalDateTime created = todo.getCreatedAt();
+        if (created != null) {
+            appendDate(out, created.getYear(), created.getMonthValue(), created.getDayOfMonth());
+        }
+        out.append("\"\n");
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        out.append(",\"");
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.append('"');
+                }
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    // yyyy/MM/dd
+    private static void appendDate(StringBuilder out, int year, int month, int day) {
+        out.append(year).append('/');
+        if (month < 10) {
+            out.append('0');
+        }
+        out.append(month).append('/');
+        if (day < 10) {
+            out.append('0');
+        }
+        out.append(day);
+    }
+}
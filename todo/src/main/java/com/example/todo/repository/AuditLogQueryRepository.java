@@ -0,0 +1,24 @@
+package com.example.todo.repository;
+
+import com.example.todo.dto.AuditCursor;
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.entity.AuditLog;
+
+import java.util.List;
+
+/**
+ * 管理画面の監査ログ検索（createdAt DESC, id DESC のキーセットページング）
+ * 条件はすべて AuditLog のインデックスに乗る形（完全一致・前方一致・範囲）だけにする
+ */
+public interface AuditLogQueryRepository {
+
+    /**
+     * @param cursor null なら先頭ページ
+     */
+    List<AuditLog> findKeyset(AuditQuery query, AuditCursor cursor, int limit);
+
+    /**
+     * 条件に合う件数。ただし cap を超えたら数えるのをやめて cap + 1 を返す
+     */
+    long countCapped(AuditQuery query, int cap);
+}
@@ -0,0 +1,78 @@
+package com.example.todo.repository;
+
+import com.example.todo.dto.AuditCursor;
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.entity.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AuditLogQueryRepositoryImpl implements AuditLogQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuditLog> findKeyset(AuditQuery query, AuditCursor cursor, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT a FROM AuditLog a WHERE 1 = 1");
+        appendFilter(jpql, params, query, false);
+        if (cursor != null) {
+            jpql.append(" AND (a.createdAt < :cursorAt OR (a.createdAt = :cursorAt AND a.id < :cursorId))");
+            params.put("cursorAt", cursor.createdAt());
+            params.put("cursorId", cursor.id());
+        }
+        jpql.append(" ORDER BY a.createdAt DESC, a.id DESC");
+
+        TypedQuery<AuditLog> typed = entityManager.createQuery(jpql.toString(), AuditLog.class);
+        params.forEach(typed::setParameter);
+        typed.setMaxResults(limit);
+        return typed.getResultList();
+    }
+
+    @Override
+    public long countCapped(AuditQuery query, int cap) {
+        // 件数の多い表で count(*) を全件走らせないよう、LIMIT 付きの副問い合わせで打ち切る
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM (SELECT 1 FROM audit_logs a WHERE 1 = 1");
+        appendFilter(sql, params, query, true);
+        sql.append(" LIMIT ").append(cap + 1).append(") capped");
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString());
+        params.forEach(nativeQuery::setParameter);
+        return ((Number) nativeQuery.getSingleResult()).longValue();
+    }
+
+    private void appendFilter(StringBuilder query, Map<String, Object> params, AuditQuery filter, boolean nativeSql) {
+        String createdAt = nativeSql ? "a.created_at" : "a.createdAt";
+        if (filter.getAction() != null) {
+            query.append(" AND a.action = :action");
+            params.put("action", filter.getAction());
+        }
+        if (filter.getUsername() != null) {
+            query.append(" AND a.username LIKE :username ESCAPE '\\'");
+            params.put("username", escapeLike(filter.getUsername()) + "%");
+        }
+        if (filter.getTodoId() != null) {
+            query.append(nativeSql ? " AND a.todo_id = :todoId" : " AND a.todoId = :todoId");
+            params.put("todoId", filter.getTodoId());
+        }
+        if (filter.getFrom() != null) {
+            query.append(" AND ").append(createdAt).append(" >= :from");
+            params.put("from", filter.fromTime());
+        }
+        if (filter.getTo() != null) {
+            query.append(" AND ").append(createdAt).append(" < :to");
+            params.put("to", filter.toTimeExclusive());
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
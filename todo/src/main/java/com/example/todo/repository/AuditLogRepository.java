@@ -1,20 +1,42 @@
 package com.example.todo.repository;
 
 import com.example.todo.entity.AuditLog;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    Page<AuditLog> findByActionIgnoreCase(String action, Pageable pageable);
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, AuditLogQueryRepository {
+
+    @Query("SELECT MIN(a.createdAt) FROM AuditLog a")
+    LocalDateTime findOldestCreatedAt();
+
+    /**
+     * アーカイブ用: [from, to) の行を新しい順にキーセットで読む（先頭チャンクは afterId = null）
+     */
+    @Query("SELECT a FROM AuditLog a WHERE a.createdAt >= :from AND a.createdAt < :to "
+            + "AND (:afterId IS NULL OR a.createdAt < :afterCreatedAt "
+            + "OR (a.createdAt = :afterCreatedAt AND a.id < :afterId)) "
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLog> findArchiveChunk(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                    @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                    @Param("afterId") Long afterId, Pageable pageable);
 
-    Page<AuditLog> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
+    /**
+     * アーカイブ済みの行の id を最大 pageable 件（チャンクに分けて削除する）
+     */
+    @Query("SELECT a.id FROM AuditLog a WHERE a.createdAt >= :from AND a.createdAt < :to "
+            + "AND a.id BETWEEN :minId AND :maxId")
+    List<Long> findArchivedIds(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                               @Param("minId") long minId, @Param("maxId") long maxId, Pageable pageable);
 
-    Page<AuditLog> findByActionIgnoreCaseAndUsernameContainingIgnoreCase(
-            String action,
-            String username,
-            Pageable pageable
-    );
+    @Modifying
+    @Query("DELETE FROM AuditLog a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
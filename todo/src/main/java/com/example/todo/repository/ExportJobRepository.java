@@ -0,0 +1,49 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.ExportJob;
+import com.example.todo.enums.ExportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
+
+    long countByUsernameAndStatusIn(String username, Collection<ExportStatus> statuses);
+
+    List<ExportJob> findTop20ByUsernameOrderByCreatedAtDesc(String username);
+
+    List<ExportJob> findByStatusAndExpiresAtBefore(ExportStatus status, LocalDateTime time);
+
+    List<ExportJob> findByStatusInAndHeartbeatAtBefore(Collection<ExportStatus> statuses, LocalDateTime time);
+
+    /**
+     * 実行中の進捗（処理済み行数）を書く。どのノードで状態を見ても同じ値になる
+     */
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.processedRows = :rows, j.heartbeatAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("rows") long rows, @Param("now") LocalDateTime now);
+
+    /**
+     * このノードのキューに積んだ・実行中のジョブがまだ生きていることを書く
+     */
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.heartbeatAt = :now WHERE j.id IN :ids")
+    int touch(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * heartbeatAt が before より古いままの未完了ジョブを失敗にする（その間に更新されていれば何もしない）
+     */
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.status = com.example.todo.enums.ExportStatus.FAILED, j.errorMessage = :message, "
+            + "j.finishedAt = :now, j.expiresAt = :expiresAt WHERE j.id = :id AND j.heartbeatAt < :before "
+            + "AND j.status IN (com.example.todo.enums.ExportStatus.QUEUED, com.example.todo.enums.ExportStatus.RUNNING)")
+    int failIfStale(@Param("id") Long id, @Param("before") LocalDateTime before, @Param("message") String message,
+                    @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -0,0 +1,37 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * 空いている（解放済み・期限切れの）リースを取る
+     * 1文の条件付き UPDATE なので、同時に呼んでも 1 を返すのは1つだけ
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :until, l.version = l.version + 1 "
+            + "WHERE l.name = :name AND (l.leaseUntil IS NULL OR l.leaseUntil < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    /**
+     * リースを延長する。他に奪われていれば 0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.leaseUntil = :until, l.version = l.version + 1 "
+            + "WHERE l.name = :name AND l.owner = :owner AND l.leaseUntil IS NOT NULL")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.leaseUntil = NULL, l.version = l.version + 1 "
+            + "WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
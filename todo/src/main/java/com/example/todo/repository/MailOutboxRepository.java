@@ -0,0 +1,68 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.MailOutbox;
+import com.example.todo.enums.MailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * 送れる行（送信待ちで時刻が来たもの、または送信中のままリースが切れたもの）を古い順に limit 件ロックして id を返す
+     * SKIP LOCKED なので、他のノードが取得中（ロック中）の行は待たずに飛ばし、その次の行から取る
+     * 呼び出し側のトランザクションで続けて claim し、コミットまでロックを持つ
+     */
+    @Query(value = "SELECT id FROM mail_outbox WHERE (status = 'PENDING' AND next_attempt_at <= :now) "
+            + "OR (status = 'SENDING' AND claimed_until < :now) ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * lockClaimableIds でロックした行に token を書き込んで取る（コミット後は他のノードの検索条件から外れる）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MailOutbox o SET o.status = com.example.todo.enums.MailOutboxStatus.SENDING, "
+            + "o.claimToken = :token, o.claimedBy = :owner, o.claimedUntil = :until WHERE o.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("owner") String owner,
+              @Param("until") LocalDateTime until);
+
+    List<MailOutbox> findByClaimTokenOrderById(String claimToken);
+
+    /**
+     * 送り終えた分。リースが切れて他のノードに取り直されていれば token が変わっているので更新しない
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MailOutbox o SET o.status = com.example.todo.enums.MailOutboxStatus.SENT, o.sentAt = :now, "
+            + "o.attempts = o.attempts + 1, o.claimToken = NULL, o.claimedUntil = NULL "
+            + "WHERE o.id IN :ids AND o.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    /**
+     * 失敗した1件を status に戻す（PENDING なら nextAttemptAt に再送、DEAD なら打ち切り）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MailOutbox o SET o.status = :status, o.attempts = o.attempts + 1, "
+            + "o.nextAttemptAt = :nextAttemptAt, o.lastError = :error, o.claimToken = NULL, o.claimedUntil = NULL "
+            + "WHERE o.id = :id AND o.claimToken = :token")
+    int markFailed(@Param("id") Long id, @Param("token") String token, @Param("status") MailOutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    long countByStatus(MailOutboxStatus status);
+
+    // 送信待ちのうち最も古い行の登録時刻（遅延のゲージ用）
+    @Query("SELECT MIN(o.createdAt) FROM MailOutbox o WHERE o.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") MailOutboxStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM MailOutbox o WHERE o.status = com.example.todo.enums.MailOutboxStatus.SENT "
+            + "AND o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,51 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.ReminderRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReminderRunRepository extends JpaRepository<ReminderRun, LocalDate> {
+
+    /**
+     * 未完了で、リースが切れている（または自分が持っている）枠を取る
+     * 1文の条件付き UPDATE なので、同時に呼んでも 1 を返すのは1ノードだけ
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReminderRun r SET r.owner = :owner, r.leaseUntil = :until, r.attempts = r.attempts + 1, "
+            + "r.version = r.version + 1 WHERE r.slot = :slot AND r.completedAt IS NULL "
+            + "AND (r.leaseUntil < :now OR r.owner = :owner)")
+    int acquire(@Param("slot") LocalDate slot, @Param("owner") String owner,
+                @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    /**
+     * チェックポイントを進めてリースを延長する。他のノードに奪われていれば 0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReminderRun r SET r.lastUserId = :lastUserId, r.digests = r.digests + :digests, "
+            + "r.todos = r.todos + :todos, r.leaseUntil = :until, r.checkpointAt = :now, "
+            + "r.version = r.version + 1 WHERE r.slot = :slot AND r.owner = :owner")
+    int checkpoint(@Param("slot") LocalDate slot, @Param("owner") String owner,
+                   @Param("lastUserId") long lastUserId, @Param("digests") long digests,
+                   @Param("todos") long todos, @Param("until") LocalDateTime until,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReminderRun r SET r.completedAt = :now, r.leaseUntil = NULL, r.version = r.version + 1 "
+            + "WHERE r.slot = :slot AND r.owner = :owner")
+    int complete(@Param("slot") LocalDate slot, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 途中で止まった（リース切れの）枠。期限日を過ぎたものは送っても意味がないので除く
+     */
+    @Query("SELECT r.slot FROM ReminderRun r WHERE r.completedAt IS NULL AND r.leaseUntil < :now "
+            + "AND r.slot > :today ORDER BY r.slot")
+    List<LocalDate> findStalledSlots(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+}
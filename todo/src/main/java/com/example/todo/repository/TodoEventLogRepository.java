@@ -0,0 +1,37 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TodoEventLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TodoEventLogRepository extends JpaRepository<TodoEventLog, Long> {
+
+    /**
+     * since 以降に書かれたイベント（全ユーザー分。各ノードのポーリング用）
+     */
+    List<TodoEventLog> findByCreatedAtGreaterThanEqualOrderById(LocalDateTime since);
+
+    Optional<TodoEventLog> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 再接続時に再送する分: lastId より後、または lastId より前でも overlapSince 以降に書かれたもの
+     * （後者は lastId より先に採番されて後からコミットされたイベントの取りこぼしを防ぐ。重複は許容する）
+     */
+    @Query("SELECT e FROM TodoEventLog e WHERE e.userId = :userId AND e.id <> :lastId AND e.createdAt >= :expiredBefore "
+            + "AND (e.id > :lastId OR e.createdAt >= :overlapSince) ORDER BY e.id")
+    List<TodoEventLog> findReplay(@Param("userId") Long userId, @Param("lastId") Long lastId,
+                                  @Param("overlapSince") LocalDateTime overlapSince,
+                                  @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying
+    @Query("DELETE FROM TodoEventLog e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,60 @@
+package com.example.todo.repository;
+
+import com.example.todo.dto.TodoCursor;
+import com.example.todo.dto.TodoDto;
+import com.example.todo.enums.TodoSortKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 一覧・API・エクスポート用の読み取り専用クエリ断片
+ * 結果は TodoDto のコンストラクタ式で直接組み立て、永続化コンテキストに載せない
+ * キーセット（カーソル）ページングでは OFFSET と count(*) を使わずに「カーソルの次/前」を取得する
+ */
+public interface TodoKeysetRepository {
+
+    /**
+     * @param userId   null なら全ユーザー（管理者）
+     * @param ids      全文検索で絞り込んだ todoId（null なら絞り込みなし）
+     * @param cursor   null なら先頭ページ
+     * @param backward true ならカーソルより前を逆順で取得する（呼び出し側で反転する）
+     * @param limit    取得件数（次ページ有無の判定用に +1 して渡す）
+     */
+    List<TodoDto> findKeyset(Long userId, Collection<Long> ids, Long categoryId,
+                             TodoSortKey sortKey, Sort.Direction direction,
+                             TodoCursor cursor, boolean backward, int limit);
+
+    long countFiltered(Long userId, Collection<Long> ids, Long categoryId);
+
+    /**
+     * 条件に合う todoId を id 順に最大 limit 件（一括操作の対象解決用）
+     */
+    List<Long> findIdsFiltered(Long userId, Collection<Long> ids, Long categoryId, int limit);
+
+    /**
+     * findIdsFiltered と同じ条件の行を行ロック（SELECT ... FOR UPDATE）して id を返す
+     * トランザクションが終わるまで他の更新・削除を待たせるので、続く一括 UPDATE / DELETE はちょうどこの id の行に効く
+     */
+    List<Long> lockIdsFiltered(Long userId, Collection<Long> ids, Long categoryId, int limit);
+
+    /**
+     * OFFSET 方式の1ページ分（件数は必要なときだけ数える）
+     */
+    Page<TodoDto> findDtoPage(Long userId, Collection<Long> ids, Long categoryId, Pageable pageable);
+
+    List<TodoDto> findDtoList(Long userId, Collection<Long> ids, Long categoryId, Sort sort);
+
+    /**
+     * 条件に合う ToDo を DB カーソルで1件ずつ読み、action に渡す（エクスポート用）
+     * エンティティを作らないので、件数によらずメモリは一定
+     *
+     * @return 処理件数
+     */
+    long scanFiltered(Long userId, Collection<Long> ids, Long categoryId, Sort sort,
+                      int fetchSize, Consumer<TodoDto> action);
+}
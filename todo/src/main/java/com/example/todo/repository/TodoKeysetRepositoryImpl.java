@@ -0,0 +1,191 @@
+package com.example.todo.repository;
+
+import com.example.todo.dto.TodoCursor;
+import com.example.todo.dto.TodoDto;
+import com.example.todo.enums.TodoSortKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class TodoKeysetRepositoryImpl implements TodoKeysetRepository {
+
+    // 一覧に必要な列だけを取得する（管理エンティティ・スナップショットを作らない）
+    private static final String SELECT_DTO = "SELECT new com.example.todo.dto.TodoDto("
+            + "t.id, t.title, t.description, t.priority, t.completed, c.id, c.name, "
+            + "t.dueDate, t.createdAt, t.updatedAt, u.username) "
+            + "FROM Todo t LEFT JOIN t.category c LEFT JOIN t.user u WHERE 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoDto> findKeyset(Long userId, Collection<Long> ids, Long categoryId,
+                                    TodoSortKey sortKey, Sort.Direction direction,
+                                    TodoCursor cursor, boolean backward, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SELECT_DTO);
+        appendFilter(jpql, params, userId, ids, categoryId);
+
+        // 後方向はソートを反転して読み、呼び出し側で並びを戻す
+        boolean ascending = direction.isAscending() != backward;
+        String column = "t." + sortKey.getProperty();
+        if (cursor != null) {
+            jpql.append(" AND ").append(keysetPredicate(sortKey, column, ascending, backward, cursor.getValue() == null));
+            params.put("cursorId", cursor.getId());
+            if (sortKey != TodoSortKey.ID && cursor.getValue() != null) {
+                params.put("cursorValue", cursor.getValue());
+            }
+        }
+
+        String dir = ascending ? "ASC" : "DESC";
+        jpql.append(" ORDER BY ").append(column).append(' ').append(dir);
+        if (sortKey.isNullable()) {
+            jpql.append(backward ? " NULLS FIRST" : " NULLS LAST");
+        }
+        if (sortKey != TodoSortKey.ID) {
+            jpql.append(", t.id ").append(dir);
+        }
+
+        TypedQuery<TodoDto> query = entityManager.createQuery(jpql.toString(), TodoDto.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countFiltered(Long userId, Collection<Long> ids, Long categoryId) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(t) FROM Todo t WHERE 1 = 1");
+        appendFilter(jpql, params, userId, ids, categoryId);
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public List<Long> findIdsFiltered(Long userId, Collection<Long> ids, Long categoryId, int limit) {
+        return idsQuery(userId, ids, categoryId, limit).getResultList();
+    }
+
+    @Override
+    public List<Long> lockIdsFiltered(Long userId, Collection<Long> ids, Long categoryId, int limit) {
+        // id 順に取るので、同じ行を取り合う一括操作どうしでもデッドロックしない
+        return idsQuery(userId, ids, categoryId, limit).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+    }
+
+    private TypedQuery<Long> idsQuery(Long userId, Collection<Long> ids, Long categoryId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT t.id FROM Todo t WHERE 1 = 1");
+        appendFilter(jpql, params, userId, ids, categoryId);
+        jpql.append(" ORDER BY t.id");
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query;
+    }
+
+    @Override
+    public Page<TodoDto> findDtoPage(Long userId, Collection<Long> ids, Long categoryId, Pageable pageable) {
+        TypedQuery<TodoDto> query = dtoQuery(userId, ids, categoryId, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> countFiltered(userId, ids, categoryId));
+    }
+
+    @Override
+    public List<TodoDto> findDtoList(Long userId, Collection<Long> ids, Long categoryId, Sort sort) {
+        return dtoQuery(userId, ids, categoryId, sort).getResultList();
+    }
+
+    @Override
+    public long scanFiltered(Long userId, Collection<Long> ids, Long categoryId, Sort sort,
+                             int fetchSize, Consumer<TodoDto> action) {
+        TypedQuery<TodoDto> query = dtoQuery(userId, ids, categoryId, sort);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+
+        long count = 0;
+        try (Stream<TodoDto> stream = query.getResultStream()) {
+            Iterator<TodoDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private TypedQuery<TodoDto> dtoQuery(Long userId, Collection<Long> ids, Long categoryId, Sort sort) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SELECT_DTO);
+        appendFilter(jpql, params, userId, ids, categoryId);
+        String separator = " ORDER BY ";
+        for (Sort.Order order : sort) {
+            jpql.append(separator).append("t.").append(order.getProperty())
+                    .append(order.isAscending() ? " ASC" : " DESC");
+            separator = ", ";
+        }
+
+        TypedQuery<TodoDto> query = entityManager.createQuery(jpql.toString(), TodoDto.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private void appendFilter(StringBuilder jpql, Map<String, Object> params,
+                              Long userId, Collection<Long> ids, Long categoryId) {
+        if (userId != null) {
+            jpql.append(" AND t.user.id = :userId");
+            params.put("userId", userId);
+        }
+        if (ids != null) {
+            jpql.append(" AND t.id IN :ids");
+            params.put("ids", ids);
+        }
+        if (categoryId != null) {
+            jpql.append(" AND t.category.id = :categoryId");
+            params.put("categoryId", categoryId);
+        }
+    }
+
+    /**
+     * 「(ソート値, id) がカーソルより後ろ」の条件
+     * 並びは前方向で NULLS LAST、後方向（反転読み）で NULLS FIRST
+     */
+    private String keysetPredicate(TodoSortKey sortKey, String column, boolean ascending,
+                                   boolean backward, boolean cursorValueNull) {
+        String cmp = ascending ? ">" : "<";
+        if (sortKey == TodoSortKey.ID) {
+            return "t.id " + cmp + " :cursorId";
+        }
+        String tieBreak = "(" + column + " = :cursorValue AND t.id " + cmp + " :cursorId)";
+        if (!sortKey.isNullable()) {
+            return "(" + column + " " + cmp + " :cursorValue OR " + tieBreak + ")";
+        }
+        if (!backward) {
+            if (cursorValueNull) {
+                return "(" + column + " IS NULL AND t.id " + cmp + " :cursorId)";
+            }
+            return "(" + column + " " + cmp + " :cursorValue OR " + tieBreak + " OR " + column + " IS NULL)";
+        }
+        if (cursorValueNull) {
+            return "(" + column + " IS NOT NULL OR t.id " + cmp + " :cursorId)";
+        }
+        return "(" + column + " " + cmp + " :cursorValue OR " + tieBreak + ")";
+    }
+}
@@ -1,65 +1,191 @@
 package com.example.todo.repository;
 
+import com.example.todo.entity.Category;
 import com.example.todo.entity.Todo;
 import com.example.todo.entity.User;
+import com.example.todo.enums.Priority;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoKeysetRepository {
 
-    List<Todo> findByCompleted(Boolean completed);
+    @Override
+    @EntityGraph(attributePaths = {"category", "user"})
+    Page<Todo> findAll(Pageable pageable);
 
-    List<Todo> findByTitleContaining(String keyword);
+    @Override
+    @EntityGraph(attributePaths = {"category", "user"})
+    List<Todo> findAll(org.springframework.data.domain.Sort sort);
 
-    List<Todo> findByTitleContainingIgnoreCase(String keyword, org.springframework.data.domain.Sort sort);
+    List<Todo> findByCompleted(Boolean completed);
 
-    Page<Todo> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
+    List<Todo> findByTitleContaining(String keyword);
 
+    @EntityGraph(attributePaths = {"category", "user"})
     Page<Todo> findByCategoryId(Long categoryId, Pageable pageable);
 
-    Page<Todo> findByTitleContainingIgnoreCaseAndCategoryId(String keyword, Long categoryId, Pageable pageable);
-
+    @EntityGraph(attributePaths = {"category", "user"})
     List<Todo> findByCategoryId(Long categoryId, org.springframework.data.domain.Sort sort);
 
-    List<Todo> findByTitleContainingIgnoreCaseAndCategoryId(String keyword, Long categoryId, org.springframework.data.domain.Sort sort);
-
     void deleteByIdIn(List<Long> ids);
 
-    Page<Todo> findByUser(User user, Pageable pageable);
+    @EntityGraph(attributePaths = {"category", "user"})
+    List<Todo> findByIdIn(Collection<Long> ids, org.springframework.data.domain.Sort sort);
 
-    Page<Todo> findByUserAndTitleContainingIgnoreCase(User user, String keyword, Pageable pageable);
+    @EntityGraph(attributePaths = {"category", "user"})
+    Page<Todo> findByIdIn(Collection<Long> ids, Pageable pageable);
 
-    Page<Todo> findByUserAndCategoryId(User user, Long categoryId, Pageable pageable);
+    @EntityGraph(attributePaths = {"category", "user"})
+    Page<Todo> findByUser(User user, Pageable pageable);
 
-    Page<Todo> findByUserAndTitleContainingIgnoreCaseAndCategoryId(User user, String keyword, Long categoryId, Pageable pageable);
+    @EntityGraph(attributePaths = {"category", "user"})
+    Page<Todo> findByUserAndCategoryId(User user, Long categoryId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"category", "user"})
     List<Todo> findByUser(User user, org.springframework.data.domain.Sort sort);
 
-    List<Todo> findByUserAndTitleContainingIgnoreCase(User user, String keyword, org.springframework.data.domain.Sort sort);
-
+    @EntityGraph(attributePaths = {"category", "user"})
     List<Todo> findByUserAndCategoryId(User user, Long categoryId, org.springframework.data.domain.Sort sort);
 
-    List<Todo> findByUserAndTitleContainingIgnoreCaseAndCategoryId(User user, String keyword, Long categoryId, org.springframework.data.domain.Sort sort);
-
     List<Todo> findByDueDateLessThanEqual(LocalDate date);
 
-    List<Todo> findByDueDateAndCompletedFalse(LocalDate date);
+    /**
+     * 期限日が dueDate の未完了 ToDo を (userId, todoId) のキーセットで limit 件ずつ読む（ReminderService）
+     * ユーザー順に並ぶので、呼び出し側でユーザーごとにまとめられる
+     */
+    @Query("SELECT new com.example.todo.dto.ReminderItem(t.id, u.id, u.username, t.title, t.priority, "
+            + "t.dueDate) FROM Todo t JOIN t.user u WHERE t.dueDate = :dueDate AND t.completed = false "
+            + "AND (u.id > :afterUserId OR (u.id = :afterUserId AND t.id > :afterTodoId)) "
+            + "ORDER BY u.id, t.id")
+    List<com.example.todo.dto.ReminderItem> findReminderItems(@Param("dueDate") LocalDate dueDate,
+                                                             @Param("afterUserId") Long afterUserId,
+                                                             @Param("afterTodoId") Long afterTodoId,
+                                                             Pageable pageable);
+
+    /**
+     * 通知時刻になった ToDo のうち、未完了で期限が from 以降、かつその期限日にまだ送っていないものに送信済みの印を付ける
+     * 行ごとの条件付き UPDATE なので、同じ ToDo・期限日の組を取れるのは1回（1ノード）だけ
+     * version / updatedAt は変えない（ユーザーの編集と衝突させない）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.reminderSentFor = t.dueDate, t.reminderClaim = :claim WHERE t.id IN :ids "
+            + "AND t.completed = false AND t.dueDate >= :from "
+            + "AND (t.reminderSentFor IS NULL OR t.reminderSentFor <> t.dueDate)")
+    int claimReminders(@Param("ids") Collection<Long> ids, @Param("from") LocalDate from, @Param("claim") long claim);
+
+    // claimReminders で取れた分（ユーザー・期限日ごとにまとめられる順）
+    @Query("SELECT new com.example.todo.dto.ReminderItem(t.id, u.id, u.username, t.title, t.priority, "
+            + "t.dueDate) FROM Todo t JOIN t.user u WHERE t.id IN :ids AND t.reminderClaim = :claim "
+            + "ORDER BY u.id, t.dueDate, t.id")
+    List<com.example.todo.dto.ReminderItem> findClaimedReminderItems(@Param("ids") Collection<Long> ids,
+                                                                    @Param("claim") long claim);
+
+    /**
+     * 期限のタイミングホイールの読み込み用: [id, userId, dueDate]
+     * 未完了で期限が from 以降、その期限日にまだ送っていないもの（id 順に limit 件ずつ）
+     */
+    @Query("SELECT t.id, t.user.id, t.dueDate FROM Todo t WHERE t.completed = false AND t.dueDate >= :from "
+            + "AND (t.reminderSentFor IS NULL OR t.reminderSentFor <> t.dueDate) "
+            + "AND t.user IS NOT NULL AND t.id > :afterId ORDER BY t.id")
+    List<Object[]> findDeadlineRows(@Param("from") LocalDate from, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 他のノードでの変更を期限のタイミングホイールに取り込む用: [id, userId, dueDate, completed, updatedAt]
+     * (updatedAt, id) のキーセットで limit 件ずつ。最初のページは afterId に Long.MAX_VALUE を渡す
+     */
+    @Query("SELECT t.id, t.user.id, t.dueDate, t.completed, t.updatedAt FROM Todo t WHERE t.user IS NOT NULL "
+            + "AND (t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :afterId)) ORDER BY t.updatedAt, t.id")
+    List<Object[]> findDeadlineChanges(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // 1ユーザー分（通知のオフセットを変えたときの付け直し用）
+    @Query("SELECT t.id, t.user.id, t.dueDate FROM Todo t WHERE t.completed = false AND t.dueDate >= :from "
+            + "AND (t.reminderSentFor IS NULL OR t.reminderSentFor <> t.dueDate) AND t.user.id = :userId")
+    List<Object[]> findDeadlineRowsByUserId(@Param("userId") Long userId, @Param("from") LocalDate from);
 
     List<Todo> findAllByOrderByPriorityDesc();
 
-    long countByUser(User user);
-
-    long countByUserAndCompletedTrue(User user);
-
-    long countByUserAndDueDateBetween(User user, LocalDate start, LocalDate end);
-
-    @Query("SELECT t FROM Todo t WHERE t.completed = false ORDER BY t.dueDate ASC")
+    /**
+     * 件数集計の照合用（TodoStatsService）。指定ユーザー分を集計軸ごとに GROUP BY で数える
+     * 各行は [userId, completed, priority, count]
+     */
+    @Query("SELECT t.user.id, t.completed, t.priority, COUNT(t) FROM Todo t WHERE t.user.id IN :userIds "
+            + "GROUP BY t.user.id, t.completed, t.priority")
+    List<Object[]> countByUserCompletedPriority(@Param("userIds") Collection<Long> userIds);
+
+    // [userId, categoryId, count]（カテゴリなしは含めない）
+    @Query("SELECT t.user.id, t.category.id, COUNT(t) FROM Todo t WHERE t.user.id IN :userIds "
+            + "AND t.category IS NOT NULL GROUP BY t.user.id, t.category.id")
+    List<Object[]> countByUserCategory(@Param("userIds") Collection<Long> userIds);
+
+    // [userId, dueDate, count]
+    @Query("SELECT t.user.id, t.dueDate, COUNT(t) FROM Todo t WHERE t.user.id IN :userIds AND t.dueDate >= :from "
+            + "GROUP BY t.user.id, t.dueDate")
+    List<Object[]> countByUserDueDateFrom(@Param("userIds") Collection<Long> userIds, @Param("from") LocalDate from);
+
+    /**
+     * 一括更新・削除の前に、件数集計に効く列だけを読む
+     */
+    @Query("SELECT new com.example.todo.dto.TodoStatsRow(t.id, u.id, t.completed, t.priority, c.id, t.dueDate) "
+            + "FROM Todo t LEFT JOIN t.user u LEFT JOIN t.category c WHERE t.id IN :ids")
+    List<com.example.todo.dto.TodoStatsRow> findStatsRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t FROM Todo t LEFT JOIN FETCH t.user LEFT JOIN FETCH t.category "
+            + "WHERE t.completed = false ORDER BY t.dueDate ASC")
     List<Todo> findUncompletedOrderByDueDate();
+
+    /**
+     * 検索インデックス再構築用: id, userId, categoryId, title, description
+     */
+    @Query("SELECT t.id, u.id, c.id, t.title, t.description FROM Todo t "
+            + "LEFT JOIN t.user u LEFT JOIN t.category c WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findSearchRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    /*
+     * 一括操作（/api/todos/bulk）用の集合更新
+     * エンティティを読まずに1文で更新・削除する。userId が null なら所有者で絞らない（管理者）
+     * ライフサイクルコールバックを通らないので updatedAt / version / priorityRank はここで更新する
+     */
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.completed = :completed, t.updatedAt = :now, t.version = t.version + 1 "
+            + "WHERE t.id IN :ids AND (:userId IS NULL OR t.user.id = :userId)")
+    int updateCompleted(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                        @Param("completed") boolean completed, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.priority = :priority, t.priorityRank = :rank, t.updatedAt = :now, "
+            + "t.version = t.version + 1 WHERE t.id IN :ids AND (:userId IS NULL OR t.user.id = :userId)")
+    int updatePriority(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                       @Param("priority") Priority priority, @Param("rank") int rank,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.category = :category, t.updatedAt = :now, t.version = t.version + 1 "
+            + "WHERE t.id IN :ids AND (:userId IS NULL OR t.user.id = :userId)")
+    int updateCategory(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                       @Param("category") Category category, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Todo t WHERE t.id IN :ids AND (:userId IS NULL OR t.user.id = :userId)")
+    int deleteByIdInForUser(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    /**
+     * 検索インデックス更新用（findSearchRows と同じ列）
+     */
+    @Query("SELECT t.id, u.id, c.id, t.title, t.description FROM Todo t "
+            + "LEFT JOIN t.user u LEFT JOIN t.category c WHERE t.id IN :ids")
+    List<Object[]> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,36 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TodoStatsCounter;
+import com.example.todo.enums.StatsDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TodoStatsCounterRepository extends JpaRepository<TodoStatsCounter, Long> {
+
+    List<TodoStatsCounter> findByUserId(Long userId);
+
+    List<TodoStatsCounter> findByUserIdIn(Collection<Long> userIds);
+
+    /**
+     * 増減を加算する（行がなければ 0 を返すので、呼び出し側で INSERT する）
+     */
+    @Modifying
+    @Query("UPDATE TodoStatsCounter c SET c.count = c.count + :delta, c.updatedAt = :now "
+            + "WHERE c.userId = :userId AND c.dimension = :dimension AND c.bucket = :bucket")
+    int addCount(@Param("userId") Long userId, @Param("dimension") StatsDimension dimension,
+                 @Param("bucket") String bucket, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    // 期限日のバケットは yyyy-MM-dd なので文字列の大小で比べられる
+    @Modifying
+    @Query("DELETE FROM TodoStatsCounter c WHERE c.userId IN :userIds "
+            + "AND c.dimension = com.example.todo.enums.StatsDimension.DUE_DATE AND c.bucket < :before")
+    int deleteDueDatesBefore(@Param("userIds") Collection<Long> userIds, @Param("before") String before);
+}
@@ -2,11 +2,31 @@ package com.example.todo.repository;
 
 import com.example.todo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // 期限リマインダーの通知オフセットを個別に設定しているユーザー: [id, reminderOffsetMinutes]
+    @Query("SELECT u.id, u.reminderOffsetMinutes FROM User u WHERE u.reminderOffsetMinutes IS NOT NULL")
+    List<Object[]> findReminderOffsets();
+
+    /**
+     * ユーザー単位で順番待ちにしたい処理（エクスポートの同時実行数の判定など）の前にユーザー行をロックする
+     * デッドロックしないよう常に id 順に取る
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 照合用に id 順で一定件数ずつ読む
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
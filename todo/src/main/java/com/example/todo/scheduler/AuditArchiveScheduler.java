@@ -0,0 +1,29 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.service.AuditArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveScheduler.class);
+
+    private final AuditArchiveService auditArchiveService;
+
+    public AuditArchiveScheduler(AuditArchiveService auditArchiveService) {
+        this.auditArchiveService = auditArchiveService;
+    }
+
+    // 保持期間を過ぎた月の監査ログをアーカイブへ移す
+    @Scheduled(initialDelayString = "${app.audit.archive.initial-delay:PT5M}",
+            fixedDelayString = "${app.audit.archive.interval:PT6H}")
+    public void archiveExpired() {
+        long archived = auditArchiveService.archiveExpired();
+        if (archived > 0) {
+            logger.info("AuditArchiveScheduler: {} audit logs archived", archived);
+        }
+    }
+}
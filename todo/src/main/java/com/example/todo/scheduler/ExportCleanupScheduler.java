@@ -0,0 +1,39 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.service.ExportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ExportCleanupScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportCleanupScheduler.class);
+
+    private final ExportJobService exportJobService;
+
+    public ExportCleanupScheduler(ExportJobService exportJobService) {
+        this.exportJobService = exportJobService;
+    }
+
+    // 保持期限切れのエクスポート結果を定期的に削除
+    @Scheduled(fixedDelayString = "${app.export.job.cleanup-interval:PT10M}")
+    public void expireOldResults() {
+        int expired = exportJobService.expireOldResults();
+        if (expired > 0) {
+            logger.info("ExportCleanupScheduler: {} export results expired", expired);
+        }
+    }
+
+    // このノードのジョブの生存を書き、止まった（ノードが落ちた）ジョブを失敗にする（全ノードで動かしてよい）
+    @Scheduled(initialDelayString = "${app.export.job.heartbeat-interval:PT30S}",
+            fixedDelayString = "${app.export.job.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        exportJobService.heartbeat();
+        int failed = exportJobService.failStaleJobs();
+        if (failed > 0) {
+            logger.warn("ExportCleanupScheduler: {} stalled export jobs failed", failed);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.service.MailOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * app.mail.outbox.dispatch-enabled=false のノード（とテスト）では送らない。積むのはどのノードでも行う
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.dispatch-enabled", havingValue = "true", matchIfMissing = true)
+public class MailOutboxScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxScheduler.class);
+
+    private final MailOutboxService mailOutboxService;
+    private final int maxBatchesPerPoll;
+
+    public MailOutboxScheduler(MailOutboxService mailOutboxService,
+                               @Value("${app.mail.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll) {
+        this.mailOutboxService = mailOutboxService;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    // 送信待ちをバッチで送る（全ノードで動かしてよい。行の取り合いは MailOutboxService が行う）
+    @Scheduled(initialDelayString = "${app.mail.outbox.poll-interval:PT1S}",
+            fixedDelayString = "${app.mail.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        int processed = mailOutboxService.drain(maxBatchesPerPoll);
+        if (processed > 0) {
+            logger.debug("MailOutboxScheduler: {} mails processed", processed);
+        }
+        mailOutboxService.refreshBacklog();
+    }
+
+    // 送信済みで保持期間を過ぎた行を消す
+    @Scheduled(initialDelayString = "${app.mail.outbox.purge-interval:PT1H}",
+            fixedDelayString = "${app.mail.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        int purged = mailOutboxService.purgeSent();
+        if (purged > 0) {
+            logger.info("MailOutboxScheduler: {} sent mails purged", purged);
+        }
+    }
+}
@@ -1,42 +1,63 @@
 package com.example.todo.scheduler;
 
-import com.example.todo.entity.Todo;
-import com.example.todo.repository.TodoRepository;
-import com.example.todo.service.MailService;
+import com.example.todo.deadline.DeadlineWheel;
+import com.example.todo.enums.ReminderMode;
+import com.example.todo.service.ReminderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Component
 public class ReminderScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
 
-    private final TodoRepository todoRepository;
-    private final MailService mailService;
+    private final ReminderService reminderService;
+    private final DeadlineWheel deadlineWheel;
+    private final ReminderMode mode;
 
-    public ReminderScheduler(TodoRepository todoRepository, MailService mailService) {
-        this.todoRepository = todoRepository;
-        this.mailService = mailService;
+    public ReminderScheduler(ReminderService reminderService, DeadlineWheel deadlineWheel,
+                             @Value("${app.reminder.mode:DAILY}") ReminderMode mode) {
+        this.reminderService = reminderService;
+        this.deadlineWheel = deadlineWheel;
+        this.mode = mode;
     }
 
-    // 毎日9時に「明日が期限」のToDoを通知（ログのみ）
-    @Scheduled(cron = "0 0 9 * * *")
+    // DAILY: 毎日9時に「明日が期限」のToDoをユーザーごとにまとめて通知（全ノードで起動しても送るのは1ノード）
+    @Scheduled(cron = "${app.reminder.cron:0 0 9 * * *}")
     public void sendDailyReminders() {
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
-        List<Todo> todos = todoRepository.findByDueDateAndCompletedFalse(tomorrow);
-        if (todos.isEmpty()) {
+        if (mode == ReminderMode.DAILY) {
+            reminderService.run(LocalDate.now().plusDays(1));
+        }
+    }
+
+    // DAILY: 途中で落ちたノードの実行を、リースが切れた後に引き継ぐ
+    @Scheduled(initialDelayString = "${app.reminder.resume-interval:PT5M}",
+            fixedDelayString = "${app.reminder.resume-interval:PT5M}")
+    public void resumeStalled() {
+        if (mode != ReminderMode.DAILY) {
             return;
         }
-        logger.info("ReminderScheduler: {} todos due tomorrow", todos.size());
-        for (Todo todo : todos) {
-            if (todo.getUser() != null) {
-                mailService.sendDeadlineReminderAsync(todo.getUser(), todo);
-            }
+        int resumed = reminderService.resumeStalled();
+        if (resumed > 0) {
+            logger.info("ReminderScheduler: {} stalled reminder runs resumed", resumed);
         }
     }
+
+    // WHEEL: 通知時刻になった期限を送る
+    @Scheduled(fixedDelayString = "${app.reminder.wheel.tick:PT1S}")
+    public void advanceWheel() {
+        deadlineWheel.tick();
+    }
+
+    // WHEEL: 他のノードでの ToDo・通知オフセットの変更を取り込む
+    @Scheduled(initialDelayString = "${app.reminder.wheel.poll-interval:PT10S}",
+            fixedDelayString = "${app.reminder.wheel.poll-interval:PT10S}")
+    public void pollWheelChanges() {
+        deadlineWheel.pollChanges();
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.stream.TodoEventHub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 他のノードで発行された変更通知を todo_event_log から読んで、このノードの SSE 接続へ配る（検索インデックスにも反映する）
+ * 1ノードだけで動かすとき（とテスト）は app.stream.poll-enabled=false で止めてよい
+ * 止めると他のノードの変更は SSE にも検索インデックスにも届かない
+ */
+@Component
+@ConditionalOnProperty(name = "app.stream.poll-enabled", havingValue = "true", matchIfMissing = true)
+public class TodoEventPollScheduler {
+
+    private final TodoEventHub eventHub;
+
+    public TodoEventPollScheduler(TodoEventHub eventHub) {
+        this.eventHub = eventHub;
+    }
+
+    @Scheduled(initialDelayString = "${app.stream.poll-interval:PT1S}",
+            fixedDelayString = "${app.stream.poll-interval:PT1S}")
+    public void poll() {
+        eventHub.poll();
+    }
+}
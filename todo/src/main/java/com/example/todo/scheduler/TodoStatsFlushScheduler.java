@@ -0,0 +1,27 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.service.TodoStatsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ノード内に溜めた件数カウンタの増減を todo_stats_counters へ書き出す
+ * テストでは app.stats.flush-enabled=false で止め、必要なテストから TodoStatsService.flush を直接呼ぶ
+ */
+@Component
+@ConditionalOnProperty(name = "app.stats.flush-enabled", havingValue = "true", matchIfMissing = true)
+public class TodoStatsFlushScheduler {
+
+    private final TodoStatsService todoStatsService;
+
+    public TodoStatsFlushScheduler(TodoStatsService todoStatsService) {
+        this.todoStatsService = todoStatsService;
+    }
+
+    @Scheduled(initialDelayString = "${app.stats.flush-interval:PT5S}",
+            fixedDelayString = "${app.stats.flush-interval:PT5S}")
+    public void flush() {
+        todoStatsService.flush();
+    }
+}
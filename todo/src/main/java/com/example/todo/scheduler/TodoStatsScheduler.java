@@ -0,0 +1,21 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.service.TodoStatsService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TodoStatsScheduler {
+
+    private final TodoStatsService todoStatsService;
+
+    public TodoStatsScheduler(TodoStatsService todoStatsService) {
+        this.todoStatsService = todoStatsService;
+    }
+
+    // todos から数え直してずれを補正する（リースを取った1ノードだけが動かす）
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        todoStatsService.reconcile();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.todo.scheduler;
+
+import com.example.todo.stream.TodoEventHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TodoStreamScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoStreamScheduler.class);
+
+    private final TodoEventHub eventHub;
+
+    public TodoStreamScheduler(TodoEventHub eventHub) {
+        this.eventHub = eventHub;
+    }
+
+    // SSE 接続を生かしておくためのハートビート（切れた接続の掃除も兼ねる）
+    @Scheduled(initialDelayString = "${app.stream.heartbeat-interval:PT15S}",
+            fixedDelayString = "${app.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        eventHub.heartbeat();
+    }
+
+    // 再送できる期間を過ぎたイベントを todo_event_log から消す（全ノードで動かしてよい）
+    // 表に残るのはおおよそ replay-ttl + purge-interval の間に書かれた分まで
+    @Scheduled(initialDelayString = "${app.stream.purge-interval:PT1M}",
+            fixedDelayString = "${app.stream.purge-interval:PT1M}")
+    public void purgeExpired() {
+        int purged = eventHub.purgeExpired();
+        if (purged > 0) {
+            logger.debug("TodoStreamScheduler: {} expired events purged", purged);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.todo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 日本語向けの N-gram(bi-gram) トークナイザ
+ * 空白で区切った各断片から 1文字(uni-gram) と 2文字(bi-gram) を切り出す
+ * 全角/半角・大文字/小文字の揺れは NFKC + 小文字化で吸収する
+ */
+public final class BigramTokenizer {
+
+    private BigramTokenizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引用: uni-gram と bi-gram の両方を返す（1文字検索に対応するため）
+     */
+    public static List<String> indexTokens(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        for (String segment : segments(normalized)) {
+            int[] cps = segment.codePoints().toArray();
+            for (int i = 0; i < cps.length; i++) {
+                tokens.add(new String(cps, i, 1));
+                if (i + 1 < cps.length) {
+                    tokens.add(new String(cps, i, 2));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 検索語用: 1文字なら uni-gram、2文字以上なら bi-gram のみ
+     */
+    public static List<String> queryTokens(String normalizedTerm) {
+        int[] cps = normalizedTerm.codePoints().toArray();
+        List<String> tokens = new ArrayList<>();
+        if (cps.length == 1) {
+            tokens.add(normalizedTerm);
+            return tokens;
+        }
+        for (int i = 0; i + 1 < cps.length; i++) {
+            tokens.add(new String(cps, i, 2));
+        }
+        return tokens;
+    }
+
+    /**
+     * 空白で区切った検索語（AND 条件）
+     */
+    public static List<String> segments(String normalized) {
+        List<String> segments = new ArrayList<>();
+        for (String part : normalized.split("\\s+")) {
+            if (!part.isEmpty()) {
+                segments.add(part);
+            }
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.todo.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ToDo のタイトル・説明に対するメモリ上の転置インデックス
+ * トークン -> (todoId -> 出現回数) を保持し、ユーザー/カテゴリで絞り込める
+ *
+ * 再構築中も put/remove は現行インデックスと構築中インデックスの両方に反映し、
+ * 再構築中に更新された id は DB から読み込んだ（古いかもしれない）値で上書きしない
+ */
+public class TodoSearchIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot current = new Snapshot();
+    private Snapshot building;
+    private Set<Long> touchedWhileBuilding;
+    // 一度でも再構築を終えるまでは DB の一部しか載っていない
+    private volatile boolean ready;
+
+    public void put(long id, Long userId, Long categoryId, String title, String description) {
+        Doc doc = new Doc(id, userId, categoryId,
+                BigramTokenizer.normalize(title), BigramTokenizer.normalize(description));
+        lock.writeLock().lock();
+        try {
+            current.put(doc);
+            if (building != null) {
+                building.put(doc);
+                touchedWhileBuilding.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            current.remove(id);
+            if (building != null) {
+                building.remove(id);
+                touchedWhileBuilding.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            building = new Snapshot();
+            touchedWhileBuilding = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 再構築用に DB から読んだ1件を追加する（beginRebuild 後のみ有効）
+     */
+    public void load(long id, Long userId, Long categoryId, String title, String description) {
+        Doc doc = new Doc(id, userId, categoryId,
+                BigramTokenizer.normalize(title), BigramTokenizer.normalize(description));
+        lock.writeLock().lock();
+        try {
+            if (building != null && !touchedWhileBuilding.contains(id)) {
+                building.put(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int finishRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (building != null) {
+                current = building;
+                building = null;
+                touchedWhileBuilding = null;
+                ready = true;
+            }
+            return current.docs.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            building = null;
+            touchedWhileBuilding = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isRebuilding() {
+        lock.readLock().lock();
+        try {
+            return building != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 関連度順に todoId を返す
+     * 空白区切りの各語は AND。bi-gram の積集合で候補を絞り、元テキストで包含を確認する
+     *
+     * @param userId     null なら全ユーザー
+     * @param categoryId null なら全カテゴリ
+     */
+    public List<Long> search(String query, Long userId, Long categoryId) {
+        return search(query, userId, categoryId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 関連度の高い順に最大 limit 件の todoId を返す
+     */
+    public List<Long> search(String query, Long userId, Long categoryId, int limit) {
+        List<String> terms = BigramTokenizer.segments(BigramTokenizer.normalize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term, userId, categoryId);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> merged = new HashMap<>();
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        Double other = termScores.get(e.getKey());
+                        if (other != null) {
+                            merged.put(e.getKey(), e.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+            int count = Math.min(limit, ranked.size());
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term, Long userId, Long categoryId) {
+        List<String> tokens = BigramTokenizer.queryTokens(term);
+        List<Map<Long, Posting>> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Map<Long, Posting> postings = current.postings.get(token);
+            if (postings == null) {
+                return Map.of();
+            }
+            lists.add(postings);
+        }
+        // 一番短いポスティングから積集合を取る
+        Map<Long, Posting> smallest = lists.get(0);
+        for (Map<Long, Posting> postings : lists) {
+            if (postings.size() < smallest.size()) {
+                smallest = postings;
+            }
+        }
+        int docCount = Math.max(1, current.docs.size());
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long id : smallest.keySet()) {
+            Doc doc = current.docs.get(id);
+            if (userId != null && !userId.equals(doc.userId)) {
+                continue;
+            }
+            if (categoryId != null && !categoryId.equals(doc.categoryId)) {
+                continue;
+            }
+            // bi-gram の一致だけでは語順が保証されないので原文で確認する
+            if (!doc.title.contains(term) && !doc.description.contains(term)) {
+                continue;
+            }
+            double score = 0;
+            boolean all = true;
+            for (int i = 0; i < tokens.size() && all; i++) {
+                Map<Long, Posting> postings = lists.get(i);
+                Posting posting = postings.get(id);
+                if (posting == null) {
+                    all = false;
+                } else {
+                    double idf = Math.log(1.0 + (double) docCount / postings.size());
+                    score += idf * (TITLE_WEIGHT * posting.titleFreq + posting.descriptionFreq);
+                }
+            }
+            if (all) {
+                scores.put(id, score);
+            }
+        }
+        return scores;
+    }
+
+    private static final class Doc {
+        final long id;
+        final Long userId;
+        final Long categoryId;
+        final String title;
+        final String description;
+
+        Doc(long id, Long userId, Long categoryId, String title, String description) {
+            this.id = id;
+            this.userId = userId;
+            this.categoryId = categoryId;
+            this.title = title;
+            this.description = description;
+        }
+    }
+
+    private static final class Posting {
+        int titleFreq;
+        int descriptionFreq;
+    }
+
+    private static final class Snapshot {
+        final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+        final Map<Long, Doc> docs = new HashMap<>();
+
+        void put(Doc doc) {
+            remove(doc.id);
+            docs.put(doc.id, doc);
+            for (String token : BigramTokenizer.indexTokens(doc.title)) {
+                posting(token, doc.id).titleFreq++;
+            }
+            for (String token : BigramTokenizer.indexTokens(doc.description)) {
+                posting(token, doc.id).descriptionFreq++;
+            }
+        }
+
+        void remove(long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            List<String> tokens = new ArrayList<>(BigramTokenizer.indexTokens(old.title));
+            tokens.addAll(BigramTokenizer.indexTokens(old.description));
+            for (String token : tokens) {
+                Map<Long, Posting> postings = this.postings.get(token);
+                if (postings != null) {
+                    postings.remove(id);
+                    if (postings.isEmpty()) {
+                        this.postings.remove(token);
+                    }
+                }
+            }
+        }
+
+        private Posting posting(String token, long id) {
+            return postings.computeIfAbsent(token, k -> new HashMap<>())
+                    .computeIfAbsent(id, k -> new Posting());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.todo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authorization: Bearer のアクセストークンを検証して認証済みにする
+ * ヘッダがなければ何もしない（後続の認可で 401 になる）
+ *
+ * Bean にするとサーブレットフィルタとして全リクエストに登録されるため、SecurityConfig で生成する
+ */
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final ApiTokenService tokenService;
+    private final AuthenticationEntryPoint entryPoint;
+
+    public ApiTokenAuthenticationFilter(ApiTokenService tokenService, AuthenticationEntryPoint entryPoint) {
+        this.tokenService = tokenService;
+        this.entryPoint = entryPoint;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (!hasBearerToken(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        ApiTokenService.Claims claims = tokenService.verify(header.substring(PREFIX.length()).trim(),
+                ApiTokenService.Type.ACCESS);
+        if (claims == null) {
+            SecurityContextHolder.clearContext();
+            entryPoint.commence(request, response, new BadCredentialsException("invalid token"));
+            return;
+        }
+
+        // @AuthenticationPrincipal UserDetails で受け取れるよう、フォームログインと同じ型にする
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + claims.getRole()));
+        UserDetails principal = new User(claims.getUsername(), "", authorities);
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Bearer トークン付きのリクエストか（SecurityConfig で CSRF の要否の判定にも使う）
+     */
+    public static boolean hasBearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith(PREFIX);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.todo.security;
+
+import com.example.todo.entity.User;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * /api/** 用のステートレストークン（HMAC-SHA256 署名）
+ * 形式: base64url(本文) + "." + base64url(署名)
+ * 本文: "v1:種別:有効期限(epoch秒):ロール:ユーザー名"
+ *
+ * 検証は署名と有効期限だけで行い、DB もセッションも参照しない
+ * パスワード照合（BCrypt）はログイン時の1回だけ
+ */
+@Service
+public class ApiTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public enum Type {
+        ACCESS("a"), REFRESH("r");
+
+        private final String code;
+
+        Type(String code) {
+            this.code = code;
+        }
+    }
+
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final SecretKeySpec key;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Clock clock;
+    // Mac はスレッドセーフではないのでスレッドごとに持つ
+    private final ThreadLocal<Mac> macs;
+    // 存在しないユーザーのログインで照合に使う（初回に作る）
+    private volatile String dummyHash;
+
+    @Autowired
+    public ApiTokenService(UserService userService,
+                           PasswordEncoder passwordEncoder,
+                           @Value("${app.api.token.secret:}") String secret,
+                           @Value("${app.api.token.access-ttl:PT15M}") Duration accessTtl,
+                           @Value("${app.api.token.refresh-ttl:P7D}") Duration refreshTtl,
+                           @Value("${app.api.token.allow-random-secret:false}") boolean allowRandomSecret) {
+        this(userService, passwordEncoder, secret, accessTtl, refreshTtl, allowRandomSecret, Clock.systemUTC());
+    }
+
+    ApiTokenService(UserService userService, PasswordEncoder passwordEncoder, String secret,
+                    Duration accessTtl, Duration refreshTtl, boolean allowRandomSecret, Clock clock) {
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.key = new SecretKeySpec(secretBytes(secret, allowRandomSecret), ALGORITHM);
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * パスワードを照合してアクセス/リフレッシュトークンを発行する
+     * ユーザーが存在しなくてもダミーのハッシュと照合する（応答時間の差でユーザー名の有無がわからないように）
+     */
+    public TokenPair login(String username, String password) {
+        Optional<User> user = userService.findByUsername(username);
+        String hash = user.map(User::getPassword).orElseGet(this::dummyHash);
+        boolean matches = password != null && passwordEncoder.matches(password, hash);
+        if (user.isEmpty() || !matches) {
+            throw new BusinessException("E401", "ユーザー名またはパスワードが正しくありません");
+        }
+        return issuePair(user.get());
+    }
+
+    /**
+     * リフレッシュトークンから新しいトークンを発行する
+     * ロール変更・削除を反映するため、ここだけはユーザーを引き直す（キャッシュ経由）
+     */
+    public TokenPair refresh(String refreshToken) {
+        Claims claims = verify(refreshToken, Type.REFRESH);
+        if (claims == null) {
+            throw new BusinessException("E401", "リフレッシュトークンが無効です");
+        }
+        User user = userService.findByUsername(claims.getUsername())
+                .orElseThrow(() -> new BusinessException("E401", "リフレッシュトークンが無効です"));
+        return issuePair(user);
+    }
+
+    public String issue(String username, String role, Type type) {
+        Duration ttl = type == Type.ACCESS ? accessTtl : refreshTtl;
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String body = VERSION + ":" + type.code + ":" + expiresAt + ":" + role + ":" + username;
+        String encodedBody = ENCODER.encodeToString(body.getBytes(StandardCharsets.UTF_8));
+        return encodedBody + "." + ENCODER.encodeToString(sign(encodedBody));
+    }
+
+    /**
+     * @return 署名・種別・有効期限がすべて正しければ Claims、それ以外は null
+     */
+    public Claims verify(String token, Type type) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        String encodedBody = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedBody))) {
+                return null;
+            }
+            String[] parts = new String(DECODER.decode(encodedBody), StandardCharsets.UTF_8).split(":", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !type.code.equals(parts[1])) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(parts[2]);
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            return new Claims(parts[4], parts[3], expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private TokenPair issuePair(User user) {
+        return new TokenPair(
+                issue(user.getUsername(), user.getRole(), Type.ACCESS),
+                issue(user.getUsername(), user.getRole(), Type.REFRESH),
+                accessTtl.toSeconds(),
+                refreshTtl.toSeconds());
+    }
+
+    // 同じ PasswordEncoder で作るので、照合にかかる時間（BCrypt のコスト）も実在ユーザーと揃う
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            byte[] random = new byte[16];
+            new SecureRandom().nextBytes(random);
+            hash = passwordEncoder.encode(ENCODER.encodeToString(random));
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private byte[] sign(String encodedBody) {
+        return macs.get().doFinal(encodedBody.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC を初期化できません", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret, boolean allowRandomSecret) {
+        if (secret == null || secret.isBlank()) {
+            // ノードごとに鍵が変わると他のノードや再起動後にトークンが通らないので、本番（prod プロファイル）では起動させない
+            if (!allowRandomSecret) {
+                throw new IllegalStateException(
+                        "app.api.token.secret is not set (required when app.api.token.allow-random-secret=false, e.g. the prod profile)");
+            }
+            // ローカル・テストでは起動ごとに生成する（再起動で既存トークンは無効になる）
+            logger.warn("app.api.token.secret is not set; using a random key (tokens will not survive restarts)");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static final class Claims {
+        private final String username;
+        private final String role;
+        private final long expiresAt;
+
+        Claims(String username, String role, long expiresAt) {
+            this.username = username;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
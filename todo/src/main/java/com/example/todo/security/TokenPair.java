@@ -0,0 +1,39 @@
+package com.example.todo.security;
+
+/**
+ * ログイン/リフレッシュの応答
+ */
+public class TokenPair {
+    private final String accessToken;
+    private final String refreshToken;
+    private final String tokenType = "Bearer";
+    private final long expiresIn;
+    private final long refreshExpiresIn;
+
+    public TokenPair(String accessToken, String refreshToken, long expiresIn, long refreshExpiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public long getRefreshExpiresIn() {
+        return refreshExpiresIn;
+    }
+}
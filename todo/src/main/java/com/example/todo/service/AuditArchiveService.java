@@ -0,0 +1,416 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.AuditCursor;
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.entity.AuditLog;
+import com.example.todo.entity.JobLease;
+import com.example.todo.repository.AuditLogRepository;
+import com.example.todo.repository.JobLeaseRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 監査ログの保持期限とコールドアーカイブ
+ * 保持期間（月数）を過ぎた月は、月ごとに gzip 圧縮した NDJSON（1行1件、新しい順）へ書き出してから
+ * 稼働テーブルから削除する。アーカイブの一覧は index.json（月・件数・id 範囲・期間・含まれる action / username）
+ * に持ち、検索時は index で対象外のファイルを読み飛ばす
+ * 書き出し → index 更新 → 削除 の順なので、途中で落ちても次回の実行で削除だけやり直される
+ * 複数ノードでは archiveDir を共有ストレージ（NFS など）に置く。どのノードも検索でファイルを読み、
+ * index.json が他のノードに書き換えられたら読み直す。アーカイブの実行は job_leases のリースを取った1つだけ
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private static final String INDEX_FILE = "index.json";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final String LEASE = "audit-archive";
+
+    private final AuditLogRepository auditLogRepository;
+    private final JobLeaseRepository leaseRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path archiveDir;
+    private final int retentionMonths;
+    private final int chunkSize;
+    private final Duration lease;
+    private final String nodeId;
+    private final AtomicLong runs = new AtomicLong();
+
+    // index.json の内容と、読んだときの更新時刻（変わっていたら読み直す）
+    private volatile Index index;
+
+    private record Index(FileTime modified, List<Segment> segments) {
+    }
+
+    public AuditArchiveService(AuditLogRepository auditLogRepository,
+                               JobLeaseRepository leaseRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.audit.archive.dir:./audit-archive}") String archiveDir,
+                               @Value("${app.audit.retention-months:6}") int retentionMonths,
+                               @Value("${app.audit.archive.chunk-size:1000}") int chunkSize,
+                               @Value("${app.audit.archive.lease:PT10M}") Duration lease,
+                               @Value("${app.audit.archive.node-id:}") String nodeId) {
+        this.auditLogRepository = auditLogRepository;
+        this.leaseRepository = leaseRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize();
+        this.retentionMonths = retentionMonths;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+    }
+
+    /**
+     * アーカイブ済みの月（index.json の内容）
+     *
+     * @param month      yyyy-MM
+     * @param file       archiveDir 内のファイル名
+     * @param from       ファイル内で最も古い createdAt
+     * @param to         ファイル内で最も新しい createdAt
+     * @param actions    含まれる action（検索時の読み飛ばし判定用）
+     * @param usernames  含まれる username（同上）
+     */
+    public record Segment(String month, String file, long rows, long minId, long maxId,
+                          LocalDateTime from, LocalDateTime to,
+                          Set<String> actions, Set<String> usernames, long bytes) {
+
+        boolean mayContain(AuditQuery query, AuditCursor cursor) {
+            if (cursor != null && from.isAfter(cursor.createdAt())) {
+                return false;
+            }
+            if (query.getFrom() != null && to.isBefore(query.fromTime())) {
+                return false;
+            }
+            if (query.getTo() != null && !from.isBefore(query.toTimeExclusive())) {
+                return false;
+            }
+            if (query.getAction() != null && !actions.contains(query.getAction())) {
+                return false;
+            }
+            return query.getUsername() == null || usernames.stream().anyMatch(u -> u.startsWith(query.getUsername()));
+        }
+    }
+
+    public List<Segment> segments() {
+        FileTime modified = indexModified();
+        Index current = index;
+        if (current == null || !current.modified().equals(modified)) {
+            synchronized (this) {
+                current = index;
+                if (current == null || !current.modified().equals(modified)) {
+                    current = new Index(modified, readIndex());
+                    index = current;
+                }
+            }
+        }
+        return current.segments();
+    }
+
+    /**
+     * 保持期間を過ぎた月をすべてアーカイブする
+     * リースが取れなければ（他のノード・他のスレッドが実行中）何もしない
+     *
+     * @return アーカイブした件数
+     */
+    public long archiveExpired() {
+        String owner = nodeId + "#" + runs.incrementAndGet();
+        if (!acquireLease(owner)) {
+            logger.debug("Audit archive is running elsewhere, skipped");
+            return 0;
+        }
+        long archived = 0;
+        try {
+            YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+            // 前回途中で止まった分（書き出し済みで未削除の行・書きかけのファイル）を片付ける
+            for (Segment segment : segments()) {
+                if (YearMonth.parse(segment.month()).isBefore(cutoff)) {
+                    deleteArchivedRows(segment, owner);
+                }
+            }
+            deleteTempFiles();
+
+            LocalDateTime oldest = auditLogRepository.findOldestCreatedAt();
+            if (oldest == null) {
+                return 0;
+            }
+            for (YearMonth month = YearMonth.from(oldest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+                archived += archiveMonth(month, owner);
+            }
+            return archived;
+        } catch (LeaseLostException e) {
+            logger.warn("Audit archive lease was taken over, stopping after {} rows", archived);
+            return archived;
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.release(LEASE, owner));
+        }
+    }
+
+    private long archiveMonth(YearMonth month, String owner) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        // 同じ月を後から再度アーカイブすることもあるので、ファイルは1回ごとに分ける
+        String file = "audit-" + month + "-" + System.currentTimeMillis() + ".ndjson.gz";
+        Path tmp = archiveDir.resolve(file + TMP_SUFFIX);
+
+        long rows = 0;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        LocalDateTime newest = null;
+        LocalDateTime oldest = null;
+        Set<String> actions = new TreeSet<>();
+        Set<String> usernames = new TreeSet<>();
+        try {
+            Files.createDirectories(archiveDir);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+                LocalDateTime afterCreatedAt = null;
+                Long afterId = null;
+                while (true) {
+                    renewLease(owner);
+                    List<AuditLog> chunk = auditLogRepository.findArchiveChunk(from, to, afterCreatedAt, afterId,
+                            PageRequest.of(0, chunkSize));
+                    for (AuditLog log : chunk) {
+                        out.write(objectMapper.writeValueAsString(log));
+                        out.write('\n');
+                        rows++;
+                        minId = Math.min(minId, log.getId());
+                        maxId = Math.max(maxId, log.getId());
+                        if (newest == null) {
+                            newest = log.getCreatedAt();
+                        }
+                        oldest = log.getCreatedAt();
+                        if (log.getAction() != null) {
+                            actions.add(log.getAction());
+                        }
+                        if (log.getUsername() != null) {
+                            usernames.add(log.getUsername());
+                        }
+                    }
+                    if (chunk.size() < chunkSize) {
+                        break;
+                    }
+                    AuditLog last = chunk.get(chunk.size() - 1);
+                    afterCreatedAt = last.getCreatedAt();
+                    afterId = last.getId();
+                }
+            }
+            if (rows == 0) {
+                Files.deleteIfExists(tmp);
+                return 0;
+            }
+            renewLease(owner);
+            Path target = archiveDir.resolve(file);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+
+            Segment segment = new Segment(month.toString(), file, rows, minId, maxId, oldest, newest,
+                    actions, usernames, Files.size(target));
+            List<Segment> updated = new ArrayList<>(segments());
+            updated.add(segment);
+            writeIndex(updated);
+            int deleted = deleteArchivedRows(segment, owner);
+            logger.info("Audit logs archived: month={}, rows={}, deleted={}, file={}", month, rows, deleted, file);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit archive failed: " + month, e);
+        }
+    }
+
+    /**
+     * chunkSize 件ずつ別トランザクションで消す（ロックと undo を1回分に抑える）
+     */
+    private int deleteArchivedRows(Segment segment, String owner) {
+        YearMonth month = YearMonth.parse(segment.month());
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        int total = 0;
+        while (true) {
+            renewLease(owner);
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = auditLogRepository.findArchivedIds(from, to, segment.minId(), segment.maxId(),
+                        PageRequest.of(0, chunkSize));
+                return ids.isEmpty() ? 0 : auditLogRepository.deleteByIdIn(ids);
+            });
+            if (deleted == null || deleted == 0) {
+                return total;
+            }
+            total += deleted;
+        }
+    }
+
+    private boolean acquireLease(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Boolean acquired = transactionTemplate.execute(status -> {
+                if (leaseRepository.acquire(LEASE, owner, now.plus(lease), now) == 1) {
+                    return true;
+                }
+                if (leaseRepository.existsById(LEASE)) {
+                    return false;
+                }
+                leaseRepository.saveAndFlush(new JobLease(LEASE, owner, now.plus(lease)));
+                return true;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            // 同時に他のノードが行を作った
+            return false;
+        }
+    }
+
+    private void renewLease(String owner) {
+        Integer renewed = transactionTemplate.execute(status ->
+                leaseRepository.renew(LEASE, owner, LocalDateTime.now().plus(lease)));
+        if (renewed == null || renewed == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    /**
+     * カーソルより古いアーカイブ済みの行を新しい順に最大 limit 件
+     * アーカイブは稼働テーブルより必ず古いので、稼働テーブルの続きとして読める
+     * index の期間・action・username で対象になり得ないファイルは開かない
+     */
+    public List<AuditLog> findOlder(AuditQuery query, AuditCursor cursor, int limit) {
+        List<AuditLog> result = new ArrayList<>();
+        List<Segment> newestFirst = segments().stream()
+                .sorted(Comparator.comparing(Segment::to).reversed())
+                .toList();
+        for (Segment segment : newestFirst) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!segment.mayContain(query, cursor)) {
+                continue;
+            }
+            scanSegment(segment, log -> {
+                if ((cursor == null || cursor.isBefore(log)) && query.matches(log)) {
+                    result.add(log);
+                }
+                return result.size() < limit;
+            });
+        }
+        return result;
+    }
+
+    /**
+     * アーカイブ済みの総件数（index のみで数える）
+     */
+    public long archivedRows() {
+        return segments().stream().mapToLong(Segment::rows).sum();
+    }
+
+    /**
+     * 1ファイル分を新しい順に読み、visitor が false を返したらそこで止める
+     */
+    private void scanSegment(Segment segment, Predicate<AuditLog> visitor) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archiveDir.resolve(segment.file()))),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!visitor.test(parse(line))) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit archive unreadable: " + segment.file(), e);
+        }
+    }
+
+    private AuditLog parse(String line) {
+        try {
+            return objectMapper.readValue(line, AuditLog.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileTime indexModified() {
+        try {
+            return Files.getLastModifiedTime(archiveDir.resolve(INDEX_FILE));
+        } catch (IOException e) {
+            // まだ1度もアーカイブしていない
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private List<Segment> readIndex() {
+        Path index = archiveDir.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return List.of();
+        }
+        try {
+            return List.copyOf(objectMapper.readValue(index.toFile(), new TypeReference<List<Segment>>() { }));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit archive index unreadable: " + index, e);
+        }
+    }
+
+    private void writeIndex(List<Segment> updated) throws IOException {
+        Path tmp = archiveDir.resolve(INDEX_FILE + TMP_SUFFIX);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), updated);
+        Files.move(tmp, archiveDir.resolve(INDEX_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        synchronized (this) {
+            index = new Index(indexModified(), List.copyOf(updated));
+        }
+    }
+
+    private void deleteTempFiles() {
+        if (!Files.isDirectory(archiveDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(archiveDir, "*" + TMP_SUFFIX)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean up audit archive temp files: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.AuditCursor;
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.entity.AuditLog;
+import com.example.todo.repository.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 管理画面の監査ログ検索
+ * 稼働テーブルをキーセットで size + 1 件読み、足りなければ（archive 指定時）アーカイブから続きを読む
+ * 総件数は count(*) を全件走らせず、COUNT_CAP で打ち切った概算にする
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditQueryService {
+
+    public static final int COUNT_CAP = 10_000;
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditArchiveService auditArchiveService;
+
+    @Transactional(readOnly = true)
+    public CursorSlice<AuditLog> search(AuditQuery query) {
+        AuditCursor cursor = AuditCursor.decode(query.getCursor());
+        int size = query.getSize();
+
+        List<AuditLog> rows = new ArrayList<>(auditLogRepository.findKeyset(query, cursor, size + 1));
+        if (query.isArchive() && rows.size() <= size) {
+            AuditCursor last = rows.isEmpty() ? cursor : AuditCursor.of(rows.get(rows.size() - 1));
+            rows.addAll(auditArchiveService.findOlder(query, last, size + 1 - rows.size()));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<AuditLog> content = List.copyOf(hasNext ? rows.subList(0, size) : rows);
+        String nextCursor = hasNext ? AuditCursor.of(content.get(size - 1)).encode() : null;
+        return new CursorSlice<>(content, size, hasNext, cursor != null, nextCursor, null,
+                () -> estimateTotal(query));
+    }
+
+    /**
+     * 稼働テーブルは COUNT_CAP + 1 件で打ち切る（超えたら COUNT_CAP + 1 を返す）
+     * アーカイブは条件なしのときだけ index の件数を足す（条件付きだと全ファイルを読むことになるため）
+     */
+    public long estimateTotal(AuditQuery query) {
+        long live = auditLogRepository.countCapped(query, COUNT_CAP);
+        if (live > COUNT_CAP || !query.isArchive() || query.hasFilter()) {
+            return live;
+        }
+        return live + auditArchiveService.archivedRows();
+    }
+}
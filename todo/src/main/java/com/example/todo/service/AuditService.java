@@ -1,24 +1,75 @@
 package com.example.todo.service;
 
+import com.example.todo.audit.AuditEvent;
+import com.example.todo.audit.AuditWriter;
 import com.example.todo.entity.AuditLog;
 import com.example.todo.repository.AuditLogRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AuditService {
 
+    // hibernate.jdbc.batch_size と揃える
+    static final int BATCH_SIZE = 50;
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditWriter auditWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * 1件の監査ログ（app.audit.mode=async ならキューに積んで即座に戻る）
+     * 呼び出し元のトランザクションとは独立して書かれる
+     */
     public void log(String action, Long todoId, String username) {
+        auditWriter.submit(AuditEvent.of(action, todoId, username));
+    }
+
+    /**
+     * 一括操作の監査ログをまとめて書く
+     * 呼び出し元のトランザクションで JDBC バッチ INSERT するので、操作がロールバックされれば監査ログも残らない
+     * 渡す todoIds は実際に変更した行だけにする
+     * BATCH_SIZE 件ごとに flush して永続化コンテキストから外すので、件数によらずメモリは一定
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int logAll(String action, Collection<Long> todoIds, String username) {
+        List<AuditLog> chunk = new ArrayList<>(BATCH_SIZE);
+        for (Long todoId : todoIds) {
+            chunk.add(newLog(action, todoId, username));
+            if (chunk.size() == BATCH_SIZE) {
+                flushChunk(chunk);
+            }
+        }
+        flushChunk(chunk);
+        return todoIds.size();
+    }
+
+    private void flushChunk(List<AuditLog> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        auditLogRepository.saveAll(chunk);
+        auditLogRepository.flush();
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    private static AuditLog newLog(String action, Long todoId, String username) {
         AuditLog log = new AuditLog();
         log.setAction(action);
         log.setTodoId(todoId);
         log.setUsername(username);
-        auditLogRepository.save(log);
+        return log;
     }
 }
@@ -1,8 +1,10 @@
 package com.example.todo.service;
 
+import com.example.todo.config.CacheConfig;
 import com.example.todo.entity.Category;
 import com.example.todo.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -10,16 +12,23 @@ import java.util.List;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
+/**
+ * カテゴリの参照（キャッシュから返す。CacheConfig 参照）
+ * カテゴリは DataInitializer が投入するマスタで、アプリからは更新しない
+ * DB で直接変えたときは POST /admin/caches/{name}/clear を各ノードで呼ぶ（呼ばなくても TTL で入れ替わる）
+ */
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
+    @Cacheable(CacheConfig.CATEGORIES)
     public List<Category> findAll() {
-        return categoryRepository.findAll();
+        return List.copyOf(categoryRepository.findAll());
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORY, key = "#id")
     public Category findById(Long id) {
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "カテゴリが見つかりません: " + id));
@@ -0,0 +1,273 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.ExportJob;
+import com.example.todo.entity.User;
+import com.example.todo.enums.ExportStatus;
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.export.TodoCsvWriter;
+import com.example.todo.repository.ExportJobRepository;
+import com.example.todo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CSV エクスポートのバックグラウンド実行
+ * 結果はアップロード領域にファイルとして保存し、後からダウンロードできる
+ * 状態と進捗は export_jobs にだけ持つので、どのノードに問い合わせても同じ値が返る
+ * 実行中のノードは heartbeatAt を更新し続け、更新が stale-after 止まったジョブはどのノードからでも失敗にする
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private static final EnumSet<ExportStatus> ACTIVE = EnumSet.of(ExportStatus.QUEUED, ExportStatus.RUNNING);
+
+    private final ExportJobRepository exportJobRepository;
+    private final UserRepository userRepository;
+    private final TodoService todoService;
+    private final FileStorageService fileStorageService;
+    private final Executor exportExecutor;
+    // 登録・進捗・生存の書き込みは、エクスポートの読み取りとは別にすぐ確定させる
+    private final TransactionTemplate writeTransaction;
+    private final int maxActivePerUser;
+    private final int fetchSize;
+    private final Duration retention;
+    private final long progressIntervalMillis;
+    private final Duration staleAfter;
+
+    // このノードのキューに積んだ・実行中のジョブ（heartbeat で生存を書く対象。進捗は DB にある）
+    private final Set<Long> owned = ConcurrentHashMap.newKeySet();
+
+    public ExportJobService(ExportJobRepository exportJobRepository,
+                            UserRepository userRepository,
+                            TodoService todoService,
+                            FileStorageService fileStorageService,
+                            @Qualifier("exportExecutor") Executor exportExecutor,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.export.job.max-active-per-user:2}") int maxActivePerUser,
+                            @Value("${app.export.fetch-size:500}") int fetchSize,
+                            @Value("${app.export.job.retention:PT24H}") Duration retention,
+                            @Value("${app.export.job.progress-interval:PT1S}") Duration progressInterval,
+                            @Value("${app.export.job.stale-after:PT2M}") Duration staleAfter) {
+        this.exportJobRepository = exportJobRepository;
+        this.userRepository = userRepository;
+        this.todoService = todoService;
+        this.fileStorageService = fileStorageService;
+        this.exportExecutor = exportExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxActivePerUser = maxActivePerUser;
+        this.fetchSize = fetchSize;
+        this.retention = retention;
+        this.progressIntervalMillis = progressInterval.toMillis();
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * 同じユーザーの submit はユーザー行のロックで直列にする（数えてから登録するまでの間に他のノードが割り込まない）
+     * 実行は登録をコミットしてから投げる
+     */
+    public ExportJob submit(User user, String keyword, Long categoryId, String sortKey, String sortOrder,
+                            boolean isAdmin) {
+        ExportJob saved = writeTransaction.execute(status -> {
+            userRepository.lockByIdIn(List.of(user.getId()));
+            if (exportJobRepository.countByUsernameAndStatusIn(user.getUsername(), ACTIVE) >= maxActivePerUser) {
+                throw new BusinessException("E429", "実行中のエクスポートが多すぎます。完了してから再度お試しください");
+            }
+            return exportJobRepository.save(newJob(user, keyword, categoryId, sortKey, sortOrder, isAdmin));
+        });
+        owned.add(saved.getId());
+        try {
+            exportExecutor.execute(() -> run(saved.getId()));
+        } catch (RejectedExecutionException e) {
+            owned.remove(saved.getId());
+            fail(saved, "エクスポートの受付上限に達しています");
+            throw new BusinessException("E429", "エクスポートの受付上限に達しています。しばらくしてから再度お試しください");
+        }
+        return saved;
+    }
+
+    private static ExportJob newJob(User user, String keyword, Long categoryId, String sortKey, String sortOrder,
+                                    boolean isAdmin) {
+        ExportJob job = new ExportJob();
+        job.setUsername(user.getUsername());
+        job.setAdminScope(isAdmin);
+        job.setKeyword(keyword);
+        job.setCategoryId(categoryId);
+        job.setSortKey(sortKey);
+        job.setSortOrder(sortOrder);
+        job.setStatus(ExportStatus.QUEUED);
+        return job;
+    }
+
+    public ExportJob findForUser(Long id, User user, boolean isAdmin) {
+        ExportJob job = exportJobRepository.findById(id)
+                .orElseThrow(() -> new BusinessException("E404", "エクスポートが見つかりません"));
+        if (!isAdmin && !job.getUsername().equals(user.getUsername())) {
+            throw new BusinessException("E403", "他ユーザーのエクスポートにはアクセスできません");
+        }
+        return job;
+    }
+
+    public List<ExportJob> findRecent(User user) {
+        return exportJobRepository.findTop20ByUsernameOrderByCreatedAtDesc(user.getUsername());
+    }
+
+    public Path resultFile(ExportJob job) {
+        if (job.getStatus() != ExportStatus.COMPLETED || job.getStoredFilename() == null) {
+            throw new BusinessException("E409", "エクスポートはまだ完了していません");
+        }
+        return fileStorageService.load(job.getStoredFilename());
+    }
+
+    void run(Long jobId) {
+        ExportJob job = exportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ExportStatus.QUEUED) {
+            owned.remove(jobId);
+            return;
+        }
+        AtomicLong rows = new AtomicLong();
+        AtomicLong lastProgress = new AtomicLong(System.currentTimeMillis());
+        String storedFilename = null;
+        try {
+            User user = todoService.loadUser(job.getUsername());
+            job.setStatus(ExportStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job.setTotalRows(todoService.countForExport(user, job.getKeyword(), job.getCategoryId(), job.isAdminScope()));
+            job = exportJobRepository.save(job);
+
+            storedFilename = fileStorageService.createEmpty(".csv");
+            Path path = fileStorageService.load(storedFilename);
+            Sort sort = Sort.by("asc".equals(job.getSortOrder()) ? Sort.Direction.ASC : Sort.Direction.DESC,
+                    TodoSortKey.fromParam(job.getSortKey()).getProperty());
+            try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                TodoCsvWriter csv = new TodoCsvWriter(out, fetchSize);
+                csv.writeHeader();
+                todoService.forEachForExport(user, job.getKeyword(), job.getCategoryId(), sort,
+                        job.isAdminScope(), fetchSize, todo -> {
+                            try {
+                                csv.writeRow(todo);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            long done = rows.incrementAndGet();
+                            long now = System.currentTimeMillis();
+                            if (now - lastProgress.get() >= progressIntervalMillis) {
+                                lastProgress.set(now);
+                                writeTransaction.executeWithoutResult(status ->
+                                        exportJobRepository.updateProgress(jobId, done, LocalDateTime.now()));
+                            }
+                        });
+                csv.flush();
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(ExportStatus.COMPLETED);
+            job.setStoredFilename(storedFilename);
+            job.setFileSize(Files.size(path));
+            job.setProcessedRows(rows.get());
+            job.setFinishedAt(now);
+            job.setExpiresAt(now.plus(retention));
+            exportJobRepository.save(job);
+            logger.info("Export job {} completed: {} rows", jobId, rows.get());
+        } catch (Exception e) {
+            logger.warn("Export job {} failed: {}", jobId, e.toString());
+            deleteQuietly(storedFilename);
+            job.setProcessedRows(rows.get());
+            fail(job, "エクスポートに失敗しました");
+        } finally {
+            owned.remove(jobId);
+        }
+    }
+
+    /**
+     * このノードのキューに積んだ・実行中のジョブの heartbeatAt を進める
+     */
+    public void heartbeat() {
+        if (!owned.isEmpty()) {
+            List<Long> ids = List.copyOf(owned);
+            writeTransaction.executeWithoutResult(status -> exportJobRepository.touch(ids, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * heartbeatAt が stale-after 以上止まった未完了ジョブ（実行していたノードが落ちた・再起動した）を失敗にする
+     * どのノードで動かしてもよい
+     */
+    public int failStaleJobs() {
+        LocalDateTime before = LocalDateTime.now().minus(staleAfter);
+        int failed = 0;
+        for (ExportJob job : exportJobRepository.findByStatusInAndHeartbeatAtBefore(ACTIVE, before)) {
+            LocalDateTime now = LocalDateTime.now();
+            Integer updated = writeTransaction.execute(status -> exportJobRepository.failIfStale(job.getId(), before,
+                    "実行していたサーバーが停止したため中断されました", now, now.plus(retention)));
+            if (updated != null && updated > 0) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 保持期限を過ぎた結果ファイルを削除する
+     */
+    public int expireOldResults() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (ExportStatus status : List.of(ExportStatus.COMPLETED, ExportStatus.FAILED)) {
+            for (ExportJob job : exportJobRepository.findByStatusAndExpiresAtBefore(status, now)) {
+                deleteQuietly(job.getStoredFilename());
+                job.setStatus(ExportStatus.EXPIRED);
+                job.setStoredFilename(null);
+                exportJobRepository.save(job);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    private void fail(ExportJob job, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(ExportStatus.FAILED);
+        job.setErrorMessage(message);
+        job.setFinishedAt(now);
+        job.setExpiresAt(now.plus(retention));
+        exportJobRepository.save(job);
+    }
+
+    private void deleteQuietly(String storedFilename) {
+        if (storedFilename == null) {
+            return;
+        }
+        try {
+            fileStorageService.delete(storedFilename);
+        } catch (IOException e) {
+            logger.warn("Failed to delete export file {}: {}", storedFilename, e.toString());
+        }
+    }
+}
@@ -37,6 +37,15 @@ public class FileStorageService {
         return storedFilename;
     }
 
+    /**
+     * サーバー側で生成するファイル（エクスポート結果など）用の空ファイルを作る
+     */
+    public String createEmpty(String extension) throws IOException {
+        String storedFilename = UUID.randomUUID() + extension;
+        Files.createFile(this.uploadPath.resolve(storedFilename));
+        return storedFilename;
+    }
+
     public Path load(String storedFilename) {
         return uploadPath.resolve(storedFilename).normalize();
     }
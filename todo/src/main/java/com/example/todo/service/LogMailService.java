@@ -1,31 +1,35 @@
 package com.example.todo.service;
 
-import com.example.todo.entity.Todo;
-import com.example.todo.entity.User;
+import com.example.todo.dto.ReminderDigest;
+import com.example.todo.dto.ReminderItem;
+import com.example.todo.entity.MailOutbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class LogMailService implements MailService {
 
     private static final Logger logger = LoggerFactory.getLogger(LogMailService.class);
 
     @Override
-    @Async("emailExecutor")
-    public void sendTodoCreatedAsync(User user, Todo todo) {
-        logger.info("Mail[log-only] create: to={}, title={}, thread={}",
-                user.getUsername(), todo.getTitle(), Thread.currentThread().getName());
+    public void sendTodoCreated(MailOutbox message) {
+        logger.info("Mail[log-only] create: to={}, title={}, outboxId={}, thread={}",
+                message.getRecipient(), message.getSubject(), message.getId(), Thread.currentThread().getName());
     }
 
     @Override
     @Async("emailExecutor")
-    public void sendDeadlineReminderAsync(User user, Todo todo) {
-        logger.info("Mail[log-only] reminder: to={}, title={}, dueDate={}, thread={}",
-                user.getUsername(),
-                todo.getTitle(),
-                todo.getDueDate(),
+    public CompletableFuture<Void> sendDeadlineDigestAsync(ReminderDigest digest) {
+        logger.info("Mail[log-only] reminder: to={}, dueDate={}, todos={}, titles={}, thread={}",
+                digest.username(),
+                digest.dueDate(),
+                digest.total(),
+                digest.items().stream().map(ReminderItem::title).toList(),
                 Thread.currentThread().getName());
+        return CompletableFuture.completedFuture(null);
     }
 }
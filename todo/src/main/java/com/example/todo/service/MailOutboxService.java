@@ -0,0 +1,242 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.MailOutbox;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import com.example.todo.enums.MailOutboxStatus;
+import com.example.todo.enums.MailType;
+import com.example.todo.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 送信メールのトランザクショナル・アウトボックス
+ *
+ * enqueue 系は呼び出し元（TodoService）のトランザクションで mail_outbox に INSERT するだけ
+ * ロールバックされればメールも残らず、送信の混雑はリクエストのスレッドではなくテーブルに溜まる
+ *
+ * dispatch はバッチ単位で行を取り（SELECT ... FOR UPDATE SKIP LOCKED でロックして claimToken を書き込む。
+ * 他のノードが取得中の行は飛ばすので、各ノードは別々の行を取る）、トランザクションの外で送ってから結果を書き戻す。失敗は指数バックオフで再送し、max-attempts に達したら DEAD にする
+ * 送信中にノードが落ちた行はリース（claim-timeout）が切れた後に他のノードが取り直す（その行は再送されうる）
+ */
+@Service
+public class MailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MailOutboxRepository outboxRepository;
+    private final MailService mailService;
+    // 取得と書き戻しは呼び出し元のトランザクションに関係なくすぐ確定させる
+    private final TransactionTemplate claimTransaction;
+    private final String nodeId;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final Counter enqueued;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer lag;
+    // ゲージはスクレイプのたびに DB を引かないよう、refreshBacklog で更新した値を出す
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+
+    public MailOutboxService(MailOutboxRepository outboxRepository,
+                             MailService mailService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.mail.outbox.node-id:}") String nodeId,
+                             @Value("${app.mail.outbox.batch-size:100}") int batchSize,
+                             @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${app.mail.outbox.claim-timeout:PT2M}") Duration claimTimeout,
+                             @Value("${app.mail.outbox.initial-backoff:PT10S}") Duration initialBackoff,
+                             @Value("${app.mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+                             @Value("${app.mail.outbox.retention:PT72H}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.mailService = mailService;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // 既定は pid@host（ReminderService と同じ）
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.enqueued = Counter.builder("todo.mail.outbox.enqueued")
+                .description("Mails written to the outbox")
+                .register(meterRegistry);
+        this.sent = Counter.builder("todo.mail.outbox.messages").tag("result", "sent")
+                .description("Outbox mails by dispatch result")
+                .register(meterRegistry);
+        this.retried = Counter.builder("todo.mail.outbox.messages").tag("result", "retried")
+                .description("Outbox mails by dispatch result")
+                .register(meterRegistry);
+        this.dead = Counter.builder("todo.mail.outbox.messages").tag("result", "dead")
+                .description("Outbox mails by dispatch result")
+                .register(meterRegistry);
+        this.lag = Timer.builder("todo.mail.outbox.lag")
+                .description("Time from enqueue to successful send")
+                .register(meterRegistry);
+        Gauge.builder("todo.mail.outbox.pending", pending, AtomicLong::get)
+                .description("Mails waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("todo.mail.outbox.oldest-pending-seconds", oldestPendingSeconds, AtomicLong::get)
+                .description("Age of the oldest mail waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ToDo 作成の通知を積む。呼び出し元のトランザクションが必須（コミットされたときだけ送られる）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public MailOutbox enqueueTodoCreated(User user, Todo todo) {
+        MailOutbox message = new MailOutbox();
+        message.setType(MailType.TODO_CREATED);
+        message.setRecipient(user.getUsername());
+        message.setTodoId(todo.getId());
+        message.setSubject(todo.getTitle());
+        MailOutbox saved = outboxRepository.save(message);
+        enqueued.increment();
+        return saved;
+    }
+
+    /**
+     * 送れる行を最大 batch-size 件取って送る
+     *
+     * @return このノードが取って処理した件数（0 なら今は送るものがない）
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+        List<MailOutbox> batch = claimTransaction.execute(status -> {
+            List<Long> ids = outboxRepository.lockClaimableIds(now, batchSize);
+            if (ids.isEmpty() || outboxRepository.claim(ids, token, nodeId, now.plus(claimTimeout)) == 0) {
+                return List.<MailOutbox>of();
+            }
+            return outboxRepository.findByClaimTokenOrderById(token);
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<MailOutbox> failures = new ArrayList<>();
+        List<RuntimeException> errors = new ArrayList<>();
+        for (MailOutbox message : batch) {
+            try {
+                send(message);
+                sentIds.add(message.getId());
+                lag.record(Duration.between(message.getCreatedAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                failures.add(message);
+                errors.add(e);
+            }
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        claimTransaction.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, token, finishedAt);
+            }
+            for (int i = 0; i < failures.size(); i++) {
+                markFailed(failures.get(i), token, errors.get(i), finishedAt);
+            }
+        });
+        sent.increment(sentIds.size());
+        return batch.size();
+    }
+
+    /**
+     * 送れる行がなくなるか maxBatches に達するまで dispatchBatch を繰り返す
+     *
+     * @return 処理した件数
+     */
+    public int drain(int maxBatches) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int processed = dispatchBatch();
+            total += processed;
+            if (processed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 送信待ちの件数と最も古い行の経過時間をゲージに反映する
+     */
+    public void refreshBacklog() {
+        pending.set(outboxRepository.countByStatus(MailOutboxStatus.PENDING));
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt(MailOutboxStatus.PENDING);
+        oldestPendingSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    /**
+     * 送信済みで保持期間を過ぎた行を消す（DEAD は調査用に残す）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int purgeSent() {
+        return outboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private void send(MailOutbox message) {
+        switch (message.getType()) {
+            case TODO_CREATED -> mailService.sendTodoCreated(message);
+        }
+    }
+
+    // 呼び出し側のトランザクション内で呼ぶ
+    private void markFailed(MailOutbox message, String token, RuntimeException error, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        String reason = abbreviate(error.toString());
+        if (attempts >= maxAttempts) {
+            outboxRepository.markFailed(message.getId(), token, MailOutboxStatus.DEAD, now, reason);
+            dead.increment();
+            logger.error("MailOutbox: {} to {} gave up after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempts, reason);
+        } else {
+            outboxRepository.markFailed(message.getId(), token, MailOutboxStatus.PENDING, now.plus(backoff(attempts)), reason);
+            retried.increment();
+            logger.warn("MailOutbox: {} to {} failed (attempt {}), retrying: {}",
+                    message.getId(), message.getRecipient(), attempts, reason);
+        }
+    }
+
+    // initial-backoff * 2^(attempts-1)、max-backoff まで
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= MAX_ERROR_LENGTH ? text : text.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,10 +1,21 @@
 package com.example.todo.service;
 
-import com.example.todo.entity.Todo;
-import com.example.todo.entity.User;
+import com.example.todo.dto.ReminderDigest;
+import com.example.todo.entity.MailOutbox;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface MailService {
-    void sendTodoCreatedAsync(User user, Todo todo);
 
-    void sendDeadlineReminderAsync(User user, Todo todo);
+    /**
+     * ToDo 作成の通知（MailOutboxService のディスパッチャーから同期で呼ばれる）
+     * 送れなかったら例外を投げる（アウトボックスの行が再送待ちに戻る）
+     */
+    void sendTodoCreated(MailOutbox message);
+
+    /**
+     * 期限前日のリマインダー（1ユーザー1通）
+     * 完了を待てるよう Future を返す（ReminderService は送り終えてからチェックポイントを進める）
+     */
+    CompletableFuture<Void> sendDeadlineDigestAsync(ReminderDigest digest);
 }
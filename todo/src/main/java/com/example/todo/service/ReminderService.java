@@ -0,0 +1,369 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ReminderDigest;
+import com.example.todo.dto.ReminderItem;
+import com.example.todo.entity.ReminderRun;
+import com.example.todo.repository.ReminderRunRepository;
+import com.example.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 期限前日のリマインダー送信
+ * 期限日（枠）ごとに reminder_runs の行をリースとして取り、取れたノードだけが送るので、全ノードで同時に起動しても1回になる
+ * 対象は (userId, todoId) のキーセットで chunk-size 件ずつ読み、ユーザーごとに1通にまとめる
+ * emailExecutor のキューを溢れさせないよう送信中の通数を max-in-flight までに抑え、拒否されたら待って入れ直す
+ *
+ * チャンクごとに送信の完了を待ってから、送り終えたユーザーまでチェックポイントを進める
+ * 途中で落ちた枠はリースが切れた後に resumeStalled がその次のユーザーから再開する（最後のチャンク分は再送されうる）
+ *
+ * WHEEL モードでは DeadlineWheel が通知時刻になった ToDo を sendNow に渡し、その場で送る
+ */
+@Service
+public class ReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderService.class);
+
+    private final TodoRepository todoRepository;
+    private final ReminderRunRepository runRepository;
+    private final MailService mailService;
+    // リースとチェックポイントは呼び出し元のトランザクションに関係なくすぐ確定させる
+    private final TransactionTemplate leaseTransaction;
+    private final TransactionTemplate readTransaction;
+    private final String nodeId;
+    private final int chunkSize;
+    private final int maxItemsPerDigest;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Semaphore inFlight;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public ReminderService(TodoRepository todoRepository,
+                           ReminderRunRepository runRepository,
+                           MailService mailService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.reminder.node-id:}") String nodeId,
+                           @Value("${app.reminder.chunk-size:500}") int chunkSize,
+                           @Value("${app.reminder.max-items-per-digest:50}") int maxItemsPerDigest,
+                           @Value("${app.reminder.max-in-flight:50}") int maxInFlight,
+                           @Value("${app.reminder.lease:PT5M}") Duration lease,
+                           @Value("${app.reminder.retry-backoff:PT0.1S}") Duration retryBackoff) {
+        this.todoRepository = todoRepository;
+        this.runRepository = runRepository;
+        this.mailService = mailService;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // 既定は pid@host（同じホストの別プロセスとも区別できる）
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.chunkSize = chunkSize;
+        this.maxItemsPerDigest = maxItemsPerDigest;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.sent = Counter.builder("todo.reminder.digests").tag("result", "sent")
+                .description("Reminder digests handed to the mail service")
+                .register(meterRegistry);
+        this.failed = Counter.builder("todo.reminder.digests").tag("result", "failed")
+                .description("Reminder digests handed to the mail service")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("todo.reminder.rejected")
+                .description("Reminder digests rejected by a full mail executor and retried")
+                .register(meterRegistry);
+        Gauge.builder("todo.reminder.in-flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Reminder digests queued or being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * チャンクごとに呼ばれる（ReminderService#scanDigests）
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+
+        /**
+         * @param digests    このチャンクで読み終えたユーザー分
+         * @param lastUserId ここまでのユーザーは渡し終えた（チェックポイントに使う）
+         * @return false なら読み出しを中断する
+         */
+        boolean onChunk(List<ReminderDigest> digests, long lastUserId);
+    }
+
+    /**
+     * 期限日 slot のリマインダーを送る
+     * リースが取れなければ（他のノードが実行中・送信済み）何もしない
+     *
+     * @return このノードが最後まで送り終えたら true
+     */
+    public boolean run(LocalDate slot) {
+        ReminderRun run = acquire(slot);
+        if (run == null) {
+            logger.debug("ReminderService: slot {} is done or leased by another node", slot);
+            return false;
+        }
+        logger.info("ReminderService: slot {} started on {} (attempt {}, after user {})",
+                slot, nodeId, run.getAttempts(), run.getLastUserId());
+
+        boolean finished = scanDigests(slot, run.getLastUserId(), (digests, lastUserId) -> {
+            try {
+                long todos = dispatch(digests);
+                if (checkpoint(slot, lastUserId, digests.size(), todos)) {
+                    return true;
+                }
+                logger.warn("ReminderService: lease on slot {} was taken over, stopping at user {}", slot, lastUserId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("ReminderService: slot {} interrupted at user {}", slot, lastUserId);
+            }
+            return false;
+        });
+        if (!finished) {
+            return false;
+        }
+        leaseTransaction.executeWithoutResult(status -> runRepository.complete(slot, nodeId, LocalDateTime.now()));
+        logger.info("ReminderService: slot {} completed on {}", slot, nodeId);
+        return true;
+    }
+
+    /**
+     * 途中で止まった（リースが切れたまま未完了の）枠を引き継ぐ
+     *
+     * @return このノードが送り終えた枠の数
+     */
+    public int resumeStalled() {
+        int resumed = 0;
+        for (LocalDate slot : runRepository.findStalledSlots(LocalDate.now(), LocalDateTime.now())) {
+            if (run(slot)) {
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    /**
+     * 期限日が dueDate の未完了 ToDo を afterUserId より後のユーザーから読み、ユーザーごとにまとめて handler に渡す
+     * チャンクの末尾のユーザーは続きがありうるので次のチャンクへ持ち越す（1ユーザー1通）
+     *
+     * @return 最後まで読んだら true、handler が中断したら false
+     */
+    public boolean scanDigests(LocalDate dueDate, long afterUserId, ChunkHandler handler) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long cursorUserId = afterUserId;
+        long cursorTodoId = Long.MAX_VALUE;
+        long doneUserId = afterUserId;
+        DigestBuilder pending = null;
+        while (true) {
+            long userId = cursorUserId;
+            long todoId = cursorTodoId;
+            List<ReminderItem> rows = readTransaction.execute(
+                    status -> todoRepository.findReminderItems(dueDate, userId, todoId, chunk));
+            List<ReminderDigest> digests = new ArrayList<>();
+            for (ReminderItem row : rows) {
+                if (pending != null && !pending.accepts(row)) {
+                    digests.add(pending.build());
+                    pending = null;
+                }
+                if (pending == null) {
+                    pending = new DigestBuilder(row);
+                }
+                pending.add(row, maxItemsPerDigest);
+            }
+            boolean last = rows.size() < chunkSize;
+            if (last && pending != null) {
+                digests.add(pending.build());
+                pending = null;
+            }
+            if (!digests.isEmpty()) {
+                doneUserId = digests.get(digests.size() - 1).userId();
+            }
+            if (!rows.isEmpty()) {
+                ReminderItem tail = rows.get(rows.size() - 1);
+                cursorUserId = tail.userId();
+                cursorTodoId = tail.todoId();
+            }
+            if (!handler.onChunk(digests, doneUserId)) {
+                return false;
+            }
+            if (last) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 指定した ToDo のリマインダーをすぐ送る（DeadlineWheel が通知時刻になった分を渡す）
+     * 先に todos に送信済みの印（reminderSentFor = 期限日）を条件付き UPDATE で付け、付けられた分だけを送る。
+     * 完了・削除済み、期限を過ぎたもの、その期限日に送信済みのもの（編集で載せ直された分や、他のノードが送った分）は送らない
+     * ユーザー・期限日ごとに1通にまとめる。送信の完了は待たない（送信中の通数の上限だけは守る。失敗した分は再送しない）
+     *
+     * @return 送ったまとめの数
+     */
+    public int sendNow(Collection<Long> todoIds) {
+        if (todoIds.isEmpty()) {
+            return 0;
+        }
+        LocalDate from = LocalDate.now().plusDays(1);
+        long claim = ThreadLocalRandom.current().nextLong();
+        List<ReminderItem> rows = leaseTransaction.execute(status ->
+                todoRepository.claimReminders(todoIds, from, claim) == 0
+                        ? List.<ReminderItem>of()
+                        : todoRepository.findClaimedReminderItems(todoIds, claim));
+        int digests = 0;
+        DigestBuilder pending = null;
+        try {
+            for (ReminderItem row : rows) {
+                if (pending != null && !pending.accepts(row)) {
+                    submitCounted(pending.build());
+                    digests++;
+                    pending = null;
+                }
+                if (pending == null) {
+                    pending = new DigestBuilder(row);
+                }
+                pending.add(row, maxItemsPerDigest);
+            }
+            if (pending != null) {
+                submitCounted(pending.build());
+                digests++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("ReminderService: interrupted after {} digests", digests);
+        }
+        return digests;
+    }
+
+    private ReminderRun acquire(LocalDate slot) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return leaseTransaction.execute(status -> {
+                if (runRepository.acquire(slot, nodeId, now.plus(lease), now) == 1) {
+                    return runRepository.findById(slot).orElse(null);
+                }
+                if (runRepository.existsById(slot)) {
+                    return null;
+                }
+                return runRepository.saveAndFlush(new ReminderRun(slot, nodeId, now.plus(lease), now));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 同時に他のノードが行を作った
+            return null;
+        }
+    }
+
+    private boolean checkpoint(LocalDate slot, long lastUserId, long digests, long todos) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = leaseTransaction.execute(status ->
+                runRepository.checkpoint(slot, nodeId, lastUserId, digests, todos, now.plus(lease), now));
+        return updated != null && updated == 1;
+    }
+
+    /**
+     * チャンク分を送り、全部終わるまで待つ（失敗した分は数えてログに残す）
+     *
+     * @return 通知した ToDo の件数
+     */
+    private long dispatch(List<ReminderDigest> digests) throws InterruptedException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(digests.size());
+        long todos = 0;
+        for (ReminderDigest digest : digests) {
+            futures.add(submit(digest));
+            todos += digest.total();
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+                sent.increment();
+            } catch (ExecutionException e) {
+                failed.increment();
+                logger.warn("ReminderService: mail to {} failed: {}", digests.get(i).username(), e.getCause().toString());
+            }
+        }
+        return todos;
+    }
+
+    // 送信中が max-in-flight に達していれば空くまで待つ。executor のキューが満杯なら少し待って入れ直す
+    private CompletableFuture<Void> submit(ReminderDigest digest) throws InterruptedException {
+        inFlight.acquire();
+        while (true) {
+            try {
+                return mailService.sendDeadlineDigestAsync(digest).whenComplete((result, error) -> inFlight.release());
+            } catch (TaskRejectedException e) {
+                rejected.increment();
+                Thread.sleep(retryBackoff.toMillis());
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+    }
+
+    private void submitCounted(ReminderDigest digest) throws InterruptedException {
+        submit(digest).whenComplete((result, error) -> {
+            if (error == null) {
+                sent.increment();
+            } else {
+                failed.increment();
+                logger.warn("ReminderService: mail to {} failed: {}", digest.username(), error.toString());
+            }
+        });
+    }
+
+    private static final class DigestBuilder {
+
+        private final Long userId;
+        private final String username;
+        private final LocalDate dueDate;
+        private final List<ReminderItem> items = new ArrayList<>();
+        private int total;
+
+        DigestBuilder(ReminderItem first) {
+            this.userId = first.userId();
+            this.username = first.username();
+            this.dueDate = first.dueDate();
+        }
+
+        boolean accepts(ReminderItem item) {
+            return userId.equals(item.userId()) && dueDate.equals(item.dueDate());
+        }
+
+        void add(ReminderItem item, int maxItems) {
+            if (items.size() < maxItems) {
+                items.add(item);
+            }
+            total++;
+        }
+
+        ReminderDigest build() {
+            return new ReminderDigest(userId, username, dueDate, List.copyOf(items), total);
+        }
+    }
+}
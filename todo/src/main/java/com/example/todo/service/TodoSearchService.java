@@ -0,0 +1,243 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.SearchIndexStatus;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.TodoEventLog;
+import com.example.todo.enums.TodoEventType;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.search.TodoSearchIndex;
+import com.example.todo.stream.TodoEventHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 全文検索（bi-gram 転置インデックス）の窓口
+ * インデックスの更新はトランザクションのコミット後に行う
+ *
+ * - 関連度順の検索（search）は上位 max-results 件までに切る
+ * - 一覧・件数・エクスポートの絞り込み（matchIds）は一致したものをすべて返す。切ると総件数やページがずれるので、
+ *   IN 句に渡せる max-filter-ids 件を超えたら黙って切らずに E400 にする
+ * 起動時の再構築が終わるまでは、一部しか載っていないインデックスで空振りしないよう E503 にする
+ *
+ * インデックスはノードごとにメモリ上に持つ。他のノードでの変更は、TodoEventHub が poll で読んだ todo_event_log の
+ * イベントを受け取り、DB から読み直して反映する（最大 app.stream.poll-interval 遅れる）
+ * todo_event_log を使わない構成（app.stream.event-log-enabled=false か poll-enabled=false）では自ノードの変更しか
+ * 載らないので、1ノードで動かすこと
+ */
+@Service
+public class TodoSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSearchService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int SYNC_BATCH_SIZE = 1000;
+
+    private final TodoRepository todoRepository;
+    private final int maxResults;
+    private final int maxFilterIds;
+    private final TodoSearchIndex index = new TodoSearchIndex();
+    // 起動時と管理画面からの再構築が重ならないようにする
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TodoSearchService(TodoRepository todoRepository,
+                             TodoEventHub eventHub,
+                             @Value("${app.search.max-results:1000}") int maxResults,
+                             @Value("${app.search.max-filter-ids:10000}") int maxFilterIds) {
+        this.todoRepository = todoRepository;
+        this.maxResults = maxResults;
+        this.maxFilterIds = maxFilterIds;
+        eventHub.addPollListener(this::applyChanges);
+    }
+
+    /**
+     * 関連度順の todoId 一覧（最大 max-results 件）
+     * @param userId null なら全ユーザー（管理者）
+     */
+    public List<Long> search(String keyword, Long userId, Long categoryId) {
+        return search(keyword, userId, categoryId, maxResults);
+    }
+
+    /**
+     * 関連度順の todoId 一覧（最大 limit 件。ただし max-results 件まで）
+     */
+    public List<Long> search(String keyword, Long userId, Long categoryId, int limit) {
+        return matchIds(keyword, userId, categoryId, Math.min(limit, maxResults));
+    }
+
+    /**
+     * 一覧・件数・エクスポート用に、キーワードに一致する todoId をすべて返す
+     * max-filter-ids 件を超えたら E400（キーワードやカテゴリで絞り込んでもらう）
+     */
+    public List<Long> matchIds(String keyword, Long userId, Long categoryId) {
+        List<Long> ids = matchIds(keyword, userId, categoryId, maxFilterIds + 1);
+        if (ids.size() > maxFilterIds) {
+            throw new BusinessException("E400", "検索に一致する ToDo が多すぎます（上限 " + maxFilterIds
+                    + " 件）。キーワードを増やすか、カテゴリで絞り込んでください");
+        }
+        return ids;
+    }
+
+    /**
+     * 一致する todoId を関連度順に最大 limit 件（max-results では切らない。一括操作が上限超えを判定するのに使う）
+     */
+    public List<Long> matchIds(String keyword, Long userId, Long categoryId, int limit) {
+        if (!index.isReady()) {
+            throw new BusinessException("E503", "検索インデックスを準備中です。しばらくしてから再度お試しください");
+        }
+        return index.search(keyword, userId, categoryId, limit);
+    }
+
+    public void indexAfterCommit(Todo todo) {
+        Entry entry = Entry.of(todo);
+        afterCommit(() -> entry.putTo(index));
+    }
+
+    /**
+     * 一括登録用。コミット後の同期処理は1つだけ登録する
+     */
+    public void indexAllAfterCommit(Collection<Todo> todos) {
+        List<Entry> entries = todos.stream().map(Entry::of).toList();
+        afterCommit(() -> entries.forEach(e -> e.putTo(index)));
+    }
+
+    /**
+     * 一括更新（集合 UPDATE）の後に、更新後の値を読み直してインデックスに反映する
+     */
+    public void reindexAfterCommit(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Entry> entries = todoRepository.findSearchRowsByIdIn(ids).stream()
+                .map(row -> new Entry((Long) row[0], (Long) row[1], (Long) row[2], (String) row[3], (String) row[4]))
+                .toList();
+        afterCommit(() -> entries.forEach(e -> e.putTo(index)));
+    }
+
+    public void removeAfterCommit(Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        afterCommit(() -> copy.forEach(index::remove));
+    }
+
+    /**
+     * 他のノードでの変更（todo_event_log のイベント）をインデックスに反映する
+     * 値はイベントではなく DB から読み直すので、イベントの順序が前後したり重複したりしてもよい
+     */
+    public void applyChanges(List<TodoEventLog> events) {
+        Set<Long> removed = new HashSet<>();
+        Set<Long> changed = new HashSet<>();
+        for (TodoEventLog event : events) {
+            Set<Long> target = event.getType() == TodoEventType.DELETED ? removed : changed;
+            for (String id : event.getTodoIds().split(",")) {
+                target.add(Long.valueOf(id));
+            }
+        }
+        changed.removeAll(removed);
+        List<Long> ids = new ArrayList<>(changed);
+        for (int from = 0; from < ids.size(); from += SYNC_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + SYNC_BATCH_SIZE, ids.size()));
+            Set<Long> found = new HashSet<>();
+            for (Object[] row : todoRepository.findSearchRowsByIdIn(chunk)) {
+                new Entry((Long) row[0], (Long) row[1], (Long) row[2], (String) row[3], (String) row[4]).putTo(index);
+                found.add((Long) row[0]);
+            }
+            // 読み直したときにはもう消えていた
+            chunk.stream().filter(id -> !found.contains(id)).forEach(removed::add);
+        }
+        removed.forEach(index::remove);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * DB から全件読み直してインデックスを作り直す（障害復旧用）
+     * id 順に一定件数ずつ読み、エンティティは生成しない。同時に2つは走らせない
+     */
+    public int rebuild() {
+        if (!rebuildLock.tryLock()) {
+            throw new BusinessException("E409", "検索インデックスを再構築中です");
+        }
+        try {
+            return doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private int doRebuild() {
+        long start = System.currentTimeMillis();
+        index.beginRebuild();
+        try {
+            long lastId = 0;
+            while (true) {
+                List<Object[]> rows = todoRepository.findSearchRows(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    index.load((Long) row[0], (Long) row[1], (Long) row[2], (String) row[3], (String) row[4]);
+                    lastId = (Long) row[0];
+                }
+                if (rows.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            index.abortRebuild();
+            throw e;
+        }
+        int size = index.finishRebuild();
+        logger.info("Search index rebuilt: {} todos in {}ms", size, System.currentTimeMillis() - start);
+        return size;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public SearchIndexStatus status() {
+        return new SearchIndexStatus(index.size(), index.isReady(), index.isRebuilding());
+    }
+
+    // コミット時点ではエンティティが切り離されている可能性があるので、必要な値を先に取り出しておく
+    private record Entry(long id, Long userId, Long categoryId, String title, String description) {
+
+        static Entry of(Todo todo) {
+            return new Entry(todo.getId(),
+                    todo.getUser() != null ? todo.getUser().getId() : null,
+                    todo.getCategory() != null ? todo.getCategory().getId() : null,
+                    todo.getTitle(), todo.getDescription());
+        }
+
+        void putTo(TodoSearchIndex index) {
+            index.put(id, userId, categoryId, title, description);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package com.example.todo.service;
 
+import com.example.todo.config.CacheConfig;
+import com.example.todo.dto.ApiBulkRequest;
+import com.example.todo.dto.BulkResult;
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.dto.TodoCursor;
+import com.example.todo.dto.TodoDto;
 import com.example.todo.dto.TodoForm;
+import com.example.todo.dto.TodoStatsRow;
 import com.example.todo.entity.Todo;
 import com.example.todo.entity.User;
 import com.example.todo.exception.BusinessException;
 import com.example.todo.exception.TodoNotFoundException;
 import com.example.todo.repository.TodoRepository;
-import com.example.todo.repository.UserRepository;
 import com.example.todo.audit.Auditable;
 import com.example.todo.audit.AuditAction;
+import com.example.todo.enums.BulkOperationType;
+import com.example.todo.enums.TodoEventType;
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.deadline.DeadlineWheel;
+import com.example.todo.stream.TodoEventHub;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @Service
@@ -24,9 +44,23 @@ public class TodoService {
 
     private final TodoRepository todoRepository;
     private final CategoryService categoryService;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final AuditService auditService;
-    private final MailService mailService;
+    private final MailOutboxService mailOutboxService;
+    private final TodoSearchService searchService;
+    private final TodoStatsService statsService;
+    private final TodoEventHub eventHub;
+    private final DeadlineWheel deadlineWheel;
+    private final CacheManager cacheManager;
+
+    // hibernate.jdbc.batch_size の倍数にする
+    private static final int SAMPLE_BATCH_SIZE = 500;
+
+    // 一括操作の対象件数の上限（フィルタ指定時も含む）
+    private static final int MAX_BULK_TARGETS = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional(rollbackFor = Exception.class)
     @Auditable(action = AuditAction.CREATE)
@@ -39,7 +73,11 @@ public class TodoService {
         todo.setCategory(categoryService.findById(form.getCategoryId()));
         todo.setUser(user);
         Todo saved = todoRepository.save(todo);
-        mailService.sendTodoCreatedAsync(user, saved);
+        searchService.indexAfterCommit(saved);
+        statsService.added(saved);
+        eventHub.publish(TodoEventType.CREATED, List.of(TodoStatsRow.of(saved)));
+        deadlineWheel.scheduleAfterCommit(List.of(TodoStatsRow.of(saved)));
+        mailOutboxService.enqueueTodoCreated(user, saved);
         return saved;
     }
 
@@ -57,7 +95,11 @@ public class TodoService {
             todo.setCompleted(req.getCompleted());
         }
         Todo saved = todoRepository.save(todo);
-        mailService.sendTodoCreatedAsync(user, saved);
+        searchService.indexAfterCommit(saved);
+        statsService.added(saved);
+        eventHub.publish(TodoEventType.CREATED, List.of(TodoStatsRow.of(saved)));
+        deadlineWheel.scheduleAfterCommit(List.of(TodoStatsRow.of(saved)));
+        mailOutboxService.enqueueTodoCreated(user, saved);
         return saved;
     }
 
@@ -69,97 +111,173 @@ public class TodoService {
     @Transactional(readOnly = true)
     public List<Todo> findAll(String keyword, Sort sort) {
         if (keyword != null && !keyword.isBlank()) {
-            return todoRepository.findByTitleContainingIgnoreCase(keyword, sort);
+            List<Long> ids = searchService.matchIds(keyword, null, null);
+            return ids.isEmpty() ? List.of() : todoRepository.findByIdIn(ids, sort);
         }
         return todoRepository.findAll(sort);
     }
 
+    /**
+     * REST API 用の一覧（エンティティを経由せず DTO で取得する）
+     */
     @Transactional(readOnly = true)
-    public List<Todo> findAll(User user, String keyword, Long categoryId, Sort sort, boolean isAdmin) {
-        boolean hasKeyword = keyword != null && !keyword.isBlank();
-        boolean hasCategory = categoryId != null;
-        if (isAdmin) {
-            if (hasKeyword && hasCategory) {
-                return todoRepository.findByTitleContainingIgnoreCaseAndCategoryId(keyword, categoryId, sort);
-            }
-            if (hasKeyword) {
-                return todoRepository.findByTitleContainingIgnoreCase(keyword, sort);
-            }
-            if (hasCategory) {
-                return todoRepository.findByCategoryId(categoryId, sort);
-            }
-            return todoRepository.findAll(sort);
-        }
-        if (hasKeyword && hasCategory) {
-            return todoRepository.findByUserAndTitleContainingIgnoreCaseAndCategoryId(user, keyword, categoryId, sort);
+    public List<TodoDto> findAll(User user, String keyword, Long categoryId, Sort sort, boolean isAdmin) {
+        Long userId = isAdmin ? null : user.getId();
+        // キーワードは転置インデックスで id に絞り込む（ユーザー/カテゴリ条件も適用済み）
+        List<Long> ids = keyword != null && !keyword.isBlank()
+                ? searchService.matchIds(keyword, userId, categoryId) : null;
+        if (ids != null && ids.isEmpty()) {
+            return List.of();
         }
-        if (hasKeyword) {
-            return todoRepository.findByUserAndTitleContainingIgnoreCase(user, keyword, sort);
-        }
-        if (hasCategory) {
-            return todoRepository.findByUserAndCategoryId(user, categoryId, sort);
+        return todoRepository.findDtoList(userId, ids, categoryId, sort);
+    }
+
+    /**
+     * エクスポート用に条件に合う ToDo を1件ずつ action に渡す
+     * 一覧と同じ絞り込みだが List に溜めず、DB カーソルから流す
+     */
+    @Transactional(readOnly = true)
+    public long forEachForExport(User user, String keyword, Long categoryId, Sort sort, boolean isAdmin,
+                                 int fetchSize, Consumer<TodoDto> action) {
+        Long userId = isAdmin ? null : user.getId();
+        List<Long> ids = keyword != null && !keyword.isBlank()
+                ? searchService.matchIds(keyword, userId, categoryId) : null;
+        if (ids != null && ids.isEmpty()) {
+            return 0;
         }
-        return todoRepository.findByUser(user, sort);
+        return todoRepository.scanFiltered(userId, ids, categoryId, sort, fetchSize, action);
     }
 
     @Transactional(readOnly = true)
-    public org.springframework.data.domain.Page<Todo> findPage(User user, String keyword, Long categoryId, org.springframework.data.domain.Pageable pageable, boolean isAdmin) {
-        boolean hasKeyword = keyword != null && !keyword.isBlank();
-        boolean hasCategory = categoryId != null;
-        if (isAdmin) {
-            if (hasKeyword && hasCategory) {
-                return todoRepository.findByTitleContainingIgnoreCaseAndCategoryId(keyword, categoryId, pageable);
-            }
-            if (hasKeyword) {
-                return todoRepository.findByTitleContainingIgnoreCase(keyword, pageable);
-            }
-            if (hasCategory) {
-                return todoRepository.findByCategoryId(categoryId, pageable);
-            }
-            return todoRepository.findAll(pageable);
+    public long countForExport(User user, String keyword, Long categoryId, boolean isAdmin) {
+        Long userId = isAdmin ? null : user.getId();
+        List<Long> ids = keyword != null && !keyword.isBlank()
+                ? searchService.matchIds(keyword, userId, categoryId) : null;
+        if (ids != null && ids.isEmpty()) {
+            return 0;
         }
-        if (hasKeyword && hasCategory) {
-            return todoRepository.findByUserAndTitleContainingIgnoreCaseAndCategoryId(user, keyword, categoryId, pageable);
+        return todoRepository.countFiltered(userId, ids, categoryId);
+    }
+
+    @Transactional(readOnly = true)
+    public org.springframework.data.domain.Page<TodoDto> findPage(User user, String keyword, Long categoryId, org.springframework.data.domain.Pageable pageable, boolean isAdmin) {
+        Long userId = isAdmin ? null : user.getId();
+        List<Long> ids = keyword != null && !keyword.isBlank()
+                ? searchService.matchIds(keyword, userId, categoryId) : null;
+        if (ids != null && ids.isEmpty()) {
+            return org.springframework.data.domain.Page.empty(pageable);
         }
-        if (hasKeyword) {
-            return todoRepository.findByUserAndTitleContainingIgnoreCase(user, keyword, pageable);
+        return todoRepository.findDtoPage(userId, ids, categoryId, pageable);
+    }
+
+    /**
+     * カーソル方式の一覧取得（OFFSET / count(*) なし）
+     * size + 1 件読んで次（前）ページの有無を判定する
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<TodoDto> findSlice(User user, String keyword, Long categoryId,
+                                       TodoSortKey sortKey, Sort.Direction direction,
+                                       String cursor, boolean backward, int size, boolean isAdmin) {
+        TodoCursor position = TodoCursor.decode(cursor, sortKey, direction);
+        boolean reverse = backward && position != null;
+        Long userId = isAdmin ? null : user.getId();
+        List<Long> ids = keyword != null && !keyword.isBlank()
+                ? searchService.matchIds(keyword, userId, categoryId) : null;
+        if (ids != null && ids.isEmpty()) {
+            return new CursorSlice<>(List.of(), size, false, false, null, null, () -> 0L);
         }
-        if (hasCategory) {
-            return todoRepository.findByUserAndCategoryId(user, categoryId, pageable);
+
+        List<TodoDto> rows = todoRepository.findKeyset(userId, ids, categoryId,
+                sortKey, direction, position, reverse, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<TodoDto> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (reverse) {
+            Collections.reverse(content);
         }
-        return todoRepository.findByUser(user, pageable);
+
+        boolean hasNext = reverse || hasMore;
+        boolean hasPrevious = reverse ? hasMore : position != null;
+        String nextCursor = hasNext && !content.isEmpty()
+                ? TodoCursor.of(content.get(content.size() - 1), sortKey, direction).encode() : null;
+        String prevCursor = hasPrevious && !content.isEmpty()
+                ? TodoCursor.of(content.get(0), sortKey, direction).encode() : null;
+
+        String countKey = userId + "|" + keyword + "|" + categoryId;
+        Cache counts = cacheManager.getCache(CacheConfig.TODO_COUNTS);
+        return new CursorSlice<>(content, size, hasNext, hasPrevious, nextCursor, prevCursor,
+                () -> counts.get(countKey, () -> todoRepository.countFiltered(userId, ids, categoryId)));
     }
 
+    /**
+     * サンプルデータの一括登録
+     * SAMPLE_BATCH_SIZE 件ずつ saveAll → flush で JDBC バッチ INSERT し、永続化コンテキストから外す
+     * 監査ログと検索インデックスもチャンク単位でまとめて書く
+     */
     @Transactional(rollbackFor = Exception.class)
     public int createSamples(int count, User user) {
-        int created = 0;
         com.example.todo.enums.Priority[] values = com.example.todo.enums.Priority.values();
         List<com.example.todo.entity.Category> categories = categoryService.findAll();
+        java.time.LocalDate today = java.time.LocalDate.now();
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        List<Todo> chunk = new ArrayList<>(SAMPLE_BATCH_SIZE);
         for (int i = 1; i <= count; i++) {
             Todo todo = new Todo();
             todo.setTitle("サンプルToDo " + i);
             todo.setDescription("ページネーション確認用のサンプルデータ " + i);
             todo.setPriority(values[i % values.length]);
-            java.time.LocalDate today = java.time.LocalDate.now();
             todo.setDueDate(today.plusDays((i % 11) - 5));
-            java.time.LocalDateTime createdAt = java.time.LocalDateTime.now().minusDays(i % 21);
+            java.time.LocalDateTime createdAt = now.minusDays(i % 21);
             todo.setCreatedAt(createdAt);
             todo.setUpdatedAt(createdAt);
             if (!categories.isEmpty()) {
                 todo.setCategory(categories.get(i % categories.size()));
             }
             todo.setUser(user);
-            Todo saved = todoRepository.save(todo);
-            auditService.log("CREATE_SAMPLE", saved.getId(), user.getUsername());
-            created++;
+            chunk.add(todo);
+            if (chunk.size() == SAMPLE_BATCH_SIZE) {
+                saveSampleChunk(chunk, user);
+            }
         }
-        return created;
+        saveSampleChunk(chunk, user);
+        return count;
     }
 
+    private void saveSampleChunk(List<Todo> chunk, User user) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        todoRepository.saveAll(chunk);
+        todoRepository.flush();
+        searchService.indexAllAfterCommit(chunk);
+        statsService.addedAll(chunk);
+        List<TodoStatsRow> rows = chunk.stream().map(TodoStatsRow::of).toList();
+        eventHub.publish(TodoEventType.CREATED, rows);
+        deadlineWheel.scheduleAfterCommit(rows);
+        auditService.logAll("CREATE_SAMPLE", chunk.stream().map(Todo::getId).toList(), user.getUsername());
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    /**
+     * タイトル・説明の全文検索（関連度順）
+     */
     @Transactional(readOnly = true)
     public List<Todo> searchByTitle(String keyword) {
-        return todoRepository.findByTitleContainingIgnoreCase(
-                keyword, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return findRanked(searchService.search(keyword, null, null));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Todo> searchByTitle(User user, String keyword, boolean isAdmin, int limit) {
+        return findRanked(searchService.search(keyword, isAdmin ? null : user.getId(), null, limit));
+    }
+
+    private List<Todo> findRanked(List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Todo> byId = new HashMap<>();
+        todoRepository.findByIdIn(rankedIds, Sort.unsorted()).forEach(t -> byId.put(t.getId(), t));
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
@@ -189,18 +307,28 @@ public class TodoService {
     public void delete(Long id, User user, boolean isAdmin) {
         Todo todo = findByIdWithAccess(id, user, isAdmin);
         todoRepository.deleteById(todo.getId());
+        searchService.removeAfterCommit(List.of(todo.getId()));
+        List<TodoStatsRow> removed = List.of(TodoStatsRow.of(todo));
+        statsService.removed(removed);
+        eventHub.publish(TodoEventType.DELETED, removed);
+        deadlineWheel.cancelAfterCommit(removed);
     }
 
     @Transactional(rollbackFor = Exception.class)
     @Auditable(action = AuditAction.UPDATE)
     public Todo update(Long id, String title, String description, com.example.todo.enums.Priority priority, Long categoryId, java.time.LocalDate dueDate, User user, boolean isAdmin) {
         Todo todo = findByIdWithAccess(id, user, isAdmin);
+        TodoStatsRow before = TodoStatsRow.of(todo);
         todo.setTitle(title);
         todo.setDescription(description);
         todo.setPriority(priority);
         todo.setDueDate(dueDate);
         todo.setCategory(categoryService.findById(categoryId));
         Todo saved = todoRepository.save(todo);
+        searchService.indexAfterCommit(saved);
+        statsService.changed(before, saved);
+        eventHub.publish(TodoEventType.UPDATED, List.of(before));
+        deadlineWheel.scheduleAfterCommit(List.of(TodoStatsRow.of(saved)));
         return saved;
     }
 
@@ -208,6 +336,7 @@ public class TodoService {
     @Auditable(action = AuditAction.UPDATE)
     public Todo updateFromApi(Long id, com.example.todo.dto.ApiTodoRequest req, User user, boolean isAdmin) {
         Todo todo = findByIdWithAccess(id, user, isAdmin);
+        TodoStatsRow before = TodoStatsRow.of(todo);
         todo.setTitle(req.getTitle());
         todo.setDescription(req.getDescription());
         todo.setPriority(req.getPriority());
@@ -217,49 +346,139 @@ public class TodoService {
             todo.setCompleted(req.getCompleted());
         }
         Todo saved = todoRepository.save(todo);
+        searchService.indexAfterCommit(saved);
+        statsService.changed(before, saved);
+        eventHub.publish(TodoEventType.UPDATED, List.of(before));
+        deadlineWheel.scheduleAfterCommit(List.of(TodoStatsRow.of(saved)));
         return saved;
     }
 
+    /**
+     * 選択した ToDo の一括削除
+     * 一般ユーザーは自分の ToDo だけが対象（他ユーザーの id は黙って除外する）
+     * 所有 id の解決1回・件数集計用の読み取り1回・DELETE 1回・監査ログのバッチ書き込みで、件数によらず SQL 回数は一定
+     */
     @Transactional(rollbackFor = Exception.class)
     public int deleteByIds(List<Long> ids, User user, boolean isAdmin) {
         if (ids == null || ids.isEmpty()) {
             return 0;
         }
-        if (isAdmin) {
-            todoRepository.deleteByIdIn(ids);
-            ids.forEach(id -> auditService.log("DELETE", id, user.getUsername()));
-            return ids.size();
-        }
-        List<Long> ownIds = ids.stream()
-                .filter(id -> {
-                    try {
-                        findByIdForUser(id, user);
-                        return true;
-                    } catch (ResponseStatusException e) {
-                        return false;
-                    }
-                })
-                .toList();
+        Long userId = isAdmin ? null : user.getId();
+        // 行ロックして解決するので、DELETE が消すのも監査ログに書くのもちょうどこの id になる
+        List<Long> ownIds = todoRepository.lockIdsFiltered(userId, ids, null, ids.size());
         if (ownIds.isEmpty()) {
             return 0;
         }
-        todoRepository.deleteByIdIn(ownIds);
-        ownIds.forEach(id -> auditService.log("DELETE", id, user.getUsername()));
-        return ownIds.size();
+        List<TodoStatsRow> removed = todoRepository.findStatsRowsByIdIn(ownIds);
+        int deleted = todoRepository.deleteByIdInForUser(ownIds, userId);
+        searchService.removeAfterCommit(ownIds);
+        statsService.removed(removed);
+        eventHub.publish(TodoEventType.DELETED, removed);
+        deadlineWheel.cancelAfterCommit(removed);
+        auditService.logAll("DELETE", ownIds, user.getUsername());
+        return deleted;
+    }
+
+    /**
+     * 一括操作（完了/未完了・優先度・カテゴリ・削除）
+     * 対象 id を1クエリで解決して行ロックし（他ユーザーの ToDo は含めない）、操作ごとに集合 UPDATE / DELETE を1文ずつ発行する
+     * 全操作と監査ログ（操作ごとに、実際に変更した行の分だけ）を1トランザクションで書く
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public BulkResult bulk(ApiBulkRequest req, User user, boolean isAdmin) {
+        boolean byIds = req.getIds() != null && !req.getIds().isEmpty();
+        if (byIds == req.hasFilter()) {
+            throw new BusinessException("E400", "対象は ids かフィルタ（keyword / categoryId）のどちらか一方で指定してください");
+        }
+        Map<ApiBulkRequest.Operation, com.example.todo.entity.Category> categories = new HashMap<>();
+        for (ApiBulkRequest.Operation op : req.getOperations()) {
+            if (op.getType() == BulkOperationType.SET_PRIORITY && op.getPriority() == null) {
+                throw new BusinessException("E400", "SET_PRIORITY には priority が必要です");
+            }
+            if (op.getType() == BulkOperationType.SET_CATEGORY) {
+                if (op.getCategoryId() == null) {
+                    throw new BusinessException("E400", "SET_CATEGORY には categoryId が必要です");
+                }
+                categories.put(op, categoryService.findById(op.getCategoryId()));
+            }
+        }
+
+        Long userId = isAdmin ? null : user.getId();
+        List<Long> ids = byIds ? req.getIds()
+                : req.getKeyword() != null && !req.getKeyword().isBlank()
+                ? searchService.matchIds(req.getKeyword(), userId, req.getCategoryId(), MAX_BULK_TARGETS + 1) : null;
+        List<Long> targets = ids != null && ids.isEmpty() ? List.of()
+                : todoRepository.lockIdsFiltered(userId, ids, byIds ? null : req.getCategoryId(), MAX_BULK_TARGETS + 1);
+        if (targets.size() > MAX_BULK_TARGETS) {
+            throw new BusinessException("E400", "対象が多すぎます（上限 " + MAX_BULK_TARGETS + " 件）");
+        }
+
+        BulkResult result = new BulkResult(targets.size());
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        // 件数集計は変更前の値を読んでおき、操作をメモリ上で当てて変更後を求める
+        List<TodoStatsRow> before = targets.isEmpty() ? List.of() : todoRepository.findStatsRowsByIdIn(targets);
+        List<TodoStatsRow> after = new ArrayList<>(before);
+        boolean reindex = false;
+        boolean deleted = false;
+        for (ApiBulkRequest.Operation op : req.getOperations()) {
+            int affected = targets.isEmpty() ? 0 : switch (op.getType()) {
+                case COMPLETE -> todoRepository.updateCompleted(targets, userId, true, now);
+                case UNCOMPLETE -> todoRepository.updateCompleted(targets, userId, false, now);
+                case SET_PRIORITY -> todoRepository.updatePriority(targets, userId,
+                        op.getPriority(), op.getPriority().getRank(), now);
+                case SET_CATEGORY -> todoRepository.updateCategory(targets, userId, categories.get(op), now);
+                case DELETE -> todoRepository.deleteByIdInForUser(targets, userId);
+            };
+            result.add(op.getType(), affected);
+            // 対象は行ロック済みなので、効いた操作は targets の全行に効いている（DELETE の後の操作は 0 件）
+            if (affected > 0) {
+                reindex |= op.getType() == BulkOperationType.SET_CATEGORY;
+                deleted |= op.getType() == BulkOperationType.DELETE;
+                auditService.logAll(op.getType().auditAction(), targets, user.getUsername());
+                after.replaceAll(row -> switch (op.getType()) {
+                    case COMPLETE -> row.withCompleted(true);
+                    case UNCOMPLETE -> row.withCompleted(false);
+                    case SET_PRIORITY -> row.withPriority(op.getPriority());
+                    case SET_CATEGORY -> row.withCategoryId(categories.get(op).getId());
+                    case DELETE -> row;
+                });
+            }
+        }
+        if (deleted) {
+            statsService.removed(before);
+            deadlineWheel.cancelAfterCommit(before);
+        } else {
+            statsService.changedAll(before, after);
+            deadlineWheel.scheduleAfterCommit(after);
+        }
+        if (!before.equals(after) || deleted) {
+            eventHub.publish(deleted ? TodoEventType.DELETED : TodoEventType.UPDATED, before);
+        }
+        if (reindex) {
+            searchService.reindexAfterCommit(targets);
+        }
+        if (deleted) {
+            searchService.removeAfterCommit(targets);
+        }
+        return result;
     }
 
     @Transactional(rollbackFor = Exception.class)
     @Auditable(action = AuditAction.TOGGLE)
     public Todo toggleCompleted(Long id, User user, boolean isAdmin) {
         Todo todo = findByIdWithAccess(id, user, isAdmin);
+        TodoStatsRow before = TodoStatsRow.of(todo);
         todo.setCompleted(!todo.getCompleted());
         Todo saved = todoRepository.save(todo);
+        statsService.changed(before, saved);
+        eventHub.publish(TodoEventType.UPDATED, List.of(before));
+        deadlineWheel.scheduleAfterCommit(List.of(TodoStatsRow.of(saved)));
         return saved;
     }
 
     @Transactional(readOnly = true)
     public User loadUser(String username) {
-        return userRepository.findByUsername(username)
+        return userService.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("E401", "ユーザーが見つかりません: " + username));
     }
 }
@@ -0,0 +1,549 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TodoStats;
+import com.example.todo.dto.TodoStatsRow;
+import com.example.todo.entity.JobLease;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.TodoStatsCounter;
+import com.example.todo.enums.Priority;
+import com.example.todo.enums.StatsDimension;
+import com.example.todo.repository.JobLeaseRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.TodoStatsCounterRepository;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.stats.TodoStatsSnapshot;
+import com.example.todo.stats.UserTodoCounters;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ダッシュボード用のユーザー別 ToDo 件数
+ * TodoService の更新（作成・変更・完了切替・削除・一括操作）の増減をトランザクション内で溜め、コミット後に
+ * ノード内の LongAdder カウンタ（pending）へ足す。書き込み側では SQL もロックも増えない
+ *
+ * - flush-interval ごとに pending を todo_stats_counters へ count = count + 増減 として書き出す
+ *   （加算なので、他のノードの書き出しと上書きし合わない。書き出せなかった分は pending に残して次回に回す）
+ * - 読み取りは、DB の値のキャッシュ（refresh-interval ごとに裏で読み直す）+ 自ノードの pending なので SQL を発行しない
+ *   （初回だけ DB から読む）。他のノードの更新が見えるまでは最大 flush-interval + refresh-interval かかる
+ * - ノードが落ちると書き出し前の増減（最大 flush-interval 分）は失われる。照合（reconcile）で todos から数え直して補正する
+ */
+@Service
+public class TodoStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoStatsService.class);
+
+    private static final String LEASE = "todo-stats-reconcile";
+    private static final int RECONCILE_CHUNK_SIZE = 100;
+    private static final int FLUSH_CHUNK_SIZE = 100;
+
+    private final TodoRepository todoRepository;
+    private final TodoStatsCounterRepository counterRepository;
+    private final UserRepository userRepository;
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int dueSoonDays;
+    private final Duration reconcileQuiet;
+    private final Duration reconcileLease;
+    private final String nodeId;
+    private final Counter drift;
+    private final AtomicLong runs = new AtomicLong();
+
+    // コミット済みでまだ DB に書き出していない増減（ユーザーごと）
+    // 加算と書き出し後の差し引き・削除は compute の中で行う（同じユーザーの加算が消えないように）
+    private final Map<Long, UserTodoCounters> pending = new ConcurrentHashMap<>();
+    // todo_stats_counters の値（ユーザーごと）
+    private final LoadingCache<Long, TodoStatsSnapshot> stored;
+
+    public TodoStatsService(TodoRepository todoRepository,
+                            TodoStatsCounterRepository counterRepository,
+                            UserRepository userRepository,
+                            JobLeaseRepository leaseRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.stats.due-soon-days:3}") int dueSoonDays,
+                            @Value("${app.stats.refresh-interval:PT5S}") Duration refreshInterval,
+                            @Value("${app.stats.cache-size:10000}") long cacheSize,
+                            @Value("${app.stats.reconcile-quiet:PT1M}") Duration reconcileQuiet,
+                            @Value("${app.stats.reconcile-lease:PT30M}") Duration reconcileLease,
+                            @Value("${app.stats.node-id:}") String nodeId) {
+        this.todoRepository = todoRepository;
+        this.counterRepository = counterRepository;
+        this.userRepository = userRepository;
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dueSoonDays = dueSoonDays;
+        this.reconcileQuiet = reconcileQuiet;
+        this.reconcileLease = reconcileLease;
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.drift = Counter.builder("todo.stats.drift")
+                .description("Users whose counters were corrected by reconciliation")
+                .register(meterRegistry);
+        this.stored = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .refreshAfterWrite(refreshInterval)
+                .build(userId -> fromCounters(counterRepository.findByUserId(userId))
+                        .getOrDefault(userId, TodoStatsSnapshot.EMPTY));
+    }
+
+    /**
+     * ダッシュボードの集計（DB の値のキャッシュ + 自ノードの未書き出し分。todos は数えない）
+     */
+    public TodoStats stats(Long userId) {
+        TodoStatsSnapshot snapshot = stored.get(userId);
+        UserTodoCounters local = pending.get(userId);
+        if (local != null) {
+            UserTodoCounters sum = new UserTodoCounters();
+            sum.add(snapshot, 1);
+            sum.add(local.snapshot(LocalDate.MIN), 1);
+            snapshot = sum.snapshot(LocalDate.now());
+        }
+        return toStats(snapshot);
+    }
+
+    /**
+     * todos から数えた集計（照合と同じ数え方。カウンタと突き合わせる確認用）
+     */
+    @Transactional(readOnly = true)
+    public TodoStats statsFromTodos(Long userId) {
+        return toStats(countFromTodos(List.of(userId), LocalDate.now())
+                .getOrDefault(userId, TodoStatsSnapshot.EMPTY));
+    }
+
+    private TodoStats toStats(TodoStatsSnapshot snapshot) {
+        TodoStats stats = new TodoStats();
+        stats.setGeneratedAt(LocalDateTime.now());
+        stats.setTotal(snapshot.total());
+        stats.setCompleted(snapshot.completed());
+        stats.setPending(Math.max(0, snapshot.total() - snapshot.completed()));
+        LocalDate today = LocalDate.now();
+        long dueSoon = 0;
+        for (LocalDate date = today; !date.isAfter(today.plusDays(dueSoonDays)); date = date.plusDays(1)) {
+            dueSoon += snapshot.dueDates().getOrDefault(date, 0L);
+        }
+        stats.setDueSoon(dueSoon);
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority.name(), snapshot.priorities().getOrDefault(priority, 0L));
+        }
+        stats.setByPriority(byPriority);
+        stats.setByCategory(new HashMap<>(snapshot.categories()));
+        return stats;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void added(Todo todo) {
+        add(TodoStatsRow.of(todo), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addedAll(Collection<Todo> todos) {
+        todos.forEach(todo -> add(TodoStatsRow.of(todo), 1));
+    }
+
+    /**
+     * @param before 変更前に TodoStatsRow.of で取り出した値
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(TodoStatsRow before, Todo after) {
+        TodoStatsRow row = TodoStatsRow.of(after);
+        if (!row.equals(before)) {
+            add(before, -1);
+            add(row, 1);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(Collection<TodoStatsRow> rows) {
+        rows.forEach(row -> add(row, -1));
+    }
+
+    /**
+     * 集合 UPDATE の前後（一括操作用）。変わらなかった行は反映しない
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changedAll(List<TodoStatsRow> before, List<TodoStatsRow> after) {
+        for (int i = 0; i < before.size(); i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                add(before.get(i), -1);
+                add(after.get(i), 1);
+            }
+        }
+    }
+
+    // トランザクションごとにユーザー別の増減を溜め、コミット後に pending へ足す（ロールバックされれば捨てる）
+    private void add(TodoStatsRow row, long delta) {
+        if (row.userId() == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, UserTodoCounters> deltas = (Map<Long, UserTodoCounters>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<Long, UserTodoCounters> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // 同じコミットの変更通知（TodoEventHub）が件数を読む前に足しておく
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    created.forEach((userId, counters) -> addPending(userId, counters.snapshot(LocalDate.MIN), 1));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TodoStatsService.this);
+                }
+            });
+            deltas = created;
+        }
+        deltas.computeIfAbsent(row.userId(), id -> new UserTodoCounters()).add(row, delta);
+    }
+
+    // 増減が 0 になっても書き出すまでは残す（書き出しで総数の行の更新日時を進め、照合に更新があったことを伝える）
+    private void addPending(Long userId, TodoStatsSnapshot snapshot, long sign) {
+        pending.compute(userId, (id, counters) -> {
+            UserTodoCounters target = counters != null ? counters : new UserTodoCounters();
+            target.add(snapshot, sign);
+            return target;
+        });
+    }
+
+    /**
+     * pending を todo_stats_counters に加算で書き出す（FLUSH_CHUNK_SIZE ユーザーずつ1トランザクション）
+     * 書き出した分だけ pending から差し引くので、書き出し中に入った増減は次回に回る
+     * 定期実行と照合から呼ばれるので、同じ増減を二重に書かないよう1つずつ動かす
+     *
+     * @return 書き出したユーザー数
+     */
+    public synchronized int flush() {
+        List<Long> userIds = new ArrayList<>(pending.keySet());
+        Collections.sort(userIds);
+        int flushed = 0;
+        for (int from = 0; from < userIds.size(); from += FLUSH_CHUNK_SIZE) {
+            Map<Long, TodoStatsSnapshot> deltas = new TreeMap<>();
+            for (Long userId : userIds.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, userIds.size()))) {
+                UserTodoCounters counters = pending.get(userId);
+                if (counters != null) {
+                    deltas.put(userId, counters.snapshot(LocalDate.MIN));
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeDeltas(deltas, LocalDateTime.now()));
+            } catch (DataAccessException e) {
+                // 他のノードが同じバケットの行を同時に作った場合など。pending に残っているので次回やり直す
+                logger.warn("TodoStatsService: flush of {} users failed, retrying later: {}", deltas.size(), e.getMessage());
+                continue;
+            }
+            reloadStored(deltas.keySet());
+            deltas.forEach((userId, delta) -> pending.computeIfPresent(userId, (id, counters) -> {
+                counters.add(delta, -1);
+                return counters.snapshot(LocalDate.MIN).equals(TodoStatsSnapshot.EMPTY) ? null : counters;
+            }));
+            flushed += deltas.size();
+        }
+        return flushed;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int users = flush();
+        if (users > 0) {
+            logger.info("Todo stats flushed on shutdown: {} users", users);
+        }
+    }
+
+    // 総数の行は増減が 0 でも更新日時を進める（照合がこのユーザーの書き出しを見分ける印）
+    private void writeDeltas(Map<Long, TodoStatsSnapshot> deltas, LocalDateTime now) {
+        List<TodoStatsCounter> rows = new ArrayList<>();
+        deltas.forEach((userId, snapshot) -> toCounters(userId, snapshot, now, rows));
+        List<TodoStatsCounter> inserts = new ArrayList<>();
+        for (TodoStatsCounter delta : rows) {
+            if (delta.getCount() == 0 && delta.getDimension() != StatsDimension.TOTAL) {
+                continue;
+            }
+            if (counterRepository.addCount(delta.getUserId(), delta.getDimension(), delta.getBucket(),
+                    delta.getCount(), now) == 0) {
+                inserts.add(delta);
+            }
+        }
+        counterRepository.saveAll(inserts);
+    }
+
+    // 書き出した直後の DB の値でキャッシュを置き換える（キャッシュにあるユーザーだけ）
+    private void reloadStored(Collection<Long> userIds) {
+        List<Long> cached = userIds.stream().filter(stored.asMap()::containsKey).toList();
+        if (cached.isEmpty()) {
+            return;
+        }
+        Map<Long, TodoStatsSnapshot> snapshots = fromCounters(counterRepository.findByUserIdIn(cached));
+        cached.forEach(userId -> stored.put(userId, snapshots.getOrDefault(userId, TodoStatsSnapshot.EMPTY)));
+    }
+
+    /**
+     * 全ユーザーについて todos から数え直し、カウンタとずれていれば差分を加算して補正する（過ぎた期限日の行もここで消す）
+     * job_leases のリースを取った1ノードだけが動かす
+     *
+     * 数え直した時点で書き出し前だった増減（どこかのノードの pending）はずれに見えるので、すぐには直さない。
+     * reconcile-quiet だけ待ち、その間にどのノードもそのユーザーのカウンタを書き出していなければ
+     * （総数の行の更新日時が変わっていなければ）本当のずれとして補正する
+     *
+     * @return 補正したユーザー数
+     */
+    public int reconcile() {
+        return reconcile(reconcileQuiet);
+    }
+
+    private int reconcile(Duration quiet) {
+        String owner = nodeId + "#" + runs.incrementAndGet();
+        if (!acquireLease(owner)) {
+            logger.debug("Todo stats reconcile is running elsewhere, skipped");
+            return 0;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            Map<Long, Correction> candidates = new TreeMap<>();
+            long lastId = 0;
+            while (true) {
+                renewLease(owner);
+                List<Long> userIds = userRepository.findIdsAfter(lastId, PageRequest.of(0, RECONCILE_CHUNK_SIZE));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> findDrift(userIds, today, candidates));
+                lastId = userIds.get(userIds.size() - 1);
+                if (userIds.size() < RECONCILE_CHUNK_SIZE) {
+                    break;
+                }
+            }
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+            // 書き出し前だった増減が DB に届くのを待つ（自ノードの分はここで書き出す）
+            Thread.sleep(quiet.toMillis());
+            flush();
+            renewLease(owner);
+            int corrected = applyCorrections(candidates);
+            if (corrected > 0) {
+                drift.increment(corrected);
+                logger.warn("TodoStatsService: corrected counters of {} users", corrected);
+            }
+            return corrected;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (LeaseLostException e) {
+            logger.warn("Todo stats reconcile lease was taken over, stopping");
+            return 0;
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.release(LEASE, owner));
+        }
+    }
+
+    // カウンタを先に読み、後から todos を数える（間に書き出された増減は、総数の行の更新日時の変化でわかる）
+    private void findDrift(List<Long> userIds, LocalDate today, Map<Long, Correction> out) {
+        List<TodoStatsCounter> rows = counterRepository.findByUserIdIn(userIds);
+        Map<Long, TodoStatsSnapshot> seen = fromCounters(rows);
+        Map<Long, LocalDateTime> flushedAt = flushedAt(rows);
+        Map<Long, TodoStatsSnapshot> actual = countFromTodos(userIds, today);
+        for (Long userId : userIds) {
+            TodoStatsSnapshot expected = actual.getOrDefault(userId, TodoStatsSnapshot.EMPTY);
+            TodoStatsSnapshot current = withoutDueDatesBefore(seen.getOrDefault(userId, TodoStatsSnapshot.EMPTY), today);
+            if (!current.equals(expected)) {
+                UserTodoCounters difference = new UserTodoCounters();
+                difference.add(expected, 1);
+                difference.add(current, -1);
+                out.put(userId, new Correction(difference.snapshot(today), flushedAt.get(userId)));
+            }
+        }
+        counterRepository.deleteDueDatesBefore(userIds, today.toString());
+    }
+
+    private int applyCorrections(Map<Long, Correction> candidates) {
+        List<Long> userIds = new ArrayList<>(candidates.keySet());
+        int corrected = 0;
+        for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, userIds.size()));
+            Map<Long, TodoStatsSnapshot> applied = transactionTemplate.execute(status -> {
+                Map<Long, LocalDateTime> flushedAt = flushedAt(counterRepository.findByUserIdIn(chunk));
+                Map<Long, TodoStatsSnapshot> deltas = new TreeMap<>();
+                for (Long userId : chunk) {
+                    Correction correction = candidates.get(userId);
+                    if (Objects.equals(flushedAt.get(userId), correction.flushedAt())) {
+                        deltas.put(userId, correction.delta());
+                    }
+                }
+                writeDeltas(deltas, LocalDateTime.now());
+                return deltas;
+            });
+            if (applied != null && !applied.isEmpty()) {
+                reloadStored(applied.keySet());
+                corrected += applied.size();
+            }
+        }
+        return corrected;
+    }
+
+    private boolean acquireLease(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Boolean acquired = transactionTemplate.execute(status -> {
+                if (leaseRepository.acquire(LEASE, owner, now.plus(reconcileLease), now) == 1) {
+                    return true;
+                }
+                if (leaseRepository.existsById(LEASE)) {
+                    return false;
+                }
+                leaseRepository.saveAndFlush(new JobLease(LEASE, owner, now.plus(reconcileLease)));
+                return true;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            // 同時に他のノードが行を作った
+            return false;
+        }
+    }
+
+    private void renewLease(String owner) {
+        Integer renewed = transactionTemplate.execute(status ->
+                leaseRepository.renew(LEASE, owner, LocalDateTime.now().plus(reconcileLease)));
+        if (renewed == null || renewed == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private Map<Long, TodoStatsSnapshot> countFromTodos(Collection<Long> userIds, LocalDate today) {
+        Map<Long, UserTodoCounters> counts = new HashMap<>();
+        for (Object[] row : todoRepository.countByUserCompletedPriority(userIds)) {
+            counts.computeIfAbsent((Long) row[0], id -> new UserTodoCounters())
+                    .addTotals(Boolean.TRUE.equals(row[1]), (Priority) row[2], (Long) row[3]);
+        }
+        for (Object[] row : todoRepository.countByUserCategory(userIds)) {
+            counts.computeIfAbsent((Long) row[0], id -> new UserTodoCounters())
+                    .addCategory((Long) row[1], (Long) row[2]);
+        }
+        for (Object[] row : todoRepository.countByUserDueDateFrom(userIds, today)) {
+            counts.computeIfAbsent((Long) row[0], id -> new UserTodoCounters())
+                    .addDueDate((LocalDate) row[1], (Long) row[2]);
+        }
+        Map<Long, TodoStatsSnapshot> snapshots = new HashMap<>();
+        counts.forEach((userId, counters) -> snapshots.put(userId, counters.snapshot(today)));
+        return snapshots;
+    }
+
+    /**
+     * カウンタがまだ1行もなければ（初回起動）todos から数えて作る（書き出し前の増減はまだないので待たない）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (counterRepository.count() == 0) {
+            long start = System.currentTimeMillis();
+            int users = reconcile(Duration.ZERO);
+            logger.info("Todo stats counted from todos: {} users in {}ms", users, System.currentTimeMillis() - start);
+        }
+    }
+
+    private static TodoStatsSnapshot withoutDueDatesBefore(TodoStatsSnapshot snapshot, LocalDate date) {
+        Map<LocalDate, Long> dueDates = new HashMap<>(snapshot.dueDates());
+        dueDates.keySet().removeIf(d -> d.isBefore(date));
+        return new TodoStatsSnapshot(snapshot.total(), snapshot.completed(), snapshot.priorities(),
+                snapshot.categories(), dueDates);
+    }
+
+    private static void toCounters(Long userId, TodoStatsSnapshot snapshot, LocalDateTime now,
+                                   List<TodoStatsCounter> out) {
+        out.add(new TodoStatsCounter(userId, StatsDimension.TOTAL, "", snapshot.total(), now));
+        out.add(new TodoStatsCounter(userId, StatsDimension.COMPLETED, "", snapshot.completed(), now));
+        snapshot.priorities().forEach((priority, count) ->
+                out.add(new TodoStatsCounter(userId, StatsDimension.PRIORITY, priority.name(), count, now)));
+        snapshot.categories().forEach((categoryId, count) ->
+                out.add(new TodoStatsCounter(userId, StatsDimension.CATEGORY, categoryId.toString(), count, now)));
+        snapshot.dueDates().forEach((date, count) ->
+                out.add(new TodoStatsCounter(userId, StatsDimension.DUE_DATE, date.toString(), count, now)));
+    }
+
+    private static Map<Long, TodoStatsSnapshot> fromCounters(List<TodoStatsCounter> rows) {
+        Map<Long, List<TodoStatsCounter>> byUser = new HashMap<>();
+        rows.forEach(row -> byUser.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row));
+        Map<Long, TodoStatsSnapshot> snapshots = new HashMap<>();
+        byUser.forEach((userId, counters) -> {
+            long total = 0;
+            long completed = 0;
+            Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+            Map<Long, Long> categories = new HashMap<>();
+            Map<LocalDate, Long> dueDates = new HashMap<>();
+            for (TodoStatsCounter counter : counters) {
+                if (counter.getCount() == 0) {
+                    continue;
+                }
+                switch (counter.getDimension()) {
+                    case TOTAL -> total = counter.getCount();
+                    case COMPLETED -> completed = counter.getCount();
+                    case PRIORITY -> priorities.put(Priority.valueOf(counter.getBucket()), counter.getCount());
+                    case CATEGORY -> categories.put(Long.valueOf(counter.getBucket()), counter.getCount());
+                    case DUE_DATE -> dueDates.put(LocalDate.parse(counter.getBucket()), counter.getCount());
+                }
+            }
+            snapshots.put(userId, new TodoStatsSnapshot(total, completed, priorities, categories, dueDates));
+        });
+        return snapshots;
+    }
+
+    // ユーザーごとの最後の書き出し（総数の行の更新日時）
+    private static Map<Long, LocalDateTime> flushedAt(List<TodoStatsCounter> rows) {
+        Map<Long, LocalDateTime> flushedAt = new HashMap<>();
+        rows.stream().filter(row -> row.getDimension() == StatsDimension.TOTAL)
+                .forEach(row -> flushedAt.put(row.getUserId(), row.getUpdatedAt()));
+        return flushedAt;
+    }
+
+    /**
+     * 照合で見つけたずれ
+     *
+     * @param delta     加算する補正値
+     * @param flushedAt 数え直した時点の最後の書き出し（null = まだ行がない）
+     */
+    private record Correction(TodoStatsSnapshot delta, LocalDateTime flushedAt) {
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+}
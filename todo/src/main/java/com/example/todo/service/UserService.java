@@ -0,0 +1,79 @@
+package com.example.todo.service;
+
+import com.example.todo.config.CacheConfig;
+import com.example.todo.deadline.DeadlineWheel;
+import com.example.todo.entity.User;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * ログインユーザーの参照（username をキーにキャッシュする）
+ * 認証時（CustomUserDetailsService）と各リクエストの loadUser が同じキャッシュを使うので、
+ * ログイン後のリクエストではユーザーを DB から読まない
+ * キャッシュには不変の CachedUser を入れ、呼び出しごとに新しい User を組み立てて返す
+ * （返した User を書き換えても他のリクエストには見えない）
+ */
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final DeadlineWheel deadlineWheel;
+    private final CacheManager cacheManager;
+
+    public Optional<User> findByUsername(String username) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        CachedUser cached = cache.get(username, CachedUser.class);
+        if (cached == null) {
+            Optional<User> user = userRepository.findByUsername(username);
+            if (user.isEmpty()) {
+                return user;
+            }
+            cached = CachedUser.of(user.get());
+            cache.put(username, cached);
+        }
+        return Optional.of(cached.toUser());
+    }
+
+    /**
+     * ユーザーの追加・変更は必ずここを通す（キャッシュを無効化する）
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.username")
+    public User save(User user) {
+        return userRepository.save(user);
+    }
+
+    /**
+     * 期限リマインダーを期限の何分前に送るか（null で既定値に戻す）
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.username")
+    public User updateReminderOffset(User user, Integer minutes) {
+        User target = userRepository.findById(user.getId())
+                .orElseThrow(() -> new BusinessException("E404", "ユーザーが見つかりません"));
+        target.setReminderOffsetMinutes(minutes);
+        User saved = userRepository.save(target);
+        deadlineWheel.offsetChangedAfterCommit(saved.getId(), minutes);
+        return saved;
+    }
+
+    private record CachedUser(Long id, String username, String password, String role,
+                              LocalDateTime createdAt, Integer reminderOffsetMinutes) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                    user.getCreatedAt(), user.getReminderOffsetMinutes());
+        }
+
+        User toUser() {
+            return new User(id, username, password, role, createdAt, reminderOffsetMinutes);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todo.stats;
+
+import com.example.todo.enums.Priority;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * UserTodoCounters のある時点の値（0 のバケットは含めない）
+ * 永続化・照合（DB からの再計算結果との比較）に使う
+ */
+public record TodoStatsSnapshot(long total, long completed, Map<Priority, Long> priorities,
+                                Map<Long, Long> categories, Map<LocalDate, Long> dueDates) {
+
+    public static final TodoStatsSnapshot EMPTY = new TodoStatsSnapshot(0, 0, Map.of(), Map.of(), Map.of());
+
+    public TodoStatsSnapshot {
+        priorities = Map.copyOf(priorities);
+        categories = Map.copyOf(categories);
+        dueDates = Map.copyOf(dueDates);
+    }
+}
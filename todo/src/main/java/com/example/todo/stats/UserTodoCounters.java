@@ -0,0 +1,135 @@
+package com.example.todo.stats;
+
+import com.example.todo.dto.TodoStatsRow;
+import com.example.todo.enums.Priority;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 1ユーザー分の ToDo 件数（総数・完了・優先度別・カテゴリ別・期限日別）の集計用
+ * TodoStatsService がトランザクション内の増減をまとめるのと、照合で todos から数え直すのに使う
+ */
+public class UserTodoCounters {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder[] priorities = new LongAdder[PRIORITIES.length];
+    private final Map<Long, LongAdder> categories = new ConcurrentHashMap<>();
+    private final Map<LocalDate, LongAdder> dueDates = new ConcurrentHashMap<>();
+
+    public UserTodoCounters() {
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 1件分を加算する（削除・変更前の値は delta = -1）
+     */
+    public void add(TodoStatsRow row, long delta) {
+        addTotals(row.completed(), row.priority(), delta);
+        addCategory(row.categoryId(), delta);
+        addDueDate(row.dueDate(), delta);
+    }
+
+    /**
+     * 集計クエリの1行分（completed × priority ごとの件数）
+     */
+    public void addTotals(boolean isCompleted, Priority priority, long count) {
+        total.add(count);
+        if (isCompleted) {
+            completed.add(count);
+        }
+        if (priority != null) {
+            priorities[priority.ordinal()].add(count);
+        }
+    }
+
+    public void addCategory(Long categoryId, long count) {
+        if (categoryId != null) {
+            categories.computeIfAbsent(categoryId, k -> new LongAdder()).add(count);
+        }
+    }
+
+    public void addDueDate(LocalDate dueDate, long count) {
+        if (dueDate != null) {
+            dueDates.computeIfAbsent(dueDate, k -> new LongAdder()).add(count);
+        }
+    }
+
+    /**
+     * スナップショットの値を sign 倍して加算する
+     */
+    public void add(TodoStatsSnapshot snapshot, long sign) {
+        total.add(sign * snapshot.total());
+        completed.add(sign * snapshot.completed());
+        snapshot.priorities().forEach((priority, count) -> priorities[priority.ordinal()].add(sign * count));
+        snapshot.categories().forEach((id, count) -> addCategory(id, sign * count));
+        snapshot.dueDates().forEach((date, count) -> addDueDate(date, sign * count));
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long completed() {
+        return completed.sum();
+    }
+
+    public long priority(Priority priority) {
+        return priorities[priority.ordinal()].sum();
+    }
+
+    /**
+     * 期限日が from〜to（両端含む）の件数。数日分のバケットを足すだけ
+     */
+    public long dueBetween(LocalDate from, LocalDate to) {
+        long count = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LongAdder adder = dueDates.get(date);
+            if (adder != null) {
+                count += adder.sum();
+            }
+        }
+        return count;
+    }
+
+    public Map<Long, Long> categoryCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        categories.forEach((id, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                counts.put(id, count);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * @param dueFrom これより前の期限日は含めない（ダッシュボードは今日以降しか見ない）
+     */
+    public TodoStatsSnapshot snapshot(LocalDate dueFrom) {
+        Map<Priority, Long> priorityCounts = new EnumMap<>(Priority.class);
+        for (Priority priority : PRIORITIES) {
+            long count = priority(priority);
+            if (count != 0) {
+                priorityCounts.put(priority, count);
+            }
+        }
+        Map<LocalDate, Long> dueCounts = new HashMap<>();
+        dueDates.forEach((date, adder) -> {
+            long count = adder.sum();
+            if (count != 0 && !date.isBefore(dueFrom)) {
+                dueCounts.put(date, count);
+            }
+        });
+        return new TodoStatsSnapshot(total(), completed(), priorityCounts, categoryCounts(), dueCounts);
+    }
+}
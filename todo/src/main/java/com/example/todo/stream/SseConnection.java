@@ -0,0 +1,93 @@
+package com.example.todo.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SSE の1接続
+ * 送信は接続ごとの有界キューに積むだけで、書き込みは streamExecutor 上で接続ごとに直列に行う
+ * （遅いクライアントが発行元のスレッドや他の接続を止めないようにする）
+ * キューが溢れた接続は閉じる。クライアントは Last-Event-ID 付きで再接続し、再送ログから追いつく
+ */
+class SseConnection {
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    SseConnection(Long userId, SseEmitter emitter, int bufferSize, Executor executor) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return false ならキューが溢れたか、すでに閉じている（呼び出し側で接続を外す）
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed || !queue.offer(event)) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 切断済み（onError / onCompletion で TodoEventHub の登録も外れる）
+            closed = true;
+            queue.clear();
+            emitter.completeWithError(e);
+        } finally {
+            scheduled.set(false);
+        }
+        if (!closed && !queue.isEmpty()) {
+            schedule();
+        }
+    }
+}
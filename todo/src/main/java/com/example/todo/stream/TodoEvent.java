@@ -0,0 +1,16 @@
+package com.example.todo.stream;
+
+import com.example.todo.dto.TodoStats;
+import com.example.todo.enums.TodoEventType;
+
+import java.util.List;
+
+/**
+ * 1ユーザー宛ての変更通知（SSE の1イベント）
+ * stats は発行時点の件数（ダッシュボードはこれで更新し、/dashboard をポーリングしない）
+ *
+ * @param id         Last-Event-ID に使う通し番号（todo_event_log の id。ノードをまたいで一意）
+ * @param createdAt  発行時刻（epoch ミリ秒。再送ログの保持期間判定用）
+ */
+public record TodoEvent(long id, TodoEventType type, List<Long> todoIds, TodoStats stats, long createdAt) {
+}
@@ -0,0 +1,356 @@
+package com.example.todo.stream;
+
+import com.example.todo.dto.TodoStats;
+import com.example.todo.dto.TodoStatsRow;
+import com.example.todo.entity.TodoEventLog;
+import com.example.todo.enums.TodoEventType;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.TodoEventLogRepository;
+import com.example.todo.service.TodoStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ユーザーごとの ToDo 変更通知（SSE）の配信元
+ * TodoService の更新と同じトランザクションでイベントを todo_event_log に書き、コミット後に件数（TodoStatsService）と
+ * 一緒にそのユーザーの接続へ配る
+ *
+ * - 発行したノードはコミット直後に自ノードの接続へ配り、他のノードは poll で todo_event_log を読んで配る
+ *   （ロードバランサでスティッキーにしなくても、どのノードにつながったクライアントにも届く）
+ * - 接続ごとに有界のキューを持ち、溢れた接続は閉じる（SseConnection）
+ * - Last-Event-ID 付きの再接続では todo_event_log から replay-ttl 以内の続きを再送する（どのノードに再接続してもよい）
+ *   追えないときは reset を送る。イベントは「この ToDo が変わった」という通知なので、重複して届くことはある
+ * - 1ユーザーあたりの同時接続数は max-connections-per-user まで（ノードごと。超えたら E429）
+ * - todo_event_log への INSERT は接続の有無に関係なく更新のたびに1ユーザー1行かかる。1ノードだけで動かすなら
+ *   event-log-enabled=false で書かずに済ませられる（自ノードの接続へ直接配るだけ。再送はできず reset になる）
+ * （発行は更新のたびに呼ばれるので、service パッケージのアスペクト対象には置かない）
+ */
+@Component
+public class TodoEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoEventHub.class);
+
+    static final String EVENT_TODO = "todo";
+    static final String EVENT_STATS = "stats";
+    static final String EVENT_RESET = "reset";
+
+    private final TodoStatsService statsService;
+    private final TodoEventLogRepository eventLogRepository;
+    private final Executor executor;
+    private final int maxConnectionsPerUser;
+    private final int bufferSize;
+    private final Duration replayTtl;
+    private final Duration pollOverlap;
+    private final boolean eventLogEnabled;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    // poll で読んだ他のノードのイベントを受け取るもの（TodoSearchService のインデックス同期）
+    private final List<Consumer<List<TodoEventLog>>> pollListeners = new CopyOnWriteArrayList<>();
+    // 配り終えたイベントの id と書き込み時刻。poll が遡って読み直した行を二重に配らないために持つ
+    private final Map<Long, LocalDateTime> delivered = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+    // event-log-enabled=false のときの id（ノード内でだけ一意。起動時刻から始めて再起動をまたいでも戻らないようにする）
+    private final AtomicLong localSequence = new AtomicLong(System.currentTimeMillis());
+
+    public TodoEventHub(TodoStatsService statsService,
+                        TodoEventLogRepository eventLogRepository,
+                        @Qualifier("streamExecutor") Executor executor,
+                        @Value("${app.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                        @Value("${app.stream.buffer-size:64}") int bufferSize,
+                        @Value("${app.stream.replay-ttl:PT5M}") Duration replayTtl,
+                        @Value("${app.stream.poll-overlap:PT5S}") Duration pollOverlap,
+                        @Value("${app.stream.timeout:PT30M}") Duration timeout,
+                        @Value("${app.stream.reconnect:PT3S}") Duration reconnect,
+                        @Value("${app.stream.event-log-enabled:true}") boolean eventLogEnabled) {
+        this.statsService = statsService;
+        this.eventLogRepository = eventLogRepository;
+        this.executor = executor;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.bufferSize = bufferSize;
+        this.replayTtl = replayTtl;
+        this.pollOverlap = pollOverlap;
+        this.timeoutMillis = timeout.toMillis();
+        this.reconnectMillis = reconnect.toMillis();
+        this.eventLogEnabled = eventLogEnabled;
+    }
+
+    /**
+     * 接続を登録し、Last-Event-ID の続き（またはリセット）と現在の件数を最初に積む
+     *
+     * @param lastEventId 再接続時にブラウザが送ってくる値（初回は null）
+     */
+    public SseEmitter connect(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        SseConnection connection = new SseConnection(userId, emitter, bufferSize, executor);
+        register(connection);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        boolean resume = lastEventId != null && !lastEventId.isBlank();
+        List<TodoEventLog> missed = resume ? replay(userId, parseId(lastEventId)) : null;
+        TodoStats stats = statsService.stats(userId);
+        if (resume && missed == null) {
+            connection.offer(SseEmitter.event().name(EVENT_RESET).reconnectTime(reconnectMillis)
+                    .data(Map.of("reason", "replay-unavailable"), MediaType.APPLICATION_JSON));
+        } else if (missed != null) {
+            // 再送分の件数は今の値（各イベントの発行時点の値は残していない）
+            missed.forEach(event -> connection.offer(toSse(toEvent(event, stats))));
+        }
+        connection.offer(SseEmitter.event().name(EVENT_STATS).reconnectTime(reconnectMillis)
+                .data(stats, MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    private void register(SseConnection connection) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(connection.userId(), id -> new Channel());
+            synchronized (channel) {
+                // heartbeat が空になったチャネルを外した直後なら取り直す
+                if (channels.get(connection.userId()) != channel) {
+                    continue;
+                }
+                if (channel.connections.size() >= maxConnectionsPerUser) {
+                    throw new BusinessException("E429", "同時接続数の上限（" + maxConnectionsPerUser + "）に達しています");
+                }
+                channel.connections.add(connection);
+                return;
+            }
+        }
+    }
+
+    /**
+     * lastId より後のイベント
+     * lastId が見つからない（replay-ttl より古い・他のユーザーのもの・不正な値）なら取りこぼしがありうるので null
+     */
+    private List<TodoEventLog> replay(Long userId, long lastId) {
+        if (!eventLogEnabled) {
+            return null;
+        }
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(replayTtl);
+        return eventLogRepository.findByIdAndUserId(lastId, userId)
+                .filter(last -> !last.getCreatedAt().isBefore(expiredBefore))
+                .map(last -> eventLogRepository.findReplay(userId, lastId,
+                        last.getCreatedAt().minus(pollOverlap), expiredBefore))
+                .orElse(null);
+    }
+
+    /**
+     * 対象 ToDo の持ち主ごとに1イベントを todo_event_log に書き、コミット後に自ノードの接続へ配る
+     * 呼び出し元のトランザクションの中で呼ぶ（ロールバックされればイベントも残らない）
+     * 行はコミット直前に INSERT する（採番からコミットまでの間を短くして、poll の遡りで拾える範囲に収める）
+     * event-log-enabled=false なら行は書かず、ノード内の連番を振ってコミット後に配るだけ
+     */
+    public void publish(TodoEventType type, Collection<TodoStatsRow> rows) {
+        Map<Long, List<Long>> byUser = new LinkedHashMap<>();
+        for (TodoStatsRow row : rows) {
+            if (row.userId() != null) {
+                byUser.computeIfAbsent(row.userId(), id -> new ArrayList<>()).add(row.id());
+            }
+        }
+        if (byUser.isEmpty()) {
+            return;
+        }
+        List<TodoEventLog> events = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, ids) -> events.add(new TodoEventLog(null, userId, type,
+                ids.stream().map(String::valueOf).collect(Collectors.joining(",")), null)));
+
+        if (!eventLogEnabled) {
+            LocalDateTime now = LocalDateTime.now();
+            events.forEach(event -> {
+                event.setId(localSequence.incrementAndGet());
+                event.setCreatedAt(now);
+            });
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        events.forEach(TodoEventHub.this::deliver);
+                    }
+                });
+            } else {
+                events.forEach(this::deliver);
+            }
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventLogRepository.saveAll(events);
+            events.forEach(this::deliver);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                eventLogRepository.saveAll(events);
+            }
+
+            @Override
+            public void afterCommit() {
+                events.forEach(TodoEventHub.this::deliver);
+            }
+        });
+    }
+
+    /**
+     * poll で新しく読んだイベント（他のノードで発行された分）を受け取る
+     * 自ノードで発行したイベントは通常は渡さないが、コミット直後の配信より先に poll が読んだときは渡ることもある
+     */
+    public void addPollListener(Consumer<List<TodoEventLog>> listener) {
+        pollListeners.add(listener);
+    }
+
+    /**
+     * 前回から poll-overlap だけ遡って todo_event_log を読み、まだ配っていないイベント（他のノードで発行された分）を
+     * 自ノードの接続と pollListeners へ配る。遡るのは、先に採番されて後からコミットされた行とノード間の時計のずれを拾うため
+     *
+     * @return 新しく読んだイベント数
+     */
+    public int poll() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = lastPoll.minus(pollOverlap);
+        List<TodoEventLog> fresh = new ArrayList<>();
+        // 接続も受け取り手もなければ配る先がない（時刻だけ進める）
+        if (eventLogEnabled && (!channels.isEmpty() || !pollListeners.isEmpty())) {
+            for (TodoEventLog event : eventLogRepository.findByCreatedAtGreaterThanEqualOrderById(since)) {
+                if (!delivered.containsKey(event.getId())) {
+                    deliver(event);
+                    fresh.add(event);
+                }
+            }
+        }
+        if (!fresh.isEmpty()) {
+            for (Consumer<List<TodoEventLog>> listener : pollListeners) {
+                try {
+                    listener.accept(fresh);
+                } catch (RuntimeException e) {
+                    logger.warn("TodoEventHub: poll listener failed: {}", e.toString());
+                }
+            }
+        }
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(since));
+        lastPoll = started;
+        return fresh.size();
+    }
+
+    void deliver(TodoEventLog log) {
+        if (delivered.putIfAbsent(log.getId(), log.getCreatedAt()) != null) {
+            return;
+        }
+        Channel channel = channels.get(log.getUserId());
+        if (channel == null || channel.connections.isEmpty()) {
+            return;
+        }
+        SseEmitter.SseEventBuilder event = toSse(toEvent(log, statsService.stats(log.getUserId())));
+        for (SseConnection connection : channel.connections) {
+            if (!connection.offer(event)) {
+                logger.debug("TodoEventHub: dropping slow SSE connection of user {}", log.getUserId());
+                connection.close();
+                remove(connection);
+            }
+        }
+    }
+
+    /**
+     * 全接続にコメント行を送り、切れた接続を外す（プロキシのアイドル切断対策）
+     * 配信済みの記録も replay-ttl より古い分は捨てる（poll を止めたノードではここでしか減らない）
+     */
+    public void heartbeat() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(replayTtl);
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(expiredBefore));
+        channels.forEach((userId, channel) -> {
+            for (SseConnection connection : channel.connections) {
+                if (connection.isClosed() || !connection.offer(SseEmitter.event().comment("hb"))) {
+                    connection.close();
+                    remove(connection);
+                }
+            }
+            channels.computeIfPresent(userId, (id, c) -> c.isIdle() ? null : c);
+        });
+    }
+
+    /**
+     * replay-ttl を過ぎたイベントを消す（どのノードで動かしてもよい）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int purgeExpired() {
+        if (!eventLogEnabled) {
+            return 0;
+        }
+        return eventLogRepository.deleteCreatedBefore(LocalDateTime.now().minus(replayTtl));
+    }
+
+    public int connectionCount() {
+        return channels.values().stream().mapToInt(c -> c.connections.size()).sum();
+    }
+
+    public int connectionCount(Long userId) {
+        Channel channel = channels.get(userId);
+        return channel != null ? channel.connections.size() : 0;
+    }
+
+    private void remove(SseConnection connection) {
+        Channel channel = channels.get(connection.userId());
+        if (channel != null) {
+            channel.connections.remove(connection);
+        }
+    }
+
+    private static TodoEvent toEvent(TodoEventLog log, TodoStats stats) {
+        List<Long> todoIds = Arrays.stream(log.getTodoIds().split(",")).map(Long::valueOf).toList();
+        return new TodoEvent(log.getId(), log.getType(), todoIds, stats,
+                log.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(TodoEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.id()))
+                .name(EVENT_TODO)
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private static long parseId(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 1ユーザー分の接続
+     */
+    private static class Channel {
+
+        final List<SseConnection> connections = new CopyOnWriteArrayList<>();
+
+        synchronized boolean isIdle() {
+            return connections.isEmpty();
+        }
+    }
+}
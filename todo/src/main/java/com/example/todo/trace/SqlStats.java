@@ -0,0 +1,76 @@
+package com.example.todo.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 1リクエスト（または1回の計測範囲）で発行された SQL の集計
+ * スレッドに紐づけ、SqlStatsInspector / SqlStatsSessionListener が書き込む。
+ * 未開始のスレッド（バッチ・非同期処理）では何もしない
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+    private long executeStart;
+    // 同じ SQL（? のまま）の発行回数。同一文が繰り返されていれば N+1 を疑う
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    public static SqlStats begin() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql) {
+        statements++;
+        counts.merge(sql, 1, Integer::sum);
+    }
+
+    void executeStart() {
+        executeStart = System.nanoTime();
+    }
+
+    void executeEnd() {
+        if (executeStart != 0) {
+            jdbcNanos += System.nanoTime() - executeStart;
+            executeStart = 0;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * 最も多く繰り返された SQL と回数（なければ null）
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> max = null;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (max == null || entry.getValue() > max.getValue()) {
+                max = entry;
+            }
+        }
+        return max;
+    }
+
+    public int maxRepeat() {
+        Map.Entry<String, Integer> max = mostRepeated();
+        return max == null ? 0 : max.getValue();
+    }
+}
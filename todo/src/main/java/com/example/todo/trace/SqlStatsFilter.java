@@ -0,0 +1,207 @@
+package com.example.todo.trace;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * リクエストごとの SQL 発行回数・JDBC 実行時間・同一 SQL の最大繰り返し回数を
+ * レスポンスヘッダとメトリクスに出し、N+1 と思われる繰り返しを WARN で知らせる（開発・テスト用）
+ * ヘッダはレスポンスが確定する直前（最初の flush / リダイレクト / エラー送信、または処理の終了時）に付ける。
+ * ビュー描画中にバッファがあふれて確定しないよう、バッファを大きめに取る
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_STATEMENTS = "X-Sql-Statements";
+    public static final String HEADER_JDBC_MILLIS = "X-Sql-Time-Ms";
+    public static final String HEADER_MAX_REPEAT = "X-Sql-Max-Repeat";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+    private final MeterRegistry registry;
+    private final int repeatThreshold;
+    private final int bufferSize;
+
+    public SqlStatsFilter(MeterRegistry registry, int repeatThreshold, int bufferSize) {
+        this.registry = registry;
+        this.repeatThreshold = repeatThreshold;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (response.getBufferSize() < bufferSize) {
+            response.setBufferSize(bufferSize);
+        }
+        SqlStats stats = SqlStats.begin();
+        HeaderOnCommitResponse wrapped = new HeaderOnCommitResponse(response, stats);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            SqlStats.end();
+            // 非同期（SSE）の応答は別スレッドが書き続けるので、ここからはヘッダに触らない
+            if (!request.isAsyncStarted()) {
+                wrapped.writeHeaders();
+            }
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStats stats) {
+        String uri = uriPattern(request);
+        DistributionSummary.builder("sql.request.statements")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.getStatements());
+        Timer.builder("sql.request.jdbc")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            registry.counter("sql.request.n_plus_one", "uri", uri).increment();
+            logger.warn("Possible N+1: {} {} ran the same statement {} times ({} statements total): {}",
+                    request.getMethod(), uri, repeated.getValue(), stats.getStatements(),
+                    abbreviate(repeated.getKey()));
+        }
+    }
+
+    // 生の URI はタグにしない（/todos/123 ごとに系列が増える）
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= 300 ? sql : sql.substring(0, 300) + "…";
+    }
+
+    /**
+     * 確定する操作の直前に X-Sql-* ヘッダを書き込むレスポンス
+     */
+    static final class HeaderOnCommitResponse extends HttpServletResponseWrapper {
+
+        private final SqlStats stats;
+        private boolean written;
+        private PrintWriter writer;
+        private ServletOutputStream outputStream;
+
+        HeaderOnCommitResponse(HttpServletResponse response, SqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(HEADER_STATEMENTS, String.valueOf(stats.getStatements()));
+            setHeader(HEADER_JDBC_MILLIS, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+            setHeader(HEADER_MAX_REPEAT, String.valueOf(stats.maxRepeat()));
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void flush() {
+                        writeHeaders();
+                        super.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        writeHeaders();
+                        super.close();
+                    }
+                };
+            }
+            return writer;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeaders();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writeHeaders();
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
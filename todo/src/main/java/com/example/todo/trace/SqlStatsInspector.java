@@ -0,0 +1,18 @@
+package com.example.todo.trace;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate が準備する SQL を現在のリクエストの SqlStats に数える（SQL は書き換えない）
+ */
+public class SqlStatsInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.statement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.todo.trace;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * JDBC の実行時間（execute / executeBatch）を現在のリクエストの SqlStats に加算する
+ * hibernate.session.events.auto でセッションごとに生成される
+ */
+public class SqlStatsSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executeEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executeEnd();
+    }
+
+    private static void executeStart() {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.executeStart();
+        }
+    }
+
+    private static void executeEnd() {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.executeEnd();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.todo.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * サービス呼び出しトレースの設定（実行中に管理画面 API から変更できる）
+ * メソッドごとのサンプリング率は "TodoService.findPage" のようなキーで指定し、
+ * 未指定のメソッドは sampleRate を使う
+ */
+@Component
+public class TraceSettings {
+
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+    private volatile int maxValueLength;
+    private final Map<String, Double> methodRates = new ConcurrentHashMap<>();
+
+    public TraceSettings(@Value("${app.trace.enabled:false}") boolean enabled,
+                         @Value("${app.trace.sample-rate:0.01}") double sampleRate,
+                         @Value("${app.trace.max-value-length:120}") int maxValueLength,
+                         @Value("${app.trace.methods:}") String methods) {
+        this.enabled = enabled;
+        this.sampleRate = clamp(sampleRate);
+        this.maxValueLength = Math.max(16, maxValueLength);
+        // 例: TodoService.create=1.0,TodoService.findPage=0.05
+        for (String entry : methods.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq > 0) {
+                setMethodRate(entry.substring(0, eq).trim(), Double.parseDouble(entry.substring(eq + 1).trim()));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = clamp(sampleRate);
+    }
+
+    public int getMaxValueLength() {
+        return maxValueLength;
+    }
+
+    /**
+     * rate が負なら個別設定を消して既定値に戻す
+     */
+    public void setMethodRate(String method, double rate) {
+        if (rate < 0) {
+            methodRates.remove(method);
+        } else {
+            methodRates.put(method, clamp(rate));
+        }
+    }
+
+    public boolean sample(String method) {
+        double rate = methodRates.getOrDefault(method, sampleRate);
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("sampleRate", sampleRate);
+        snapshot.put("maxValueLength", maxValueLength);
+        snapshot.put("methods", Map.copyOf(methodRates));
+        return snapshot;
+    }
+
+    private static double clamp(double rate) {
+        return Math.max(0, Math.min(1, rate));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.todo.trace;
+
+import com.example.todo.dto.TodoDto;
+import com.example.todo.entity.Category;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import org.hibernate.Hibernate;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * トレースに出す引数・戻り値の要約
+ * toString() は呼ばない（@Data の toString が User → パスワードハッシュまで辿るため）。
+ * 文字列・数値・日付・enum だけ値を出し、コレクションは件数、エンティティ等は「型名#id」にする
+ */
+public final class TraceValues {
+
+    private TraceValues() {
+    }
+
+    public static String summarize(Object[] args, int maxLength) {
+        StringBuilder out = new StringBuilder(64).append('[');
+        for (int i = 0; i < args.length && out.length() < maxLength; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            append(out, args[i], maxLength);
+        }
+        return cap(out.append(']'), maxLength);
+    }
+
+    public static String summarize(Object value, int maxLength) {
+        StringBuilder out = new StringBuilder(32);
+        append(out, value, maxLength);
+        return cap(out, maxLength);
+    }
+
+    private static void append(StringBuilder out, Object value, int maxLength) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence text) {
+            out.append('"');
+            int room = Math.max(0, maxLength - out.length());
+            out.append(text, 0, Math.min(text.length(), room)).append('"');
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>
+                || value instanceof TemporalAccessor) {
+            out.append(value);
+        } else if (!Hibernate.isInitialized(value)) {
+            // 未初期化の遅延ロード（プロキシ・コレクション）は読み込まない
+            out.append(Hibernate.getClass(value).getSimpleName()).append("[lazy]");
+        } else if (value instanceof Collection<?> collection) {
+            out.append(value.getClass().getSimpleName()).append("[size=").append(collection.size()).append(']');
+        } else if (value instanceof Map<?, ?> map) {
+            out.append(value.getClass().getSimpleName()).append("[size=").append(map.size()).append(']');
+        } else if (value instanceof Optional<?> optional) {
+            out.append("Optional[");
+            append(out, optional.orElse(null), maxLength);
+            out.append(']');
+        } else {
+            out.append(Hibernate.getClass(value).getSimpleName());
+            Object id = idOf(value);
+            if (id != null) {
+                out.append('#').append(id);
+            }
+        }
+    }
+
+    private static Object idOf(Object value) {
+        if (value instanceof Todo todo) {
+            return todo.getId();
+        }
+        if (value instanceof User user) {
+            return user.getId();
+        }
+        if (value instanceof Category category) {
+            return category.getId();
+        }
+        if (value instanceof TodoDto dto) {
+            return dto.getId();
+        }
+        return null;
+    }
+
+    private static String cap(StringBuilder out, int maxLength) {
+        if (out.length() > maxLength) {
+            out.setLength(maxLength - 1);
+            out.append('…');
+        }
+        return out.toString();
+    }
+}
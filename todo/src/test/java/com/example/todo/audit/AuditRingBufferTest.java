@@ -0,0 +1,71 @@
+package com.example.todo.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    @DisplayName("容量を超えると offer は false を返し、取り出すと再び積める")
+    void offer_respectsCapacity() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        assertThat(buffer.offer(5)).isTrue();
+        drained.clear();
+        buffer.drainTo(drained, 10);
+        assertThat(drained).containsExactly(3, 5);
+    }
+
+    @Test
+    @DisplayName("複数スレッドから積んでも欠落・重複しない")
+    void concurrentProducers_noLossNoDuplicates() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(256);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        while (seen.size() < producers * perProducer) {
+            batch.clear();
+            buffer.drainTo(batch, 64);
+            for (Integer value : batch) {
+                assertThat(seen.add(value)).isTrue();
+            }
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+        assertThat(buffer.size()).isZero();
+    }
+}
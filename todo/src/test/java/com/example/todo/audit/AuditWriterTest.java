@@ -0,0 +1,76 @@
+package com.example.todo.audit;
+
+import com.example.todo.entity.AuditLog;
+import com.example.todo.repository.AuditLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditWriterTest {
+
+    private final AuditLogRepository repository = mock(AuditLogRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    @DisplayName("async: 呼び出し元では書かず、batch-size に達したらまとめて書く")
+    void async_writesInBatches() {
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        AuditWriter writer = writer("async", 64, 10, Duration.ofHours(1), AuditOverflowPolicy.BLOCK);
+        writer.start();
+        try {
+            for (int i = 0; i < 9; i++) {
+                writer.submit(AuditEvent.of("UPDATE", (long) i, "user"));
+            }
+            verify(repository, never()).saveAll(anyList());
+
+            writer.submit(AuditEvent.of("UPDATE", 9L, "user"));
+            verify(repository, timeout(2000)).saveAll(argThat((List<AuditLog> logs) -> logs.size() == 10));
+        } finally {
+            writer.stop();
+        }
+        assertThat(writer.stats()).containsEntry("written", 10L).containsEntry("flushes", 1L);
+    }
+
+    @Test
+    @DisplayName("DROP: キューが満杯なら捨てて数え、停止時に残りを書き切る")
+    void drop_countsOverflow_andFlushesOnStop() {
+        AuditWriter writer = writer("async", 4, 100, Duration.ofHours(1), AuditOverflowPolicy.DROP);
+        writer.start();
+        for (int i = 0; i < 6; i++) {
+            writer.submit(AuditEvent.of("DELETE", (long) i, "user"));
+        }
+        assertThat(writer.queueDepth()).isEqualTo(4);
+        assertThat(writer.stats()).containsEntry("dropped", 2L);
+
+        writer.stop();
+        assertThat(writer.queueDepth()).isZero();
+        assertThat(writer.stats()).containsEntry("written", 4L);
+    }
+
+    @Test
+    @DisplayName("sync: 呼び出しごとにその場で書く")
+    void sync_writesImmediately() {
+        AuditWriter writer = writer("sync", 64, 10, Duration.ofHours(1), AuditOverflowPolicy.BLOCK);
+        writer.start();
+        writer.submit(AuditEvent.of("CREATE", 1L, "user"));
+        verify(repository).saveAll(anyList());
+        assertThat(writer.isRunning()).isFalse();
+    }
+
+    private AuditWriter writer(String mode, int capacity, int batchSize, Duration interval, AuditOverflowPolicy policy) {
+        return new AuditWriter(repository, transactionManager, mode, capacity, batchSize, interval,
+                Duration.ofMillis(10), policy);
+    }
+}
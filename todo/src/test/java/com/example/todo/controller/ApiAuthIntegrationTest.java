@@ -0,0 +1,81 @@
+package com.example.todo.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * セッションを作らないことを確かめるため、MockMvc ではなく実際の HTTP で確認する
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiAuthIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("ログインで得たアクセストークンで API を呼べ、セッション Cookie は発行されない")
+    void login_thenCallApiWithBearerToken() throws Exception {
+        JsonNode tokens = login("user", "password");
+
+        ResponseEntity<String> response = get("/api/todos", tokens.path("accessToken").asText());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().get(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    @DisplayName("リフレッシュトークンで新しいトークンを取得できる（アクセストークンでは不可）")
+    void refresh_issuesNewTokens() throws Exception {
+        JsonNode tokens = login("user", "password");
+
+        assertThat(post("/api/auth/refresh", "{\"refreshToken\":\"" + tokens.path("refreshToken").asText() + "\"}")
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(post("/api/auth/refresh", "{\"refreshToken\":\"" + tokens.path("accessToken").asText() + "\"}")
+                .getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    @DisplayName("パスワード誤り・トークンなし・不正トークンは 401")
+    void unauthorized_cases() {
+        assertThat(post("/api/auth/login", "{\"username\":\"user\",\"password\":\"wrong\"}")
+                .getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(get("/api/todos", null).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(get("/api/todos", "abc.def").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private JsonNode login(String username, String password) throws Exception {
+        ResponseEntity<String> response = post("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return objectMapper.readTree(response.getBody()).path("data");
+    }
+
+    private ResponseEntity<String> post(String path, String json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.postForEntity(path, new HttpEntity<>(json, headers), String.class);
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
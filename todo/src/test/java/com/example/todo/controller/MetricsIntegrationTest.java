@@ -0,0 +1,66 @@
+package com.example.todo.controller;
+
+import com.example.todo.service.CategoryService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.metrics.scrape-token=" + MetricsIntegrationTest.SCRAPE_TOKEN)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsIntegrationTest {
+
+    static final String SCRAPE_TOKEN = "test-scrape-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    @DisplayName("Prometheus 形式でサービス Timer・例外数・Executor・Hikari・監査キューを出す")
+    @WithMockUser(username = "user", roles = "USER")
+    void prometheus_exposesApplicationMetrics() throws Exception {
+        categoryService.findAll();
+        mockMvc.perform(get("/api/todos/{id}", 99_999_999L)).andExpect(status().isNotFound());
+
+        String body = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + SCRAPE_TOKEN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body)
+                .contains("todo_service_seconds_bucket{")
+                .containsPattern("todo_service_seconds_count\\{[^}]*class=\"CategoryService\"[^}]*method=\"findAll\"[^}]*outcome=\"success\"")
+                .containsPattern("todo_exceptions_total\\{[^}]*exception=\"TodoNotFoundException\"")
+                .containsPattern("executor_queued_tasks\\{[^}]*name=\"emailExecutor\"")
+                .containsPattern("executor_queued_tasks\\{[^}]*name=\"taskExecutor\"")
+                .contains("hikaricp_connections_active")
+                .contains("audit_writer_queue_depth");
+    }
+
+    @Test
+    @DisplayName("Prometheus はトークンなしの一般ユーザーや誤ったトークンには読ませない")
+    @WithMockUser(username = "user", roles = "USER")
+    void prometheus_requiresAdminOrScrapeToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer wrong"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Prometheus 以外の actuator は ADMIN のみ")
+    @WithMockUser(username = "user", roles = "USER")
+    void otherEndpoints_requireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+}
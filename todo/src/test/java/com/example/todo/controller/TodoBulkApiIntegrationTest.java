@@ -0,0 +1,182 @@
+package com.example.todo.controller;
+
+import com.example.todo.entity.AuditLog;
+import com.example.todo.entity.Category;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import com.example.todo.enums.Priority;
+import com.example.todo.repository.AuditLogRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.service.CategoryService;
+import com.example.todo.service.TodoService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class TodoBulkApiIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        user = todoService.loadUser("user");
+        other = todoService.loadUser("user2");
+    }
+
+    @Test
+    @DisplayName("複数の操作を自分の ToDo だけにまとめて適用し、操作ごとの件数を返す")
+    @WithMockUser(username = "user", roles = "USER")
+    void bulk_appliesMixedOperations_toOwnTodosOnly() throws Exception {
+        List<Long> own = createAndGetIds(3, user);
+        List<Long> foreign = createAndGetIds(2, other);
+        Category category = categoryService.findAll().get(0);
+        List<Long> ids = new ArrayList<>(own);
+        ids.addAll(foreign);
+
+        mockMvc.perform(post("/api/todos/bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + ids + ",\"operations\":["
+                                + "{\"type\":\"COMPLETE\"},"
+                                + "{\"type\":\"SET_PRIORITY\",\"priority\":\"HIGH\"},"
+                                + "{\"type\":\"SET_CATEGORY\",\"categoryId\":" + category.getId() + "}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.matched").value(3))
+                .andExpect(jsonPath("$.data.results[0].type").value("COMPLETE"))
+                .andExpect(jsonPath("$.data.results[0].affected").value(3))
+                .andExpect(jsonPath("$.data.results[1].affected").value(3))
+                .andExpect(jsonPath("$.data.results[2].affected").value(3));
+
+        for (Todo todo : todoRepository.findByIdIn(own, Sort.unsorted())) {
+            assertThat(todo.getCompleted()).isTrue();
+            assertThat(todo.getPriority()).isEqualTo(Priority.HIGH);
+            assertThat(todo.getPriorityRank()).isEqualTo(Priority.HIGH.getRank());
+            assertThat(todo.getCategory().getId()).isEqualTo(category.getId());
+        }
+        assertThat(todoRepository.findByIdIn(foreign, Sort.unsorted()))
+                .allSatisfy(todo -> assertThat(todo.getCompleted()).isFalse());
+    }
+
+    @Test
+    @DisplayName("フィルタ指定の一括削除は件数によらず SQL 回数が一定")
+    @WithMockUser(username = "user", roles = "USER")
+    void bulkDelete_byFilter_isSetBased() throws Exception {
+        Category category = categoryService.findAll().get(1);
+        createAndGetIds(40, user);
+        long targets = todoRepository.countFiltered(user.getId(), null, category.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            mockMvc.perform(post("/api/todos/bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"categoryId\":" + category.getId()
+                                    + ",\"operations\":[{\"type\":\"UNCOMPLETE\"},{\"type\":\"DELETE\"}]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.matched").value(targets))
+                    .andExpect(jsonPath("$.data.results[1].affected").value(targets));
+            // 対象解決 1 + UPDATE 1 + DELETE 1 + 監査ログ（採番 + バッチ INSERT）× 2
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertThat(todoRepository.countFiltered(user.getId(), null, category.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("監査ログは操作と同じトランザクションで、実際に変更した ToDo の分だけ書く")
+    @WithMockUser(username = "user", roles = "USER")
+    void bulk_auditsAffectedTodosOnly() throws Exception {
+        List<Long> own = createAndGetIds(2, user);
+        List<Long> foreign = createAndGetIds(1, other);
+        List<Long> ids = new ArrayList<>(own);
+        ids.addAll(foreign);
+
+        // 削除の後の COMPLETE は 0 件なので監査ログも書かない
+        mockMvc.perform(post("/api/todos/bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + ids + ",\"operations\":[{\"type\":\"DELETE\"},{\"type\":\"COMPLETE\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results[1].affected").value(0));
+
+        // テストのトランザクションの中で見えている（別トランザクションで先にコミットされてはいない）
+        List<AuditLog> logs = auditLogRepository.findAll().stream()
+                .filter(log -> ids.contains(log.getTodoId()) && log.getAction().startsWith("BULK_"))
+                .toList();
+        assertThat(logs).extracting(AuditLog::getTodoId).containsExactlyInAnyOrderElementsOf(own);
+        assertThat(logs).extracting(AuditLog::getAction).containsOnly("BULK_DELETE");
+    }
+
+    @Test
+    @DisplayName("ids とフィルタを同時に指定すると 400")
+    @WithMockUser(username = "user", roles = "USER")
+    void bulk_rejectsIdsAndFilterTogether() throws Exception {
+        mockMvc.perform(post("/api/todos/bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"categoryId\":1,\"operations\":[{\"type\":\"DELETE\"}]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Bearer トークンのないセッション認証の更新は CSRF トークンがなければ 403")
+    @WithMockUser(username = "user", roles = "USER")
+    void bulk_withSessionAuth_requiresCsrfToken() throws Exception {
+        List<Long> own = createAndGetIds(1, user);
+
+        mockMvc.perform(post("/api/todos/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + own + ",\"operations\":[{\"type\":\"DELETE\"}]}"))
+                .andExpect(status().isForbidden());
+
+        assertThat(todoRepository.findByIdIn(own, Sort.unsorted())).hasSize(1);
+    }
+
+    private List<Long> createAndGetIds(int count, User owner) {
+        todoService.createSamples(count, owner);
+        entityManager.clear();
+        return todoRepository.findByUser(owner, Sort.by(Sort.Direction.DESC, "id")).stream()
+                .limit(count).map(Todo::getId).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,11 @@
 package com.example.todo.controller;
 
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.dto.TodoForm;
+import com.example.todo.entity.User;
+import com.example.todo.enums.Priority;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.service.TodoService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,8 +13,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
 
+import static com.example.todo.support.SqlStatsMatchers.repeatAtMost;
+import static com.example.todo.support.SqlStatsMatchers.statementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -21,6 +36,25 @@ class TodoControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    @DisplayName("ダッシュボードは件数カウンタを読むだけで SQL を発行しない")
+    @WithMockUser(username = "user", roles = "USER")
+    void dashboard_runsNoQueries() throws Exception {
+        // 1回目でユーザーとカウンタの値がキャッシュに載る
+        mockMvc.perform(get("/dashboard")).andExpect(status().isOk());
+        mockMvc.perform(get("/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(0))
+                .andExpect(jsonPath("$.total").isNumber())
+                .andExpect(jsonPath("$.byPriority.HIGH").isNumber());
+    }
+
     @Test
     @DisplayName("未ログインの場合は /todos がログインへリダイレクトされる")
     void list_requires_login() throws Exception {
@@ -37,7 +71,56 @@ class TodoControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("todo/list"))
                 .andExpect(model().attributeExists("todos"))
-                .andExpect(model().attributeExists("categories"));
+                .andExpect(model().attributeExists("categories"))
+                .andExpect(statementsAtMost(8))
+                .andExpect(repeatAtMost(1));
+    }
+
+    @Test
+    @DisplayName("カーソル方式では todoSlice が渡され todoPage は渡されない")
+    @WithMockUser(username = "user", roles = "USER")
+    void list_cursor_mode_ok() throws Exception {
+        mockMvc.perform(get("/todos").param("paging", "cursor").param("sort", "priority"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("todo/list"))
+                .andExpect(model().attributeExists("todoSlice"))
+                .andExpect(model().attributeDoesNotExist("todoPage"))
+                .andExpect(statementsAtMost(8))
+                .andExpect(repeatAtMost(1));
+    }
+
+    @Test
+    @DisplayName("カーソル方式の総件数は withTotal=true のときだけ数える")
+    @WithMockUser(username = "user", roles = "USER")
+    @Transactional
+    void list_cursor_countsTotalOnlyOnRequest() throws Exception {
+        todoService.createSamples(3, todoService.loadUser("user"));
+
+        CursorSlice<?> plain = (CursorSlice<?>) mockMvc.perform(get("/todos").param("paging", "cursor"))
+                .andExpect(status().isOk())
+                .andReturn().getModelAndView().getModel().get("todoSlice");
+        assertThat(plain.getApproximateTotal()).isNull();
+
+        CursorSlice<?> counted = (CursorSlice<?>) mockMvc.perform(get("/todos").param("paging", "cursor")
+                        .param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getModelAndView().getModel().get("todoSlice");
+        assertThat(counted.getApproximateTotal()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("CSVエクスポートはヘッダ付きで出力される")
+    @WithMockUser(username = "user", roles = "USER")
+    @Transactional
+    void export_csv_ok() throws Exception {
+        todoService.createSamples(3, todoService.loadUser("user"));
+
+        String body = mockMvc.perform(get("/todos/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string(org.hamcrest.Matchers.startsWith("\ufeffID,タイトル")))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.split("\n")).hasSize(4);
     }
 
     @Test
@@ -47,4 +130,47 @@ class TodoControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("login"));
     }
+
+    @Test
+    @DisplayName("一般ユーザーも一括削除でき、他ユーザーの ToDo は削除されない")
+    @WithMockUser(username = "user", roles = "USER")
+    @Transactional
+    void bulkDelete_byUser_deletesOwnTodosOnly() throws Exception {
+        User user = todoService.loadUser("user");
+        User other = todoService.loadUser("user2");
+        Long own = todoService.create(new TodoForm("自分の", null, Priority.LOW, 1L, null), user).getId();
+        Long foreign = todoService.create(new TodoForm("他人の", null, Priority.LOW, 1L, null), other).getId();
+
+        mockMvc.perform(post("/todos/bulk-delete").with(csrf())
+                        .param("ids", own.toString(), foreign.toString()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("message", "1件を削除しました"));
+
+        assertThat(todoRepository.existsById(own)).isFalse();
+        assertThat(todoRepository.existsById(foreign)).isTrue();
+    }
+
+    @Test
+    @DisplayName("監査ログ画面は絞り込み条件付きで表示でき、不正なカーソルはエラー画面")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void auditLogs_page_ok() throws Exception {
+        mockMvc.perform(get("/admin/audit-logs")
+                        .param("action", "create").param("from", "2020-01-01").param("archive", "true"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin/audit-logs"))
+                .andExpect(model().attributeExists("logs", "query"));
+
+        mockMvc.perform(get("/admin/audit-logs").param("cursor", "broken"))
+                .andExpect(view().name("error/business"))
+                .andExpect(model().attribute("errorCode", "E400"));
+    }
+
+    @Test
+    @DisplayName("管理 API は一般ユーザーに 403 を JSON で返す")
+    @WithMockUser(username = "user", roles = "USER")
+    void adminApi_forbiddenForUsers_asJson() throws Exception {
+        mockMvc.perform(get("/admin/caches"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("FORBIDDEN"));
+    }
 }
@@ -0,0 +1,158 @@
+package com.example.todo.controller;
+
+import com.example.todo.entity.User;
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.service.ReminderService;
+import com.example.todo.service.TodoService;
+import com.example.todo.trace.SqlStats;
+import com.example.todo.trace.SqlStatsFilter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 一覧系の SQL 発行回数が件数に比例しない（N+1 になっていない）ことを確認する
+ * 件数を増やしても発行回数が増えないことと、上限を超えないことを見る
+ * 回数は SqlStats（MockMvc なら X-Sql-Statements ヘッダ）で数えるので、他スレッドの SQL は混ざらない
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class TodoQueryCountIntegrationTest {
+
+    // createSamples は i % 11 == 6 の行が「明日期限」になるので、FEW でも1件は含まれる
+    private static final int FEW = 12;
+    private static final int MANY = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = todoService.loadUser("user");
+    }
+
+    @Test
+    @DisplayName("一覧ページ（オフセット方式）の SQL 回数は件数によらない")
+    @WithMockUser(username = "user", roles = "USER")
+    void listPage_noNPlusOne() throws Exception {
+        assertConstant(() -> statements(mockMvc.perform(get("/todos").param("size", "100"))
+                .andExpect(status().isOk()).andReturn()), 8);
+    }
+
+    @Test
+    @DisplayName("一覧ページ（カーソル方式）の SQL 回数は件数によらない")
+    @WithMockUser(username = "user", roles = "USER")
+    void listPageCursor_noNPlusOne() throws Exception {
+        assertConstant(() -> statements(mockMvc.perform(get("/todos").param("paging", "cursor").param("size", "100"))
+                .andExpect(status().isOk()).andReturn()), 8);
+    }
+
+    @Test
+    @DisplayName("REST API 一覧の SQL 回数は件数によらない")
+    @WithMockUser(username = "user", roles = "USER")
+    void apiList_noNPlusOne() throws Exception {
+        assertConstant(() -> statements(mockMvc.perform(get("/api/todos")).andExpect(status().isOk()).andReturn()), 4);
+    }
+
+    @Test
+    @DisplayName("CSV エクスポートの SQL 回数は件数によらない")
+    @WithMockUser(username = "user", roles = "USER")
+    void export_noNPlusOne() throws Exception {
+        assertConstant(() -> statements(mockMvc.perform(get("/todos/export")).andExpect(status().isOk()).andReturn()), 4);
+    }
+
+    @Test
+    @DisplayName("リマインダー（ユーザー別のまとめ）の SQL 回数は件数によらない")
+    void reminder_noNPlusOne() throws Exception {
+        assertConstant(() -> {
+            SqlStats stats = SqlStats.begin();
+            try {
+                reminderService.scanDigests(LocalDate.now().plusDays(1), 0, (digests, lastUserId) -> true);
+                return stats.getStatements();
+            } finally {
+                SqlStats.end();
+            }
+        }, 2);
+    }
+
+    @Test
+    @DisplayName("一覧・API・エクスポートは DTO で取得し、管理エンティティを作らない")
+    void listPaths_doNotHydrateEntities() {
+        todoService.createSamples(FEW, user);
+        entityManager.flush();
+        entityManager.clear();
+        Session session = entityManager.unwrap(Session.class);
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        assertThat(todoService.findPage(user, null, null, PageRequest.of(0, 10, sort), false)).isNotEmpty();
+        assertThat(todoService.findAll(user, null, null, sort, false)).isNotEmpty();
+        assertThat(todoService.findSlice(user, null, null, TodoSortKey.CREATED_AT, Sort.Direction.DESC,
+                null, false, 10, false).getContent()).isNotEmpty();
+        assertThat(todoService.forEachForExport(user, null, null, sort, false, 5, row -> { })).isPositive();
+
+        assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    private void assertConstant(StatementCounter action, long maxStatements) throws Exception {
+        todoService.createSamples(FEW, user);
+        long few = count(action);
+        assertThat(few).as("SQL が数えられていない").isPositive();
+
+        todoService.createSamples(MANY, user);
+        long many = count(action);
+
+        // 2回目は件数キャッシュ等で減ることはあっても増えてはいけない
+        assertThat(many).as("件数を増やすと SQL 回数が増える（N+1）").isLessThanOrEqualTo(few);
+        assertThat(many).isLessThanOrEqualTo(maxStatements);
+    }
+
+    private long count(StatementCounter action) throws Exception {
+        // 1次キャッシュに載ったエンティティで N+1 が隠れないようにする
+        entityManager.flush();
+        entityManager.clear();
+        return action.run();
+    }
+
+    private static int statements(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlStatsFilter.HEADER_STATEMENTS);
+        assertThat(header).as("X-Sql-Statements (is app.sql-stats.enabled on?)").isNotNull();
+        return Integer.parseInt(header);
+    }
+
+    /**
+     * 計測対象を1回実行し、発行した SQL の回数を返す
+     */
+    @FunctionalInterface
+    private interface StatementCounter {
+        int run() throws Exception;
+    }
+}
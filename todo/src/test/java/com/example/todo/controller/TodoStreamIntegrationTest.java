@@ -0,0 +1,180 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.TodoForm;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.TodoEventLog;
+import com.example.todo.entity.User;
+import com.example.todo.enums.Priority;
+import com.example.todo.enums.TodoEventType;
+import com.example.todo.repository.TodoEventLogRepository;
+import com.example.todo.service.CategoryService;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.UserService;
+import com.example.todo.stream.TodoEventHub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 変更通知はコミット後に配られるので、このテストはロールバックしない（ユーザーはテストごとに作る）
+ * 接続は閉じずに残るため、同時接続数の上限に触れないようテストごとに別ユーザーにしている
+ * 応答は streamExecutor のスレッドが書き続けるので、MockMvc の結果出力（ヘッダを読む）は止める
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class TodoStreamIntegrationTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TodoEventHub eventHub;
+
+    @Autowired
+    private TodoEventLogRepository eventLogRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("stream-" + UUID.randomUUID().toString().substring(0, 8));
+        owner.setPassword("x");
+        owner.setRole("USER");
+        owner = userService.save(owner);
+    }
+
+    @Test
+    @DisplayName("接続直後に件数が届き、コミットされた変更が todo イベントとして流れる")
+    void stream_deliversStatsAndChanges() throws Exception {
+        MockHttpServletResponse response = connect(null).getResponse();
+        awaitContent(response, "event:stats");
+
+        Todo todo = create("stream");
+        awaitContent(response, "\"type\":\"CREATED\"");
+        todoService.toggleCompleted(todo.getId(), owner, false);
+        awaitContent(response, "\"type\":\"UPDATED\"");
+
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        // セキュリティヘッダは接続時（リクエストのスレッド）に書かれている
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getContentAsString()).contains("\"todoIds\":[" + todo.getId() + "]")
+                .contains("\"completed\":1");
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID を付けて再接続すると、その後のイベントだけが再送される")
+    void reconnect_replaysMissedEvents() throws Exception {
+        MockHttpServletResponse first = connect(null).getResponse();
+        Todo seen = create("seen");
+        awaitContent(first, "\"todoIds\":[" + seen.getId() + "]");
+        String lastId = lastEventId(first.getContentAsString());
+
+        Todo missed = create("missed");
+        MockHttpServletResponse second = connect(lastId).getResponse();
+        awaitContent(second, "event:stats");
+
+        assertThat(second.getContentAsString())
+                .contains("\"todoIds\":[" + missed.getId() + "]")
+                .doesNotContain("\"todoIds\":[" + seen.getId() + "]")
+                .doesNotContain("event:reset");
+    }
+
+    @Test
+    @DisplayName("他のノードが todo_event_log に書いたイベントも、ポーリングで読んでこのノードの接続へ配る（1回だけ）")
+    void poll_deliversEventsWrittenByOtherNodes() throws Exception {
+        MockHttpServletResponse response = connect(null).getResponse();
+        awaitContent(response, "event:stats");
+
+        // 他のノードでの更新の代わりに、行だけを直接書く
+        TodoEventLog other = eventLogRepository.save(
+                new TodoEventLog(null, owner.getId(), TodoEventType.UPDATED, "901,902", null));
+        eventHub.poll();
+        awaitContent(response, "id:" + other.getId());
+        eventHub.poll();
+
+        assertThat(response.getContentAsString()).contains("\"todoIds\":[901,902]");
+        assertThat(response.getContentAsString().split("id:" + other.getId() + "\n", -1)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("再送ログで追えない Last-Event-ID には reset を返す")
+    void reconnect_withUnknownId_sendsReset() throws Exception {
+        MockHttpServletResponse response = connect("1").getResponse();
+        awaitContent(response, "event:stats");
+        assertThat(response.getContentAsString()).contains("event:reset");
+    }
+
+    @Test
+    @DisplayName("1ユーザーの同時接続数の上限を超えると 429")
+    void connect_overLimit_isRejected() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            connect(null);
+        }
+        mockMvc.perform(get("/api/todos/stream").accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(user(owner.getUsername()).roles("USER")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private MvcResult connect(String lastEventId) throws Exception {
+        var builder = get("/api/todos/stream").accept(MediaType.TEXT_EVENT_STREAM)
+                .with(user(owner.getUsername()).roles("USER"));
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private Todo create(String title) {
+        return todoService.create(new TodoForm(title, null, Priority.MEDIUM,
+                categoryService.findAll().get(0).getId(), LocalDate.now()), owner);
+    }
+
+    // 書き込みは streamExecutor 上で行われるので、届くまで待つ
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(response.getContentAsString()).contains(expected);
+    }
+
+    private static String lastEventId(String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        String id = null;
+        while (matcher.find()) {
+            id = matcher.group(1);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.todo.deadline;
+
+import com.example.todo.dto.TodoStatsRow;
+import com.example.todo.enums.ReminderMode;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.ReminderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * DB とメール送信はモックにし、いつ何を ReminderService.sendNow に渡すかだけを見る
+ * 時刻は tick(now) に渡すので待たない（ずらし幅 jitter は 0 にして通知時刻を固定する）
+ */
+@ExtendWith(MockitoExtension.class)
+class DeadlineWheelTest {
+
+    private static final Duration DEFAULT_OFFSET = Duration.ofHours(15);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ReminderService reminderService;
+
+    private DeadlineWheel wheel;
+    private LocalDate due;
+    private long fireAt;
+
+    @BeforeEach
+    void setUp() {
+        wheel = newWheel(20);
+        due = LocalDate.now().plusDays(3);
+        fireAt = fireAt(due, DEFAULT_OFFSET);
+    }
+
+    @Test
+    @DisplayName("期限日の 0 時からオフセット分前に、その ToDo を sendNow に渡す")
+    void firesAtDueDateMinusOffset() {
+        wheel.scheduleAfterCommit(List.of(row(10L, 1L, false, due)));
+        assertThat(wheel.scheduledAt(10L)).isEqualTo(fireAt);
+
+        wheel.tick(fireAt - 1000);
+        verifyNoInteractions(reminderService);
+
+        wheel.tick(fireAt);
+        verify(reminderService).sendNow(List.of(10L));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("完了・削除・期限なしにしたものは外し、期限日を変えたものは付け替える")
+    void completedOrDeleted_areCancelled_andMovedDueDate_isRescheduled() {
+        wheel.scheduleAfterCommit(List.of(row(10L, 1L, false, due), row(11L, 1L, false, due),
+                row(12L, 1L, false, due), row(13L, 1L, false, due)));
+
+        wheel.scheduleAfterCommit(List.of(row(10L, 1L, true, due), row(11L, 1L, false, null),
+                row(13L, 1L, false, due.plusDays(1))));
+        wheel.cancelAfterCommit(List.of(row(12L, 1L, false, due)));
+
+        assertThat(wheel.scheduledAt(10L)).isEqualTo(-1);
+        assertThat(wheel.scheduledAt(11L)).isEqualTo(-1);
+        assertThat(wheel.scheduledAt(12L)).isEqualTo(-1);
+        assertThat(wheel.scheduledAt(13L)).isEqualTo(fireAt(due.plusDays(1), DEFAULT_OFFSET));
+    }
+
+    @Test
+    @DisplayName("同時に発火しても1秒あたり rate ユーザー分までしか送らず、残りは次の tick に回す")
+    void dispatch_isRateLimited() {
+        wheel = newWheel(1);
+        wheel.scheduleAfterCommit(List.of(row(10L, 1L, false, due), row(11L, 1L, false, due),
+                row(20L, 2L, false, due), row(30L, 3L, false, due)));
+
+        wheel.tick(fireAt);
+        verify(reminderService, times(1)).sendNow(any());
+        wheel.tick(fireAt + 1000);
+        verify(reminderService, times(2)).sendNow(any());
+        wheel.tick(fireAt + 2000);
+        verify(reminderService, times(3)).sendNow(any());
+        // 同じユーザーの ToDo は1回にまとめて渡す
+        verify(reminderService).sendNow(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(10L, 11L))));
+    }
+
+    @Test
+    @DisplayName("起動時に、停止中に通知時刻を過ぎた未送信の期限も載せ、すぐ送る")
+    void load_includesDeadlinesWhoseTimePassedWhileStopped() {
+        // 通知を3日前に設定したユーザーは、2日後が期限の ToDo の通知時刻をもう過ぎている
+        when(userRepository.findReminderOffsets()).thenReturn(List.<Object[]>of(new Object[]{1L, 3 * 24 * 60}));
+        when(todoRepository.findDeadlineRows(any(), anyLong(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 1L, LocalDate.now().plusDays(2)}));
+
+        assertThat(wheel.load()).isEqualTo(1);
+
+        assertThat(wheel.scheduledAt(10L)).isPositive().isLessThanOrEqualTo(System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    @DisplayName("他のノードでの変更（updatedAt が進んだ ToDo・通知オフセット）を取り込む")
+    void pollChanges_appliesChangesMadeOnOtherNodes() {
+        when(userRepository.findReminderOffsets()).thenReturn(List.of());
+        when(todoRepository.findDeadlineRows(any(), anyLong(), any())).thenReturn(List.of());
+        wheel.load();
+        wheel.scheduleAfterCommit(List.of(row(11L, 1L, false, due)));
+
+        LocalDateTime now = LocalDateTime.now();
+        when(todoRepository.findDeadlineChanges(any(), anyLong(), any())).thenReturn(List.of(
+                new Object[]{10L, 2L, due, false, now},
+                new Object[]{11L, 1L, due, true, now}));
+        when(userRepository.findReminderOffsets()).thenReturn(List.<Object[]>of(new Object[]{3L, 60}));
+        when(todoRepository.findDeadlineRowsByUserId(3L, LocalDate.now().plusDays(1)))
+                .thenReturn(List.<Object[]>of(new Object[]{30L, 3L, due}));
+
+        assertThat(wheel.pollChanges()).isEqualTo(3);
+
+        assertThat(wheel.scheduledAt(10L)).isEqualTo(fireAt);
+        assertThat(wheel.scheduledAt(11L)).isEqualTo(-1);
+        assertThat(wheel.scheduledAt(30L)).isEqualTo(fireAt(due, Duration.ofMinutes(60)));
+    }
+
+    private DeadlineWheel newWheel(int rate) {
+        return new DeadlineWheel(todoRepository, userRepository, reminderService, new SimpleMeterRegistry(),
+                ReminderMode.WHEEL, Duration.ofSeconds(1), DEFAULT_OFFSET, Duration.ZERO, rate, Duration.ofSeconds(30));
+    }
+
+    private static long fireAt(LocalDate dueDate, Duration offset) {
+        return dueDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() - offset.toMillis();
+    }
+
+    private static TodoStatsRow row(Long id, Long userId, boolean completed, LocalDate dueDate) {
+        return new TodoStatsRow(id, userId, completed, null, null, dueDate);
+    }
+}
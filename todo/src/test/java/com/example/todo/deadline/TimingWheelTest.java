@@ -0,0 +1,97 @@
+package com.example.todo.deadline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    @DisplayName("どの段に入ったエントリも登録した tick ちょうどに1回だけ発火する")
+    void entries_fireExactlyAtTheirTick() {
+        TimingWheel wheel = new TimingWheel(START, 16);
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            // 1段目〜4段目に散らす
+            long delay = 1 + (long) Math.pow(random.nextDouble(), 3) * (1L << 24);
+            wheel.schedule(id, id % 7, START + delay);
+            expected.put(id, START + delay);
+        }
+        // 遠すぎて最上段に収まらない分も、回ってきたときに振り直される
+        wheel.schedule(9999, 1, START + (1L << 40));
+
+        Map<Long, Long> fired = new HashMap<>();
+        long[] now = {START};
+        while (now[0] < START + (1L << 24) + 1) {
+            now[0] += 4096;
+            long upTo = now[0];
+            wheel.advance(upTo, (todoId, userId) -> {
+                assertThat(fired.put(todoId, upTo)).isNull();
+                assertThat(userId).isEqualTo(todoId % 7);
+            });
+        }
+        assertThat(fired).hasSize(expected.size());
+        fired.forEach((id, batchEnd) -> assertThat(expected.get(id)).isBetween(batchEnd - 4095, batchEnd));
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.expiryOf(9999)).isEqualTo(START + (1L << 40));
+    }
+
+    @Test
+    @DisplayName("取り消したエントリは発火せず、付け替えたエントリは新しい tick で発火する")
+    void cancelAndReschedule() {
+        TimingWheel wheel = new TimingWheel(START, 16);
+        wheel.schedule(1, 1, START + 100);
+        wheel.schedule(2, 1, START + 5000);
+        wheel.schedule(3, 1, START + 70);
+        assertThat(wheel.cancel(1)).isTrue();
+        assertThat(wheel.cancel(1)).isFalse();
+        wheel.schedule(2, 1, START + 80);
+
+        Map<Long, Long> fired = new HashMap<>();
+        for (long tick = START + 1; tick <= START + 6000; tick++) {
+            long at = tick;
+            wheel.advance(tick, (todoId, userId) -> fired.put(todoId, at));
+        }
+        assertThat(fired).containsOnly(Map.entry(3L, START + 70), Map.entry(2L, START + 80));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("処理済みの tick 以前を指定したら次の tick で発火する")
+    void pastExpiry_firesOnNextTick() {
+        TimingWheel wheel = new TimingWheel(START, 16);
+        wheel.advance(START + 10, (todoId, userId) -> { });
+        wheel.schedule(1, 1, START);
+        assertThat(wheel.expiryOf(1)).isEqualTo(START + 11);
+    }
+
+    @Test
+    @DisplayName("索引は追加・削除を繰り返しても HashMap と同じ内容を返す")
+    void index_matchesHashMap() {
+        LongIntMap map = new LongIntMap(4);
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(reference.getOrDefault(key, -1));
+                reference.remove(key);
+            } else {
+                map.put(key, i);
+                reference.put(key, i);
+            }
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (long key = 1; key <= 5000; key++) {
+            assertThat(map.get(key)).isEqualTo(reference.getOrDefault(key, -1));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.todo.export;
+
+import com.example.todo.dto.TodoDto;
+import com.example.todo.entity.Category;
+import com.example.todo.entity.Todo;
+import com.example.todo.enums.Priority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoCsvWriterTest {
+
+    @Test
+    @DisplayName("formatRow: 従来の String.format 版と同じ形式で出力する")
+    void formatRow_matchesLegacyFormat() {
+        Category category = new Category(3L, "仕事");
+        Todo todo = new Todo();
+        todo.setId(42L);
+        todo.setTitle("say \"hi\"");
+        todo.setDescription(null);
+        todo.setPriority(Priority.HIGH);
+        todo.setCompleted(true);
+        todo.setCategory(category);
+        todo.setDueDate(LocalDate.of(2026, 3, 7));
+        todo.setCreatedAt(LocalDateTime.of(2025, 12, 31, 23, 59));
+
+        StringBuilder out = new StringBuilder();
+        TodoCsvWriter.formatRow(TodoDto.from(todo), out);
+
+        assertThat(out.toString())
+                .isEqualTo("42,\"say \"\"hi\"\"\",\"\",\"高\",\"完了\",\"仕事\",\"2026/03/07\",\"2025/12/31\"\n");
+    }
+
+    @Test
+    @DisplayName("writeRow: 指定件数ごとに flush しつつ全行を書き出す")
+    void writeRow_writesAllRows() throws Exception {
+        StringWriter sink = new StringWriter();
+        TodoCsvWriter writer = new TodoCsvWriter(sink, 2);
+        writer.writeHeader();
+        for (long i = 1; i <= 5; i++) {
+            Todo todo = new Todo();
+            todo.setId(i);
+            todo.setTitle("t" + i);
+            writer.writeRow(TodoDto.from(todo));
+        }
+        writer.flush();
+
+        assertThat(writer.getRows()).isEqualTo(5);
+        assertThat(sink.toString().split("\n")).hasSize(6);
+        assertThat(sink.toString()).startsWith("﻿" + TodoCsvWriter.HEADER);
+    }
+}
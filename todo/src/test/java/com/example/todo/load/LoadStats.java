@@ -0,0 +1,67 @@
+package com.example.todo.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * エンドポイントごとのレイテンシと失敗数の集計
+ * 件数は数十万件程度なので、全サンプルを保持して終了時に並べ替えてパーセンタイルを出す
+ */
+class LoadStats {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean ok) {
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).add(nanos, ok);
+    }
+
+    Map<String, Summary> summarize(double seconds) {
+        Map<String, Summary> result = new LinkedHashMap<>();
+        endpoints.keySet().stream().sorted()
+                .forEach(name -> result.put(name, endpoints.get(name).summarize(seconds)));
+        return result;
+    }
+
+    record Summary(long requests, long errors, double throughput,
+                   double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private static final class Endpoint {
+
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return new Summary(count, errors, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.todo.load;
+
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.TodoAttachment;
+import com.example.todo.entity.User;
+import com.example.todo.enums.Priority;
+import com.example.todo.repository.TodoAttachmentRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP の負荷試験（mvn verify -Pload でだけ実行する）
+ * 空きポートで起動し、load.users 人分のユーザーと ToDo を投入してから、
+ * 一覧・API・ダッシュボード・CSV・添付のアップロード/ダウンロードを混ぜて load.duration の間呼び続ける
+ * エンドポイントごとのスループット・p50/p95/p99・エラー率を出力し、
+ * load-thresholds.properties の閾値を超えたら失敗させる
+ *
+ * 調整: -Dload.users=50 -Dload.duration=PT2M -Dload.todos-per-user=500 -Dload.seed=7
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN", "app.sql-stats.enabled=false"})
+class TodoLoadIT {
+
+    private static final String PASSWORD = "load-password";
+
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int TODOS_PER_USER = Integer.getInteger("load.todos-per-user", 200);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final long SEED = Long.getLong("load.seed", 42L);
+
+    @TempDir
+    static Path uploadDir;
+
+    @DynamicPropertySource
+    static void uploadProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", () -> uploadDir.toString());
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoAttachmentRepository attachmentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 処理の種類と重み（合計 100）
+     */
+    private enum Operation {
+        TODOS_PAGE("GET /todos", 25),
+        TODOS_PAGE_FILTERED("GET /todos?keyword", 5),
+        API_LIST("GET /api/todos", 25),
+        API_CREATE("POST /api/todos", 5),
+        DASHBOARD("GET /dashboard", 15),
+        EXPORT("GET /todos/export", 5),
+        UPLOAD("POST /todos/{id}/attach", 5),
+        DOWNLOAD("GET /todos/attachments/{id}/download", 15);
+
+        final String endpoint;
+        final int weight;
+
+        Operation(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+
+        static Operation pick(Random random) {
+            int n = random.nextInt(100);
+            for (Operation operation : values()) {
+                n -= operation.weight;
+                if (n < 0) {
+                    return operation;
+                }
+            }
+            return TODOS_PAGE;
+        }
+    }
+
+    @Test
+    @DisplayName("混合負荷でエンドポイントごとのレイテンシとエラー率が閾値内に収まる")
+    void mixedWorkload_staysWithinThresholds() throws Exception {
+        List<VirtualUser> users = seedUsers();
+
+        run(users, WARMUP, new LoadStats());
+        LoadStats stats = new LoadStats();
+        double seconds = run(users, DURATION, stats);
+
+        Map<String, LoadStats.Summary> summary = stats.summarize(seconds);
+        print(summary, seconds);
+        writeReport(summary, seconds);
+        assertThat(checkThresholds(summary, seconds)).as("load thresholds").isEmpty();
+    }
+
+    private List<VirtualUser> seedUsers() throws Exception {
+        String baseUrl = "http://localhost:" + port;
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            String username = String.format("load%03d", i);
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(passwordEncoder.encode(PASSWORD));
+            user.setRole("USER");
+            user = userService.save(user);
+            todoService.createSamples(TODOS_PER_USER, user);
+
+            VirtualUser virtualUser = new VirtualUser(baseUrl, username, PASSWORD, objectMapper);
+            virtualUser.login();
+            virtualUser.todoIds = todoRepository.findIdsFiltered(user.getId(), null, null, 50);
+            // ダウンロード対象を1件ずつ用意しておく
+            long todoId = virtualUser.todoIds.get(0);
+            HttpResponse<Void> upload = virtualUser.upload(todoId, "seed.txt",
+                    "seed attachment".getBytes(StandardCharsets.UTF_8));
+            assertThat(upload.statusCode()).isEqualTo(302);
+            virtualUser.attachmentIds = attachmentIds(todoId);
+            assertThat(virtualUser.attachmentIds).as("seeded attachment for %s", username).isNotEmpty();
+            users.add(virtualUser);
+        }
+        return users;
+    }
+
+    private List<Long> attachmentIds(long todoId) {
+        Todo todo = todoRepository.findById(todoId).orElseThrow();
+        return attachmentRepository.findByTodoOrderByUploadedAtDesc(todo).stream()
+                .map(TodoAttachment::getId).toList();
+    }
+
+    /**
+     * ユーザーごとに1スレッドで、締め切りまで処理を選んで呼び続ける
+     *
+     * @return 実測の経過秒数
+     */
+    private double run(List<VirtualUser> users, Duration duration, LoadStats stats) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                VirtualUser user = users.get(i);
+                Random random = new Random(SEED + i);
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = Operation.pick(random);
+                        long begin = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = call(user, operation, random);
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        stats.record(operation.endpoint, System.nanoTime() - begin, ok);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private boolean call(VirtualUser user, Operation operation, Random random) throws Exception {
+        return switch (operation) {
+            case TODOS_PAGE -> user.page("/todos?page=" + random.nextInt(5)).statusCode() == 200;
+            case TODOS_PAGE_FILTERED -> user.page("/todos?keyword=" + (random.nextInt(9) + 1)).statusCode() == 200;
+            case API_LIST -> user.api("/api/todos").statusCode() == 200;
+            case API_CREATE -> user.apiPost("/api/todos", Map.of(
+                    "title", "load " + random.nextInt(1_000_000),
+                    "priority", Priority.values()[random.nextInt(Priority.values().length)].name(),
+                    "categoryId", 1,
+                    "dueDate", LocalDate.now().plusDays(random.nextInt(30)).toString())).statusCode() == 201;
+            case DASHBOARD -> user.page("/dashboard").statusCode() == 200;
+            case EXPORT -> user.page("/todos/export").statusCode() == 200;
+            case UPLOAD -> {
+                long todoId = user.todoIds.get(random.nextInt(user.todoIds.size()));
+                byte[] content = new byte[1024 + random.nextInt(16 * 1024)];
+                random.nextBytes(content);
+                HttpResponse<Void> response = user.upload(todoId, "load.bin", content);
+                // 保存の成否にかかわらず詳細画面へリダイレクトされるので、ステータスと遷移先だけを見る
+                yield response.statusCode() == 302
+                        && response.headers().firstValue("Location").orElse("").endsWith("/todos/" + todoId);
+            }
+            case DOWNLOAD -> {
+                long attachmentId = user.attachmentIds.get(random.nextInt(user.attachmentIds.size()));
+                yield user.page("/todos/attachments/" + attachmentId + "/download").statusCode() == 200;
+            }
+        };
+    }
+
+    private static void print(Map<String, LoadStats.Summary> summary, double seconds) {
+        System.out.printf("%n[load] %d users, %.1fs%n", USERS, seconds);
+        System.out.printf("%-40s %8s %9s %8s %8s %8s %8s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        summary.forEach((endpoint, s) -> System.out.printf("%-40s %8d %9.1f %8.1f %8.1f %8.1f %8.1f %6.2f%%%n",
+                endpoint, s.requests(), s.throughput(), s.p50Millis(), s.p95Millis(), s.p99Millis(),
+                s.maxMillis(), s.errorRate() * 100));
+    }
+
+    private void writeReport(Map<String, LoadStats.Summary> summary, double seconds) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", USERS);
+        report.put("todosPerUser", TODOS_PER_USER);
+        report.put("seconds", seconds);
+        report.put("seed", SEED);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        summary.forEach((endpoint, s) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", s.requests());
+            row.put("errors", s.errors());
+            row.put("errorRate", s.errorRate());
+            row.put("throughput", s.throughput());
+            row.put("p50Millis", s.p50Millis());
+            row.put("p95Millis", s.p95Millis());
+            row.put("p99Millis", s.p99Millis());
+            row.put("maxMillis", s.maxMillis());
+            endpoints.put(endpoint, row);
+        });
+        report.put("endpoints", endpoints);
+        Path file = Paths.get("target", "load-report.json");
+        Files.createDirectories(file.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        System.out.println("[load] report: " + file.toAbsolutePath());
+    }
+
+    /**
+     * load-thresholds.properties（-D で個別に上書き可）と比べ、超えたものを返す
+     */
+    private static List<String> checkThresholds(Map<String, LoadStats.Summary> summary, double seconds)
+            throws Exception {
+        Properties thresholds = new Properties();
+        try (InputStream in = TodoLoadIT.class.getResourceAsStream("/load-thresholds.properties")) {
+            thresholds.load(in);
+        }
+        thresholds.putAll(System.getProperties());
+
+        List<String> violations = new ArrayList<>();
+        long total = summary.values().stream().mapToLong(LoadStats.Summary::requests).sum();
+        double minThroughput = Double.parseDouble(thresholds.getProperty("load.threshold.min-throughput", "0"));
+        if (total / seconds < minThroughput) {
+            violations.add(String.format("total throughput %.1f req/s < %.1f", total / seconds, minThroughput));
+        }
+        for (Operation operation : Operation.values()) {
+            LoadStats.Summary s = summary.get(operation.endpoint);
+            if (s == null) {
+                continue;
+            }
+            String prefix = "load.threshold." + operation.name().toLowerCase().replace('_', '-') + ".";
+            double p95 = Double.parseDouble(thresholds.getProperty(prefix + "p95-ms",
+                    thresholds.getProperty("load.threshold.default.p95-ms")));
+            double p99 = Double.parseDouble(thresholds.getProperty(prefix + "p99-ms",
+                    thresholds.getProperty("load.threshold.default.p99-ms")));
+            double errorRate = Double.parseDouble(thresholds.getProperty(prefix + "error-rate",
+                    thresholds.getProperty("load.threshold.default.error-rate")));
+            if (s.p95Millis() > p95) {
+                violations.add(String.format("%s p95 %.1fms > %.1fms", operation.endpoint, s.p95Millis(), p95));
+            }
+            if (s.p99Millis() > p99) {
+                violations.add(String.format("%s p99 %.1fms > %.1fms", operation.endpoint, s.p99Millis(), p99));
+            }
+            if (s.errorRate() > errorRate) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%",
+                        operation.endpoint, s.errorRate() * 100, errorRate * 100));
+            }
+        }
+        return violations;
+    }
+}
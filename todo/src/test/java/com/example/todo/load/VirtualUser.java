@@ -0,0 +1,134 @@
+package com.example.todo.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 1ユーザー分の HTTP クライアント
+ * 画面はフォームログインのセッション（+ CSRF トークン）、API は Bearer トークンで呼ぶ
+ */
+class VirtualUser {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private String csrf;
+    private String accessToken;
+
+    List<Long> todoIds = List.of();
+    List<Long> attachmentIds = List.of();
+
+    VirtualUser(String baseUrl, String username, String password, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    void login() throws IOException, InterruptedException {
+        String loginPage = send(get("/login"), HttpResponse.BodyHandlers.ofString()).body();
+        String form = "username=" + encode(username) + "&password=" + encode(password)
+                + "&_csrf=" + encode(csrf(loginPage));
+        HttpResponse<Void> response = send(HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 302 || response.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("form login failed for " + username);
+        }
+        // ログインでトークンが作り直されるので、ログイン後の画面から取り直す
+        csrf = csrf(send(get("/todos/new"), HttpResponse.BodyHandlers.ofString()).body());
+
+        String body = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        Map.of("username", username, "password", password))))
+                .build(), HttpResponse.BodyHandlers.ofString()).body();
+        accessToken = objectMapper.readTree(body).path("data").path("accessToken").asText();
+    }
+
+    HttpResponse<Void> page(String path) throws IOException, InterruptedException {
+        return send(get(path), HttpResponse.BodyHandlers.discarding());
+    }
+
+    HttpResponse<Void> api(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + accessToken).build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    HttpResponse<Void> apiPost(String path, Object json) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(json))).build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * multipart/form-data で添付をアップロードする（成功・失敗とも画面へリダイレクトされる）
+     */
+    HttpResponse<Void> upload(long todoId, String filename, byte[] content) throws IOException, InterruptedException {
+        String boundary = "----load" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return send(HttpRequest.newBuilder(uri("/todos/" + todoId + "/attach"))
+                .header("X-CSRF-TOKEN", csrf)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())).build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return client.send(request, handler);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String csrf(String page) {
+        Matcher matcher = CSRF.matcher(page);
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRF token not found");
+        }
+        return matcher.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
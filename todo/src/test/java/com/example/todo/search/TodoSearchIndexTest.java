@@ -0,0 +1,78 @@
+package com.example.todo.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoSearchIndexTest {
+
+    @Test
+    @DisplayName("search: 説明文も対象になり、タイトル一致が上位に来る")
+    void search_ranksTitleMatchesFirst() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put(1L, 10L, 1L, "買い物", "会議資料を印刷する");
+        index.put(2L, 10L, 1L, "会議の準備", null);
+        index.put(3L, 10L, 1L, "掃除", "部屋");
+
+        assertThat(index.search("会議", null, null)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("search: bi-gram が揃っていても語順が違えば一致しない")
+    void search_verifiesPhrase() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put(1L, 10L, 1L, "京都と東京", null);
+        index.put(2L, 10L, 1L, "東京都庁", null);
+
+        assertThat(index.search("東京都", null, null)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("search: 1文字・全角半角・ユーザー/カテゴリ絞り込み")
+    void search_filtersAndNormalizes() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put(1L, 10L, 1L, "ＡＢＣレポート", null);
+        index.put(2L, 20L, 1L, "abc report", null);
+        index.put(3L, 10L, 2L, "abc memo", null);
+
+        assertThat(index.search("abc", 10L, null)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("ABC", null, 1L)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("レ", null, null)).containsExactly(1L);
+        assertThat(index.search("abc memo", null, null)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("remove / 再構築: 削除と再構築中の更新が反映される")
+    void removeAndRebuild() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put(1L, 10L, 1L, "古いタイトル", null);
+        index.remove(1L);
+        assertThat(index.search("タイトル", null, null)).isEmpty();
+
+        index.beginRebuild();
+        index.put(2L, 10L, 1L, "新しいタイトル", null);
+        // DB から読んだ古い値は、再構築中に更新された id を上書きしない
+        index.load(2L, 10L, 1L, "古い値", null);
+        index.load(3L, 10L, 1L, "別のタイトル", null);
+        assertThat(index.finishRebuild()).isEqualTo(2);
+        assertThat(index.search("タイトル", null, null)).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("search: limit を渡すと関連度の高い順に limit 件まで返し、再構築を終えるまで ready にならない")
+    void search_limit_andReady() {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put(1L, 10L, 1L, "メモ", "会議");
+        index.put(2L, 10L, 1L, "会議", null);
+        index.put(3L, 10L, 1L, "会議 会議", null);
+        assertThat(index.search("会議", null, null, 2)).containsExactly(3L, 2L);
+        assertThat(index.isReady()).isFalse();
+
+        index.beginRebuild();
+        assertThat(index.isRebuilding()).isTrue();
+        index.finishRebuild();
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.isRebuilding()).isFalse();
+    }
+}
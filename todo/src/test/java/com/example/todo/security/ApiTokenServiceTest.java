@@ -0,0 +1,87 @@
+package com.example.todo.security;
+
+import com.example.todo.exception.BusinessException;
+import com.example.todo.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApiTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private ApiTokenService service(String secret, Instant now) {
+        return new ApiTokenService(null, null, secret, Duration.ofMinutes(15), Duration.ofDays(7), false,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("発行したアクセストークンは同じ鍵で検証できる")
+    void issue_thenVerify() {
+        ApiTokenService service = service("secret", NOW);
+        String token = service.issue("user", "USER", ApiTokenService.Type.ACCESS);
+
+        ApiTokenService.Claims claims = service.verify(token, ApiTokenService.Type.ACCESS);
+        assertThat(claims).isNotNull();
+        assertThat(claims.getUsername()).isEqualTo("user");
+        assertThat(claims.getRole()).isEqualTo("USER");
+    }
+
+    @Test
+    @DisplayName("改ざん・別の鍵・種別違い・期限切れは拒否する")
+    void verify_rejectsInvalidTokens() {
+        ApiTokenService service = service("secret", NOW);
+        String token = service.issue("user", "USER", ApiTokenService.Type.ACCESS);
+        String forged = service.issue("admin", "ADMIN", ApiTokenService.Type.ACCESS);
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThat(service.verify(tampered, ApiTokenService.Type.ACCESS)).isNull();
+        assertThat(service("other", NOW).verify(token, ApiTokenService.Type.ACCESS)).isNull();
+        assertThat(service.verify(token, ApiTokenService.Type.REFRESH)).isNull();
+        assertThat(service("secret", NOW.plus(Duration.ofMinutes(15))).verify(token, ApiTokenService.Type.ACCESS)).isNull();
+        assertThat(service.verify("not-a-token", ApiTokenService.Type.ACCESS)).isNull();
+    }
+
+    @Test
+    @DisplayName("鍵が未設定なら allow-random-secret のときだけ起動ごとの鍵で動き、それ以外は起動時に失敗する")
+    void blankSecret_failsFastUnlessRandomAllowed() {
+        assertThatThrownBy(() -> service(" ", NOW))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.api.token.secret");
+
+        ApiTokenService random = new ApiTokenService(null, null, "", Duration.ofMinutes(15), Duration.ofDays(7), true,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = random.issue("user", "USER", ApiTokenService.Type.ACCESS);
+        assertThat(random.verify(token, ApiTokenService.Type.ACCESS)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーでもダミーのハッシュと照合してから 401 にする（応答時間でユーザー名の有無がわからない）")
+    void login_unknownUser_stillRunsPasswordCheck() {
+        UserService userService = mock(UserService.class);
+        when(userService.findByUsername("nobody")).thenReturn(Optional.empty());
+        PasswordEncoder encoder = spy(new BCryptPasswordEncoder(4));
+        ApiTokenService service = new ApiTokenService(userService, encoder, "secret", Duration.ofMinutes(15),
+                Duration.ofDays(7), false, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThatThrownBy(() -> service.login("nobody", "password"))
+                .isInstanceOf(BusinessException.class);
+        verify(encoder).matches(eq("password"), anyString());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.entity.AuditLog;
+import com.example.todo.entity.JobLease;
+import com.example.todo.repository.AuditLogRepository;
+import com.example.todo.repository.JobLeaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * アーカイブは実トランザクションで削除するため、このテストはロールバックしない
+ * 専用の一時ディレクトリと専用の username で他のテストと干渉しないようにする
+ */
+@SpringBootTest(properties = {"app.audit.retention-months=3", "app.audit.archive.chunk-size=2"})
+class AuditArchiveServiceTest {
+
+    private static final String USER = "archiver";
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.audit.archive.dir", () -> archiveDir.toString());
+    }
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private AuditQueryService auditQueryService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Test
+    @DisplayName("保持期間を過ぎた月を gzip アーカイブへ移し、稼働テーブルと続けて検索できる")
+    void archive_movesOldMonths_andSearchSpansBoth() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        auditLogRepository.saveAll(List.of(
+                log("CREATE", now.minusMonths(6).withDayOfMonth(10)),
+                log("DELETE", now.minusMonths(6).withDayOfMonth(11)),
+                log("UPDATE", now.minusMonths(6).withDayOfMonth(12)),
+                log("CREATE", now.minusMonths(5).withDayOfMonth(3)),
+                log("DELETE", now.minusMonths(5).withDayOfMonth(4)),
+                log("CREATE", now.minusMinutes(2)),
+                log("UPDATE", now.minusMinutes(1))));
+
+        assertThat(auditArchiveService.archiveExpired()).isEqualTo(5);
+
+        List<AuditArchiveService.Segment> segments = auditArchiveService.segments();
+        assertThat(segments).hasSize(2);
+        assertThat(segments).extracting(AuditArchiveService.Segment::rows).containsExactlyInAnyOrder(3L, 2L);
+        assertThat(Files.exists(archiveDir.resolve("index.json"))).isTrue();
+        assertThat(segments).allSatisfy(s -> assertThat(archiveDir.resolve(s.file())).exists());
+        assertThat(auditLogRepository.countCapped(query(null, null, false), 100)).isEqualTo(2);
+
+        // 稼働テーブル2件 → アーカイブの新しい月 → 古い月 の順にカーソルで続く
+        CursorSlice<AuditLog> first = auditQueryService.search(query(null, null, true));
+        assertThat(first.getContent()).hasSize(4);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getContent()).extracting(AuditLog::getCreatedAt).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(first.getContent().get(2).getCreatedAt().toLocalDate())
+                .isEqualTo(now.minusMonths(5).withDayOfMonth(4).toLocalDate());
+        CursorSlice<AuditLog> second = auditQueryService.search(query(null, first.getNextCursor(), true));
+        assertThat(second.getContent()).extracting(AuditLog::getAction).containsExactly("UPDATE", "DELETE", "CREATE");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.isHasPrevious()).isTrue();
+
+        // action は大文字にそろえて完全一致
+        CursorSlice<AuditLog> deletes = auditQueryService.search(query("delete", null, true));
+        assertThat(deletes.getContent()).hasSize(2);
+        assertThat(deletes.getContent()).allSatisfy(l -> assertThat(l.getAction()).isEqualTo("DELETE"));
+
+        // archive 指定なしなら稼働テーブルだけ
+        assertThat(auditQueryService.search(query(null, null, false)).getContent()).hasSize(2);
+
+        // 2回目は何も移さない
+        assertThat(auditArchiveService.archiveExpired()).isZero();
+        assertThat(auditArchiveService.segments()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("他のノードがリースを持っている間は何も移さない")
+    void archive_skipsWhileAnotherNodeHoldsTheLease() {
+        AuditLog old = log("CREATE", LocalDateTime.now().minusMonths(6));
+        old.setUsername("other-archiver");
+        old = auditLogRepository.save(old);
+        JobLease lease = jobLeaseRepository.findById("audit-archive")
+                .orElseGet(() -> new JobLease("audit-archive", "other-node", null));
+        lease.setOwner("other-node");
+        lease.setLeaseUntil(LocalDateTime.now().plusHours(1));
+        lease = jobLeaseRepository.save(lease);
+        try {
+            assertThat(auditArchiveService.archiveExpired()).isZero();
+            assertThat(auditLogRepository.existsById(old.getId())).isTrue();
+        } finally {
+            lease.setLeaseUntil(null);
+            jobLeaseRepository.save(lease);
+            auditLogRepository.delete(old);
+        }
+    }
+
+    private static AuditQuery query(String action, String cursor, boolean archive) {
+        AuditQuery query = new AuditQuery();
+        query.setAction(action);
+        query.setUsername(USER);
+        query.setCursor(cursor);
+        query.setSize(4);
+        query.setArchive(archive);
+        return query;
+    }
+
+    private static AuditLog log(String action, LocalDateTime createdAt) {
+        AuditLog log = new AuditLog();
+        log.setAction(action);
+        log.setTodoId(1L);
+        log.setUsername(USER);
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.AuditQuery;
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.entity.AuditLog;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.AuditLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class AuditQueryServiceTest {
+
+    private static final String USER = "auditq";
+
+    @Autowired
+    private AuditQueryService auditQueryService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Test
+    @DisplayName("同じ時刻の行があってもキーセットで重複・欠落なく最後まで辿れる")
+    void search_walksAllPages() {
+        LocalDateTime at = LocalDateTime.now().minusHours(1).withNano(0);
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            logs.add(log("UPDATE", (long) i, at.minusMinutes(i / 3)));
+        }
+        auditLogRepository.saveAll(logs);
+
+        AuditQuery query = query();
+        query.setSize(7);
+        Set<Long> seen = new HashSet<>();
+        int pages = 0;
+        CursorSlice<AuditLog> slice;
+        do {
+            slice = auditQueryService.search(query);
+            slice.getContent().forEach(l -> assertThat(seen.add(l.getId())).isTrue());
+            query.setCursor(slice.getNextCursor());
+            pages++;
+        } while (slice.isHasNext());
+
+        assertThat(seen).hasSize(25);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("action・todoId・期間で絞り込める（to は当日を含む）")
+    void search_filters() {
+        LocalDateTime today = LocalDate.now().atTime(0, 30);
+        auditLogRepository.saveAll(List.of(
+                log("CREATE", 1L, today),
+                log("DELETE", 1L, today),
+                log("DELETE", 2L, today),
+                log("DELETE", 1L, today.minusDays(3))));
+
+        AuditQuery query = query();
+        query.setAction(" delete ");
+        query.setTodoId(1L);
+        assertThat(auditQueryService.search(query).getContent()).hasSize(2);
+
+        query.setFrom(LocalDate.now());
+        query.setTo(LocalDate.now());
+        CursorSlice<AuditLog> slice = auditQueryService.search(query);
+        assertThat(slice.getContent()).singleElement()
+                .satisfies(l -> assertThat(l.getCreatedAt()).isEqualTo(today));
+        assertThat(slice.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("件数は上限 + 1 で打ち切る")
+    void countCapped_stopsAtCap() {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            logs.add(log("CREATE", (long) i, LocalDateTime.now().minusSeconds(i)));
+        }
+        auditLogRepository.saveAll(logs);
+
+        assertThat(auditLogRepository.countCapped(query(), 10)).isEqualTo(11);
+        assertThat(auditLogRepository.countCapped(query(), 100)).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("不正なカーソルは E400")
+    void search_rejectsBrokenCursor() {
+        AuditQuery query = query();
+        query.setCursor("not-a-cursor");
+        assertThatThrownBy(() -> auditQueryService.search(query))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo("E400");
+    }
+
+    private static AuditQuery query() {
+        AuditQuery query = new AuditQuery();
+        query.setUsername(USER);
+        return query;
+    }
+
+    private static AuditLog log(String action, Long todoId, LocalDateTime createdAt) {
+        AuditLog log = new AuditLog();
+        log.setAction(action);
+        log.setTodoId(todoId);
+        log.setUsername(USER);
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.todo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CategoryServiceCacheTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("2回目以降の参照は SQL を発行しない")
+    void lookups_areCached() {
+        Long id = categoryService.findAll().get(0).getId();
+        categoryService.findById(id);
+
+        statistics.clear();
+        assertThat(categoryService.findAll()).isNotEmpty();
+        assertThat(categoryService.findById(id).getId()).isEqualTo(id);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
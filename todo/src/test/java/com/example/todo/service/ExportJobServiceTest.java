@@ -0,0 +1,174 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.ExportJob;
+import com.example.todo.entity.User;
+import com.example.todo.enums.ExportStatus;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.ExportJobRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ExportJobServiceTest {
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ExportJob job : exportJobRepository.findAll()) {
+            if (job.getStoredFilename() != null) {
+                fileStorageService.delete(job.getStoredFilename());
+            }
+        }
+        User user = todoService.loadUser("user2");
+        todoRepository.deleteAll(todoRepository.findByUser(user, org.springframework.data.domain.Sort.unsorted()));
+        exportJobRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("submit: バックグラウンドで CSV を作成し、完了後にファイルを取得できる")
+    void submit_completesAndWritesFile() throws Exception {
+        User user = todoService.loadUser("user2");
+        todoService.createSamples(12, user);
+
+        ExportJob job = exportJobService.submit(user, null, null, "id", "asc", false);
+        ExportJob done = awaitFinished(job.getId());
+
+        assertThat(done.getStatus()).isEqualTo(ExportStatus.COMPLETED);
+        assertThat(done.getTotalRows()).isEqualTo(12L);
+        assertThat(done.getProcessedRows()).isEqualTo(12L);
+        assertThat(done.getExpiresAt()).isAfter(LocalDateTime.now());
+        Path file = exportJobService.resultFile(done);
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(13);
+
+        // 期限切れになるとファイルは削除される
+        done.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        exportJobRepository.save(done);
+        assertThat(exportJobService.expireOldResults()).isEqualTo(1);
+        assertThat(Files.exists(file)).isFalse();
+        assertThat(exportJobRepository.findById(job.getId()).orElseThrow().getStatus())
+                .isEqualTo(ExportStatus.EXPIRED);
+    }
+
+    @Test
+    @DisplayName("findForUser: 他ユーザーのジョブは参照できない")
+    void findForUser_forbidden_for_other_user() {
+        User owner = todoService.loadUser("user2");
+        User other = todoService.loadUser("user");
+        ExportJob job = exportJobService.submit(owner, null, null, "createdAt", "desc", false);
+
+        assertThatThrownBy(() -> exportJobService.findForUser(job.getId(), other, false))
+                .isInstanceOf(BusinessException.class);
+        awaitFinished(job.getId());
+    }
+
+    @Test
+    @DisplayName("submit: 同じユーザーの登録はユーザー行のロックで直列になり、他のノードの登録も数えてから上限を判定する")
+    void submit_countsConcurrentSubmitsBeforeCheckingTheCap() throws Exception {
+        User user = todoService.loadUser("user2");
+        CountDownLatch locked = new CountDownLatch(1);
+        // 他のノードの submit の代わりに、ユーザー行をロックしたまま実行中のジョブを2件登録してコミットする
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    userRepository.lockByIdIn(List.of(user.getId()));
+                    locked.countDown();
+                    sleep(300);
+                    exportJobRepository.save(runningJob(user, LocalDateTime.now()));
+                    exportJobRepository.save(runningJob(user, LocalDateTime.now()));
+                }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> exportJobService.submit(user, null, null, "id", "asc", false))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(e -> assertThat(((BusinessException) e).getErrorCode()).isEqualTo("E429"));
+        otherNode.get(5, TimeUnit.SECONDS);
+        assertThat(exportJobRepository.countByUsernameAndStatusIn(user.getUsername(),
+                List.of(ExportStatus.QUEUED, ExportStatus.RUNNING))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("failStaleJobs: heartbeat が止まった実行中ジョブだけを失敗にする")
+    void failStaleJobs_failsOnlyJobsWithoutHeartbeat() {
+        User user = todoService.loadUser("user2");
+        ExportJob stale = exportJobRepository.save(runningJob(user, LocalDateTime.now().minusMinutes(10)));
+        ExportJob alive = exportJobRepository.save(runningJob(user, LocalDateTime.now()));
+
+        assertThat(exportJobService.failStaleJobs()).isEqualTo(1);
+
+        assertThat(exportJobRepository.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo(ExportStatus.FAILED);
+        assertThat(exportJobRepository.findById(alive.getId()).orElseThrow().getStatus()).isEqualTo(ExportStatus.RUNNING);
+    }
+
+    private static ExportJob runningJob(User user, LocalDateTime heartbeatAt) {
+        ExportJob job = new ExportJob();
+        job.setUsername(user.getUsername());
+        job.setSortKey("id");
+        job.setSortOrder("asc");
+        job.setStatus(ExportStatus.RUNNING);
+        job.setHeartbeatAt(heartbeatAt);
+        return job;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ExportJob awaitFinished(Long id) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ExportJob job = exportJobRepository.findById(id).orElseThrow();
+            if (!job.getStatus().isActive()) {
+                return job;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError("export job did not finish: " + id);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ReminderDigest;
+import com.example.todo.entity.MailOutbox;
+import com.example.todo.enums.MailOutboxStatus;
+import com.example.todo.enums.MailType;
+import com.example.todo.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 複数ノードで同じアウトボックスを処理したときの行の取り合い（SELECT ... FOR UPDATE SKIP LOCKED）
+ * ノードは MailOutboxService を nodeId を変えて作り直して再現する。取り合いはコミットされないと意味がないので、
+ * このテストはロールバックしない（テストではポーリングを止めているので、行を横取りされることはない）
+ */
+@SpringBootTest
+class MailOutboxClaimTest {
+
+    private static final int BATCH_SIZE = 5;
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("他のノードがロック中の行は待たずに飛ばし、その次の行から取る")
+    void dispatchBatch_skipsRowsLockedByAnotherNode() throws Exception {
+        enqueue(BATCH_SIZE * 2);
+        RecordingMail mail = new RecordingMail();
+        MailOutboxService nodeB = newInstance("node-b", mail);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> lockedByA = new ArrayList<>();
+        CompletableFuture<Void> nodeA = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    lockedByA.addAll(outboxRepository.lockClaimableIds(LocalDateTime.now(), BATCH_SIZE));
+                    locked.countDown();
+                    await(release);
+                }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(nodeB.dispatchBatch()).isEqualTo(BATCH_SIZE);
+            assertThat(mail.sent.keySet()).hasSize(BATCH_SIZE).doesNotContainAnyElementsOf(lockedByA);
+        } finally {
+            release.countDown();
+            nodeA.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("2ノードで同時に処理しても、どの行も1回だけ送られ、両方のノードが分担する")
+    void twoDispatchers_shareTheBacklog() throws Exception {
+        List<Long> ids = enqueue(BATCH_SIZE * 20);
+        RecordingMail mail = new RecordingMail();
+        MailOutboxService nodeA = newInstance("node-a", mail);
+        MailOutboxService nodeB = newInstance("node-b", mail);
+
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<Integer> a = CompletableFuture.supplyAsync(() -> drainAll(nodeA, start));
+        CompletableFuture<Integer> b = CompletableFuture.supplyAsync(() -> drainAll(nodeB, start));
+        start.countDown();
+        int processedA = a.get(30, TimeUnit.SECONDS);
+        int processedB = b.get(30, TimeUnit.SECONDS);
+
+        assertThat(processedA).isPositive();
+        assertThat(processedB).isPositive();
+        assertThat(mail.sent.keySet()).containsAll(ids);
+        assertThat(mail.duplicates).isEmpty();
+        assertThat(outboxRepository.findAllById(ids))
+                .allSatisfy(row -> assertThat(row.getStatus()).isEqualTo(MailOutboxStatus.SENT));
+    }
+
+    private static int drainAll(MailOutboxService node, CountDownLatch start) {
+        await(start);
+        int total = 0;
+        while (true) {
+            int processed = node.drain(1);
+            if (processed == 0) {
+                return total;
+            }
+            total += processed;
+        }
+    }
+
+    private MailOutboxService newInstance(String nodeId, MailService mail) {
+        return new MailOutboxService(outboxRepository, mail, transactionManager, new SimpleMeterRegistry(),
+                nodeId, BATCH_SIZE, 3, Duration.ofMinutes(2), Duration.ofSeconds(10), Duration.ofMinutes(1),
+                Duration.ofHours(72));
+    }
+
+    private List<Long> enqueue(int count) {
+        String recipient = "outbox-" + UUID.randomUUID().toString().substring(0, 8);
+        List<MailOutbox> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MailOutbox row = new MailOutbox();
+            row.setType(MailType.TODO_CREATED);
+            row.setRecipient(recipient);
+            row.setSubject("mail-" + i);
+            rows.add(row);
+        }
+        return outboxRepository.saveAll(rows).stream().map(MailOutbox::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 送った行を記録するだけのメール送信。同じ行を2回送ったら duplicates に残す
+     * ノードが交互に取るよう、1通ごとに少し待つ
+     */
+    private static final class RecordingMail implements MailService {
+
+        private final Map<Long, String> sent = new ConcurrentHashMap<>();
+        private final Set<Long> duplicates = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void sendTodoCreated(MailOutbox message) {
+            if (sent.put(message.getId(), Thread.currentThread().getName()) != null) {
+                duplicates.add(message.getId());
+            }
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> sendDeadlineDigestAsync(ReminderDigest digest) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.MailOutbox;
+import com.example.todo.enums.MailOutboxStatus;
+import com.example.todo.enums.MailType;
+import com.example.todo.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ディスパッチの結果の書き戻し（送信済み・再送待ち・DEAD）を確かめる
+ * ノード間の行の取り合いは MailOutboxClaimTest で実際の DB を使って確かめる
+ */
+@ExtendWith(MockitoExtension.class)
+class MailOutboxServiceTest {
+
+    @Mock
+    private MailOutboxRepository outboxRepository;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new MailOutboxService(outboxRepository, mailService, transactionManager, meterRegistry,
+                "node-a", 10, 3, Duration.ofMinutes(2), Duration.ofSeconds(10), Duration.ofSeconds(30),
+                Duration.ofHours(72));
+    }
+
+    @Test
+    @DisplayName("dispatchBatch: 取れた行を送り、送れた分をまとめて SENT にする")
+    void dispatchBatch_marksSentInOneUpdate() {
+        MailOutbox first = message(1L, 0);
+        MailOutbox second = message(2L, 0);
+        claimed(List.of(first, second));
+
+        assertThat(service.dispatchBatch()).isEqualTo(2);
+
+        verify(mailService).sendTodoCreated(first);
+        verify(mailService).sendTodoCreated(second);
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), anyString(), any());
+        verify(outboxRepository, never()).markFailed(any(), any(), any(), any(), any());
+        assertThat(meterRegistry.get("todo.mail.outbox.messages").tag("result", "sent").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("todo.mail.outbox.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("dispatchBatch: 失敗した行はバックオフ後に再送待ちへ戻し、上限に達したら DEAD にする")
+    void dispatchBatch_retriesWithBackoff_thenDeadLetters() {
+        MailOutbox retry = message(1L, 0);
+        MailOutbox last = message(2L, 2);
+        MailOutbox ok = message(3L, 0);
+        claimed(List.of(retry, last, ok));
+        doThrow(new IllegalStateException("smtp down")).when(mailService).sendTodoCreated(retry);
+        doThrow(new IllegalStateException("smtp down")).when(mailService).sendTodoCreated(last);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(service.dispatchBatch()).isEqualTo(3);
+
+        verify(outboxRepository).markSent(eq(List.of(3L)), anyString(), any());
+        verify(outboxRepository).markFailed(eq(1L), anyString(), eq(MailOutboxStatus.PENDING),
+                argThat(next -> !next.isBefore(before.plusSeconds(10))), contains("smtp down"));
+        verify(outboxRepository).markFailed(eq(2L), anyString(), eq(MailOutboxStatus.DEAD), any(), contains("smtp down"));
+        assertThat(meterRegistry.get("todo.mail.outbox.messages").tag("result", "retried").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("todo.mail.outbox.messages").tag("result", "dead").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("dispatchBatch: 送れる行が（ロックされていない分も含め）なければ何も送らない")
+    void dispatchBatch_nothingToClaim() {
+        when(outboxRepository.lockClaimableIds(any(), eq(10))).thenReturn(List.of());
+
+        assertThat(service.dispatchBatch()).isZero();
+
+        verifyNoInteractions(mailService);
+        verify(outboxRepository, never()).claim(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("backoff: 試行ごとに倍になり、max-backoff で頭打ちになる")
+    void backoff_doublesUpToMax() {
+        assertThat(service.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(service.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(service.backoff(40)).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    private void claimed(List<MailOutbox> rows) {
+        List<Long> ids = rows.stream().map(MailOutbox::getId).toList();
+        when(outboxRepository.lockClaimableIds(any(), eq(10))).thenReturn(ids);
+        when(outboxRepository.claim(eq(ids), anyString(), eq("node-a"), any())).thenReturn(rows.size());
+        when(outboxRepository.findByClaimTokenOrderById(anyString())).thenReturn(rows);
+    }
+
+    private static MailOutbox message(Long id, int attempts) {
+        MailOutbox message = new MailOutbox();
+        message.setId(id);
+        message.setType(MailType.TODO_CREATED);
+        message.setRecipient("user");
+        message.setSubject("todo-" + id);
+        message.setStatus(MailOutboxStatus.SENDING);
+        message.setAttempts(attempts);
+        message.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+        message.setNextAttemptAt(message.getCreatedAt());
+        return message;
+    }
+}
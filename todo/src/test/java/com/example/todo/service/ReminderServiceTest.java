@@ -0,0 +1,197 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ReminderDigest;
+import com.example.todo.entity.MailOutbox;
+import com.example.todo.entity.ReminderRun;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import com.example.todo.repository.ReminderRunRepository;
+import com.example.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * リースとチェックポイントはコミットされないと意味がないので、このテストはロールバックしない
+ * 他のテストの ToDo と混ざらないよう、期限日（枠）は遠い未来の日付をテストごとに選ぶ
+ * 別ノードは ReminderService を nodeId を変えて作り直して再現する
+ */
+@SpringBootTest
+class ReminderServiceTest {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ReminderRunRepository runRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("チャンクをまたいでもユーザーごとに1通にまとめ、完了済みの ToDo は含めない")
+    void run_sendsOneDigestPerUser() {
+        LocalDate slot = newSlot();
+        User alice = newUser();
+        User bob = newUser();
+        User carol = newUser();
+        addTodos(alice, slot, 5);
+        addTodos(bob, slot, 2);
+        addTodos(carol, slot, 1);
+        addCompleted(carol, slot);
+
+        RecordingMail mail = new RecordingMail(null);
+        assertThat(newInstance("node-a", mail, Duration.ofMinutes(5)).run(slot)).isTrue();
+
+        assertThat(mail.digests).extracting(ReminderDigest::username)
+                .containsExactly(alice.getUsername(), bob.getUsername(), carol.getUsername());
+        assertThat(mail.digests).extracting(ReminderDigest::total).containsExactly(5, 2, 1);
+        ReminderRun run = runRepository.findById(slot).orElseThrow();
+        assertThat(run.getCompletedAt()).isNotNull();
+        assertThat(run.getDigests()).isEqualTo(3);
+        assertThat(run.getTodos()).isEqualTo(8);
+
+        // 送信済みの枠は他のノードでも送らない
+        RecordingMail other = new RecordingMail(null);
+        assertThat(newInstance("node-b", other, Duration.ofMinutes(5)).run(slot)).isFalse();
+        assertThat(other.digests).isEmpty();
+    }
+
+    @Test
+    @DisplayName("途中で落ちた実行はリースが切れるまで他のノードが取れず、切れたらチェックポイントの次から再開する")
+    void crashedRun_isResumedFromCheckpointAfterLeaseExpires() throws InterruptedException {
+        LocalDate slot = newSlot();
+        User alice = newUser();
+        User bob = newUser();
+        User carol = newUser();
+        addTodos(alice, slot, 4);
+        addTodos(bob, slot, 3);
+        addTodos(carol, slot, 2);
+
+        RecordingMail crashing = new RecordingMail(carol.getUsername());
+        ReminderService nodeA = newInstance("node-a", crashing, Duration.ofMillis(300));
+        assertThatThrownBy(() -> nodeA.run(slot)).isInstanceOf(IllegalStateException.class);
+        assertThat(runRepository.findById(slot).orElseThrow().getLastUserId()).isEqualTo(bob.getId());
+
+        RecordingMail resumed = new RecordingMail(null);
+        ReminderService nodeB = newInstance("node-b", resumed, Duration.ofMinutes(5));
+        assertThat(nodeB.run(slot)).isFalse();
+
+        Thread.sleep(400);
+        assertThat(nodeB.run(slot)).isTrue();
+        assertThat(resumed.digests).extracting(ReminderDigest::username).containsExactly(carol.getUsername());
+        assertThat(runRepository.findById(slot).orElseThrow().getOwner()).isEqualTo("node-b");
+    }
+
+    @Test
+    @DisplayName("sendNow: 同じ ToDo・期限日には1回だけ送り、期限日が変わればまた送る")
+    void sendNow_sendsOncePerDueDate() {
+        LocalDate slot = newSlot();
+        User alice = newUser();
+        addTodos(alice, slot, 2);
+        List<Long> ids = todoRepository.findDeadlineRowsByUserId(alice.getId(), slot).stream()
+                .map(row -> (Long) row[0]).toList();
+
+        RecordingMail mail = new RecordingMail(null);
+        ReminderService nodeA = newInstance("node-a", mail, Duration.ofMinutes(5));
+        ReminderService nodeB = newInstance("node-b", mail, Duration.ofMinutes(5));
+        assertThat(nodeA.sendNow(ids)).isEqualTo(1);
+        // 編集で載せ直された分や、他のノードが同じ ToDo を発火させた分は送らない
+        assertThat(nodeA.sendNow(ids)).isZero();
+        assertThat(nodeB.sendNow(ids)).isZero();
+        assertThat(mail.digests).extracting(ReminderDigest::total).containsExactly(2);
+
+        Todo moved = todoRepository.findById(ids.get(0)).orElseThrow();
+        moved.setDueDate(slot.plusDays(1));
+        todoRepository.save(moved);
+        assertThat(nodeB.sendNow(ids)).isEqualTo(1);
+        assertThat(mail.digests).extracting(ReminderDigest::dueDate).containsExactly(slot, slot.plusDays(1));
+    }
+
+    private ReminderService newInstance(String nodeId, MailService mail, Duration lease) {
+        return new ReminderService(todoRepository, runRepository, mail, transactionManager,
+                new SimpleMeterRegistry(), nodeId, 3, 50, 2, lease, Duration.ofMillis(10));
+    }
+
+    // 遠い未来の日付を選び、他のテストの ToDo や実行記録と重ならないようにする
+    private LocalDate newSlot() {
+        while (true) {
+            LocalDate slot = LocalDate.of(2200, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(100_000));
+            if (!runRepository.existsById(slot)) {
+                return slot;
+            }
+        }
+    }
+
+    private void addTodos(User user, LocalDate dueDate, int count) {
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("reminder-" + i);
+            todo.setDueDate(dueDate);
+            todo.setUser(user);
+            todos.add(todo);
+        }
+        todoRepository.saveAll(todos);
+    }
+
+    private void addCompleted(User user, LocalDate dueDate) {
+        Todo todo = new Todo();
+        todo.setTitle("done");
+        todo.setDueDate(dueDate);
+        todo.setCompleted(true);
+        todo.setUser(user);
+        todoRepository.save(todo);
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setUsername("reminder-" + UUID.randomUUID().toString().substring(0, 8));
+        user.setPassword("x");
+        user.setRole("USER");
+        return userService.save(user);
+    }
+
+    /**
+     * 受け取ったまとめを記録するだけのメール送信。crashOn 宛てでプロセスが落ちたことにする
+     */
+    private static final class RecordingMail implements MailService {
+
+        private final String crashOn;
+        private final List<ReminderDigest> digests = new ArrayList<>();
+
+        RecordingMail(String crashOn) {
+            this.crashOn = crashOn;
+        }
+
+        @Override
+        public void sendTodoCreated(MailOutbox message) {
+        }
+
+        @Override
+        public CompletableFuture<Void> sendDeadlineDigestAsync(ReminderDigest digest) {
+            if (digest.username().equals(crashOn)) {
+                throw new IllegalStateException("crash");
+            }
+            digests.add(digest);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.AuditLog;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import com.example.todo.repository.AuditLogRepository;
+import com.example.todo.repository.TodoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 一括登録が JDBC バッチで流れていること（1行1 INSERT になっていないこと）を確認する
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false"})
+@Transactional
+class TodoBatchInsertTest {
+
+    private static final int COUNT = 120;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        user = todoService.loadUser("user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("サンプル登録は ToDo・監査ログともバッチ INSERT になる")
+    void createSamples_batchesInserts() {
+        long todosBefore = todoRepository.count();
+        long auditBefore = auditLogRepository.count();
+
+        statistics.clear();
+        assertThat(todoService.createSamples(COUNT, user)).isEqualTo(COUNT);
+
+        // 件数カウンタ（todo_stats_counters）の新しいバケットの INSERT は数えない
+        assertThat(statistics.getEntityStatistics(Todo.class.getName()).getInsertCount()).isEqualTo(COUNT);
+        assertThat(statistics.getEntityStatistics(AuditLog.class.getName()).getInsertCount()).isEqualTo(COUNT);
+        // 行ごとなら ToDo と監査ログで 240 回以上になる（採番 + バッチ数程度に収まる）
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(COUNT / 5);
+        assertThat(todoRepository.count()).isEqualTo(todosBefore + COUNT);
+        assertThat(auditLogRepository.count()).isEqualTo(auditBefore + COUNT);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.TodoEventLog;
+import com.example.todo.enums.TodoEventType;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.stream.TodoEventHub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoSearchServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+    @Mock
+    private TodoEventHub eventHub;
+
+    private TodoSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TodoSearchService(todoRepository, eventHub, 3, 4);
+    }
+
+    @Test
+    @DisplayName("起動時の再構築が終わるまでは E503、終われば max-results 件までに切って返す")
+    void search_notReadyUntilRebuilt_thenCapped() {
+        assertThatThrownBy(() -> service.search("会議", null, null))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo("E503");
+        assertThat(service.status().isReady()).isFalse();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            rows.add(new Object[]{id, 10L, 1L, "会議 " + id, null});
+        }
+        when(todoRepository.findSearchRows(anyLong(), any())).thenReturn(rows);
+
+        assertThat(service.rebuild()).isEqualTo(5);
+        assertThat(service.status().isReady()).isTrue();
+        assertThat(service.search("会議", null, null)).hasSize(3);
+        assertThat(service.search("会議", null, null, 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("一覧用の絞り込みは max-results で切らずに全件返し、max-filter-ids を超えたら E400 にする")
+    void matchIds_returnsEveryMatch_andRejectsTooMany() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            rows.add(new Object[]{id, 10L, id == 5 ? 2L : 1L, "会議 " + id, null});
+        }
+        when(todoRepository.findSearchRows(anyLong(), any())).thenReturn(rows);
+        service.rebuild();
+
+        assertThat(service.matchIds("会議", null, 1L)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThatThrownBy(() -> service.matchIds("会議", null, null))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo("E400");
+    }
+
+    @Test
+    @DisplayName("他のノードの変更イベントは DB から読み直して反映し、削除イベントと読み直せなかった id は外す")
+    void applyChanges_readsBackChangedTodos_andDropsDeleted() {
+        service.rebuild();
+        when(todoRepository.findSearchRowsByIdIn(any())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 10L, 1L, "会議の準備", null},
+                new Object[]{2L, 10L, 1L, "会議室の予約", null}));
+
+        service.applyChanges(List.of(
+                new TodoEventLog(1L, 10L, TodoEventType.CREATED, "1,2,3", LocalDateTime.now())));
+        assertThat(service.search("会議", null, null)).containsExactlyInAnyOrder(1L, 2L);
+
+        service.applyChanges(List.of(
+                new TodoEventLog(2L, 10L, TodoEventType.UPDATED, "2", LocalDateTime.now()),
+                new TodoEventLog(3L, 10L, TodoEventType.DELETED, "2", LocalDateTime.now())));
+        assertThat(service.search("会議", null, null)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("再構築中にもう一度 rebuild すると E409 で断る")
+    void rebuild_whileRebuilding_isRejected() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoRepository.findSearchRows(anyLong(), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(service::rebuild);
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            assertThat(service.status().isRebuilding()).isTrue();
+            assertThatThrownBy(service::rebuild)
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("errorCode").isEqualTo("E409");
+        } finally {
+            release.countDown();
+        }
+        assertThat(first.get(5, TimeUnit.SECONDS)).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.CursorSlice;
+import com.example.todo.dto.TodoDto;
+import com.example.todo.entity.User;
+import com.example.todo.enums.TodoSortKey;
+import com.example.todo.exception.BusinessException;
+import com.example.todo.repository.TodoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class TodoServiceKeysetTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = todoService.loadUser("user");
+        todoService.createSamples(23, user);
+        // dueDate が NULL の行もページングに含まれることを確認する
+        todoRepository.findAll().stream().limit(4).forEach(t -> t.setDueDate(null));
+        todoRepository.flush();
+        // DB 側の精度で読み直した値からカーソルを作る
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findSlice: 全ソートキーで前後に辿っても欠落・重複がない")
+    void findSlice_walksAllRows_forEverySortKey() {
+        long total = todoRepository.countFiltered(user.getId(), null, null);
+        for (TodoSortKey key : TodoSortKey.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<Long> forward = new ArrayList<>();
+                List<String> pageCursors = new ArrayList<>();
+                CursorSlice<TodoDto> slice = todoService.findSlice(user, null, null, key, direction, null, false, 5, false);
+                forward.addAll(ids(slice));
+                while (slice.isHasNext()) {
+                    pageCursors.add(slice.getNextCursor());
+                    slice = todoService.findSlice(user, null, null, key, direction, slice.getNextCursor(), false, 5, false);
+                    forward.addAll(ids(slice));
+                }
+                assertThat(forward).as("%s %s", key, direction).hasSize((int) total).doesNotHaveDuplicates();
+
+                List<Long> backward = new ArrayList<>(ids(slice));
+                while (slice.isHasPrevious()) {
+                    slice = todoService.findSlice(user, null, null, key, direction, slice.getPrevCursor(), true, 5, false);
+                    backward.addAll(0, ids(slice));
+                }
+                assertThat(backward).as("%s %s backward", key, direction).isEqualTo(forward);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("findSlice: 総件数はテンプレートが参照したときだけ評価される")
+    void findSlice_totalIsLazy() {
+        CursorSlice<TodoDto> slice = todoService.findSlice(user, null, null,
+                TodoSortKey.CREATED_AT, Sort.Direction.DESC, null, false, 10, false);
+        assertThat(slice.getApproximateTotal()).isNull();
+        assertThat(slice.getTotal()).isEqualTo(23L);
+        assertThat(slice.getApproximateTotal()).isEqualTo(23L);
+    }
+
+    @Test
+    @DisplayName("findSlice: ソート条件と一致しないカーソルは拒否される")
+    void findSlice_rejectsForeignCursor() {
+        CursorSlice<TodoDto> slice = todoService.findSlice(user, null, null,
+                TodoSortKey.TITLE, Sort.Direction.ASC, null, false, 5, false);
+        assertThatThrownBy(() -> todoService.findSlice(user, null, null,
+                TodoSortKey.DUE_DATE, Sort.Direction.ASC, slice.getNextCursor(), false, 5, false))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private List<Long> ids(CursorSlice<TodoDto> slice) {
+        return slice.getContent().stream().map(TodoDto::getId).toList();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.todo.service;
 
+import com.example.todo.aspect.AuditAspect;
+import com.example.todo.deadline.DeadlineWheel;
 import com.example.todo.dto.TodoForm;
 import com.example.todo.entity.Category;
 import com.example.todo.entity.Todo;
@@ -7,13 +9,16 @@ import com.example.todo.entity.User;
 import com.example.todo.enums.Priority;
 import com.example.todo.exception.BusinessException;
 import com.example.todo.repository.TodoRepository;
-import com.example.todo.repository.UserRepository;
+import com.example.todo.stream.TodoEventHub;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -35,11 +40,26 @@ class TodoServiceTest {
     private CategoryService categoryService;
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private MailOutboxService mailOutboxService;
+
+    @Mock
+    private TodoSearchService searchService;
+
+    @Mock
+    private TodoStatsService statsService;
+
+    @Mock
+    private TodoEventHub eventHub;
+
+    @Mock
+    private DeadlineWheel deadlineWheel;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -63,7 +83,19 @@ class TodoServiceTest {
             return t;
         });
 
-        Todo saved = todoService.create(form, user);
+        // 監査ログは @Auditable のアスペクトが書くので、AuditAspect を通したプロキシで呼ぶ
+        AspectJProxyFactory factory = new AspectJProxyFactory(todoService);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new AuditAspect(auditService));
+        TodoService audited = factory.getProxy();
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null));
+        Todo saved;
+        try {
+            saved = audited.create(form, user);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
 
         assertThat(saved.getId()).isEqualTo(100L);
         assertThat(saved.getTitle()).isEqualTo("title");
@@ -72,6 +104,7 @@ class TodoServiceTest {
         assertThat(saved.getCategory()).isEqualTo(category);
         assertThat(saved.getUser()).isEqualTo(user);
         verify(auditService).log(eq("CREATE"), eq(100L), eq("user"));
+        verify(mailOutboxService).enqueueTodoCreated(user, saved);
     }
 
     @Test
@@ -104,11 +137,30 @@ class TodoServiceTest {
         admin.setUsername("admin");
 
         List<Long> ids = List.of(1L, 2L, 3L);
+        when(todoRepository.lockIdsFiltered(null, ids, null, 3)).thenReturn(ids);
+        when(todoRepository.deleteByIdInForUser(ids, null)).thenReturn(3);
 
         int deleted = todoService.deleteByIds(ids, admin, true);
 
         assertThat(deleted).isEqualTo(3);
-        verify(todoRepository).deleteByIdIn(ids);
-        verify(auditService, times(3)).log(eq("DELETE"), any(Long.class), eq("admin"));
+        verify(auditService).logAll("DELETE", ids, "admin");
+    }
+
+    @Test
+    @DisplayName("deleteByIds: 一般ユーザーは他ユーザーの id を除いて削除する")
+    void deleteByIds_user_skipsForeignIds() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user");
+
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(todoRepository.lockIdsFiltered(1L, ids, null, 3)).thenReturn(List.of(1L, 3L));
+        when(todoRepository.deleteByIdInForUser(List.of(1L, 3L), 1L)).thenReturn(2);
+
+        int deleted = todoService.deleteByIds(ids, user, false);
+
+        assertThat(deleted).isEqualTo(2);
+        verify(auditService).logAll("DELETE", List.of(1L, 3L), "user");
+        verify(todoRepository, never()).findById(any());
     }
 }
@@ -0,0 +1,219 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ApiBulkRequest;
+import com.example.todo.dto.TodoDto;
+import com.example.todo.dto.TodoForm;
+import com.example.todo.dto.TodoStats;
+import com.example.todo.entity.Todo;
+import com.example.todo.entity.User;
+import com.example.todo.enums.BulkOperationType;
+import com.example.todo.enums.Priority;
+import com.example.todo.repository.JobLeaseRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.TodoStatsCounterRepository;
+import com.example.todo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * カウンタはコミット後に反映されるので、このテストはロールバックしない（ユーザーはテストごとに作る）
+ * 正解は statsFromTodos（todos から数えたもの）
+ * テストでは定期的な書き出しを止めているので、DB に書き出すのは flush を呼んだときだけ
+ */
+@SpringBootTest
+class TodoStatsServiceTest {
+
+    @Autowired
+    private TodoStatsService statsService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoStatsCounterRepository counterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("作成・更新・完了切替・削除・一括操作の後もカウンタが todos の件数と一致する")
+    void serviceWrites_keepCountersInStep() {
+        User user = newUser();
+        Long categoryId = categoryService.findAll().get(0).getId();
+        Long otherCategoryId = categoryService.findAll().get(1).getId();
+
+        todoService.createSamples(30, user);
+        Todo created = todoService.create(
+                new TodoForm("stats", "desc", Priority.HIGH, categoryId, LocalDate.now().plusDays(1)), user);
+        todoService.toggleCompleted(created.getId(), user, false);
+        todoService.update(created.getId(), "stats", "desc", Priority.LOW, otherCategoryId,
+                LocalDate.now().plusDays(2), user, false);
+        assertMatchesTodos(user);
+
+        List<Long> ids = ids(user);
+        todoService.delete(ids.get(0), user, false);
+        todoService.deleteByIds(ids.subList(1, 4), user, false);
+        todoService.bulk(bulk(ids.subList(4, 14), BulkOperationType.COMPLETE, BulkOperationType.SET_PRIORITY,
+                BulkOperationType.SET_CATEGORY), user, false);
+        todoService.bulk(bulk(ids.subList(14, 18), BulkOperationType.UNCOMPLETE, BulkOperationType.DELETE), user, false);
+
+        TodoStats stats = statsService.stats(user.getId());
+        assertThat(stats.getTotal()).isEqualTo(31 - 8);
+        assertThat(stats.getByPriority()).containsEntry("HIGH", todoRepository.findStatsRowsByIdIn(ids(user)).stream()
+                .filter(row -> row.priority() == Priority.HIGH).count());
+        assertMatchesTodos(user);
+    }
+
+    @Test
+    @DisplayName("サービスを通らない更新でずれたカウンタは照合で補正される")
+    void reconcile_correctsDrift() {
+        User user = newUser();
+        todoService.createSamples(5, user);
+        statsService.flush();
+
+        Todo todo = new Todo();
+        todo.setTitle("bypass");
+        todo.setPriority(Priority.HIGH);
+        todo.setDueDate(LocalDate.now());
+        todo.setUser(user);
+        todoRepository.save(todo);
+        assertThat(statsService.stats(user.getId()).getTotal()).isEqualTo(5);
+
+        assertThat(statsService.reconcile()).isPositive();
+        assertThat(statsService.stats(user.getId()).getTotal()).isEqualTo(6);
+        assertMatchesTodos(user);
+    }
+
+    @Test
+    @DisplayName("書き出した増減は別のインスタンス（別ノード）からも読め、各ノードの書き出しは上書きせずに足し合わされる")
+    void flush_sharesCountersThroughDatabase_andAddsUpAcrossNodes() {
+        User user = newUser();
+        todoService.createSamples(25, user);
+        TodoStats before = statsService.stats(user.getId());
+        TodoStatsService otherNode = newInstance();
+        assertThat(otherNode.stats(user.getId()).getTotal()).isZero();
+
+        assertThat(statsService.flush()).isPositive();
+        assertThat(statsService.flush()).isZero();
+        TodoStatsService restarted = newInstance();
+        assertSameCounts(restarted.stats(user.getId()), before);
+
+        // 別ノードでの作成（ToDo を保存し、そのノードのカウンタに足す）
+        transaction().executeWithoutResult(status -> {
+            Todo todo = new Todo();
+            todo.setTitle("other node");
+            todo.setPriority(Priority.LOW);
+            todo.setUser(user);
+            otherNode.added(todoRepository.save(todo));
+        });
+        todoService.createSamples(2, user);
+        otherNode.flush();
+        statsService.flush();
+
+        assertThat(newInstance().stats(user.getId()).getTotal()).isEqualTo(28);
+        assertSameCounts(newInstance().stats(user.getId()), statsService.statsFromTodos(user.getId()));
+    }
+
+    @Test
+    @DisplayName("ロールバックした更新はカウンタに残らない")
+    void rolledBackWrites_areNotCounted() {
+        User user = newUser();
+        todoService.createSamples(5, user);
+        TodoStats before = statsService.stats(user.getId());
+
+        transaction().executeWithoutResult(status -> {
+            todoService.createSamples(5, user);
+            status.setRollbackOnly();
+        });
+        assertSameCounts(statsService.stats(user.getId()), before);
+    }
+
+    @Test
+    @DisplayName("照合の時点でまだ書き出していない増減があっても、ずれとみなして二重に数えない")
+    void reconcile_withUnflushedDeltas_doesNotDoubleCount() {
+        User user = newUser();
+        todoService.createSamples(3, user);
+        statsService.flush();
+        Long categoryId = categoryService.findAll().get(0).getId();
+        todoService.create(new TodoForm("not flushed", null, Priority.HIGH, categoryId,
+                LocalDate.now().plusDays(1)), user);
+
+        // todos は 4 件、DB のカウンタは 3 件。照合の待ち時間中に残り 1 件が書き出されるので補正しない
+        statsService.reconcile();
+
+        assertThat(statsService.stats(user.getId()).getTotal()).isEqualTo(4);
+        assertThat(newInstance().stats(user.getId()).getTotal()).isEqualTo(4);
+        assertMatchesTodos(user);
+    }
+
+    private void assertMatchesTodos(User user) {
+        assertSameCounts(statsService.stats(user.getId()), statsService.statsFromTodos(user.getId()));
+    }
+
+    private static void assertSameCounts(TodoStats actual, TodoStats expected) {
+        assertThat(actual).usingRecursiveComparison().ignoringFields("generatedAt").isEqualTo(expected);
+    }
+
+    private TodoStatsService newInstance() {
+        return new TodoStatsService(todoRepository, counterRepository, userRepository, leaseRepository,
+                transactionManager, new SimpleMeterRegistry(), 3, Duration.ofSeconds(5), 1000,
+                Duration.ZERO, Duration.ofMinutes(30), "other");
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setUsername("stats-" + UUID.randomUUID().toString().substring(0, 8));
+        user.setPassword("x");
+        user.setRole("USER");
+        return userService.save(user);
+    }
+
+    private List<Long> ids(User user) {
+        return todoService.findAll(user, null, null, Sort.by("id"), false).stream().map(TodoDto::getId).toList();
+    }
+
+    private ApiBulkRequest bulk(List<Long> ids, BulkOperationType... types) {
+        ApiBulkRequest req = new ApiBulkRequest();
+        req.setIds(ids);
+        req.setOperations(java.util.Arrays.stream(types).map(type -> {
+            ApiBulkRequest.Operation op = new ApiBulkRequest.Operation();
+            op.setType(type);
+            op.setPriority(Priority.HIGH);
+            op.setCategoryId(categoryService.findAll().get(2).getId());
+            return op;
+        }).toList());
+        return req;
+    }
+}
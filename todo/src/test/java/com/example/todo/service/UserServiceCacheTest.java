@@ -0,0 +1,79 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserServiceCacheTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("認証で読んだユーザーは loadUser で DB に行かない")
+    void loadUser_afterAuthentication_hitsCache() {
+        UserDetails details = userDetailsService.loadUserByUsername("user");
+
+        statistics.clear();
+        User user = todoService.loadUser(details.getUsername());
+        todoService.loadUser(details.getUsername());
+
+        assertThat(user.getUsername()).isEqualTo("user");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("保存するとキャッシュが破棄され、次の参照で読み直す")
+    void save_evictsCachedUser() {
+        User user = todoService.loadUser("user2");
+        userService.save(user);
+
+        statistics.clear();
+        todoService.loadUser("user2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("返したユーザーを書き換えてもキャッシュには残らない")
+    void findByUsername_returnsCopies() {
+        User first = todoService.loadUser("user");
+        first.setRole("ADMIN");
+
+        User second = todoService.loadUser("user");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getRole()).isEqualTo("USER");
+    }
+}
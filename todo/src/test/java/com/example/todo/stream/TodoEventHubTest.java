@@ -0,0 +1,71 @@
+package com.example.todo.stream;
+
+import com.example.todo.dto.TodoStats;
+import com.example.todo.dto.TodoStatsRow;
+import com.example.todo.entity.TodoEventLog;
+import com.example.todo.enums.Priority;
+import com.example.todo.enums.TodoEventType;
+import com.example.todo.repository.TodoEventLogRepository;
+import com.example.todo.service.TodoStatsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TodoEventHubTest {
+
+    private final TodoStatsService statsService = mock(TodoStatsService.class);
+    private final TodoEventLogRepository eventLogRepository = mock(TodoEventLogRepository.class);
+
+    @Test
+    @DisplayName("event-log-enabled=false: todo_event_log には触れず、自ノードの接続へ直接配る")
+    void eventLogDisabled_deliversWithoutWriting() {
+        when(statsService.stats(1L)).thenReturn(new TodoStats());
+        TodoEventHub hub = new TodoEventHub(statsService, eventLogRepository, Runnable::run, 5, 64,
+                Duration.ofMinutes(5), Duration.ofSeconds(5), Duration.ofMinutes(30), Duration.ofSeconds(3), false);
+
+        hub.connect(1L, "123");
+        Long userId = 1L;
+        Long todoId = 10L;
+        Long categoryId = 1L;
+        hub.publish(TodoEventType.CREATED, List.of(
+                new TodoStatsRow(todoId, userId, false, Priority.MEDIUM, categoryId, LocalDate.now())));
+
+        assertThat(hub.poll()).isZero();
+        assertThat(hub.purgeExpired()).isZero();
+        assertThat(hub.connectionCount(1L)).isEqualTo(1);
+        // 接続時の件数と、配ったイベントに付ける件数
+        verify(statsService, times(2)).stats(1L);
+        verifyNoInteractions(eventLogRepository);
+    }
+
+    @Test
+    @DisplayName("poll で新しく読んだイベントだけを pollListener へ渡す（接続がなくても読む）")
+    void poll_notifiesListenersWithFreshEvents() {
+        TodoEventHub hub = new TodoEventHub(statsService, eventLogRepository, Runnable::run, 5, 64,
+                Duration.ofMinutes(5), Duration.ofSeconds(5), Duration.ofMinutes(30), Duration.ofSeconds(3), true);
+        List<List<TodoEventLog>> received = new ArrayList<>();
+        hub.addPollListener(received::add);
+        TodoEventLog first = new TodoEventLog(1L, 10L, TodoEventType.CREATED, "100", LocalDateTime.now());
+        TodoEventLog second = new TodoEventLog(2L, 10L, TodoEventType.DELETED, "100", LocalDateTime.now());
+        when(eventLogRepository.findByCreatedAtGreaterThanEqualOrderById(any()))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first, second));
+
+        assertThat(hub.poll()).isEqualTo(1);
+        assertThat(hub.poll()).isEqualTo(1);
+        assertThat(received).containsExactly(List.of(first), List.of(second));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.todo.support;
+
+import com.example.todo.trace.SqlStatsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc でエンドポイントごとの SQL 発行回数の上限を確認する（app.sql-stats.enabled=true が前提）
+ * <pre>
+ * mockMvc.perform(get("/todos")).andExpect(SqlStatsMatchers.statementsAtMost(8));
+ * </pre>
+ */
+public final class SqlStatsMatchers {
+
+    private SqlStatsMatchers() {
+    }
+
+    public static ResultMatcher statementsAtMost(int max) {
+        return result -> assertThat(header(result.getResponse().getHeader(SqlStatsFilter.HEADER_STATEMENTS)))
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * 同じ SQL の繰り返しが max 回以下（N+1 が起きていない）
+     */
+    public static ResultMatcher repeatAtMost(int max) {
+        return result -> assertThat(header(result.getResponse().getHeader(SqlStatsFilter.HEADER_MAX_REPEAT)))
+                .as("same SQL repeated for %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    private static int header(String value) {
+        assertThat(value).as("X-Sql-* header (is app.sql-stats.enabled on?)").isNotNull();
+        return Integer.parseInt(value);
+    }
+}
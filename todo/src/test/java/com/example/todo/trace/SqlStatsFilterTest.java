@@ -0,0 +1,53 @@
+package com.example.todo.trace;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatsFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatsFilter filter = new SqlStatsFilter(registry, 5, 64 * 1024);
+    private final SqlStatsInspector inspector = new SqlStatsInspector();
+
+    @Test
+    @DisplayName("同じ SQL の繰り返しを数え、ヘッダとメトリクスに出す")
+    void countsStatements_andFlagsRepeats() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todos");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/todos");
+                inspector.inspect("select t.id from todos t");
+                for (int i = 0; i < 6; i++) {
+                    inspector.inspect("select c.name from categories c where c.id=?");
+                }
+            }
+        }));
+
+        assertThat(response.getHeader(SqlStatsFilter.HEADER_STATEMENTS)).isEqualTo("7");
+        assertThat(response.getHeader(SqlStatsFilter.HEADER_MAX_REPEAT)).isEqualTo("6");
+        assertThat(response.getHeader(SqlStatsFilter.HEADER_JDBC_MILLIS)).isNotNull();
+        assertThat(registry.get("sql.request.statements").tag("uri", "/todos").summary().totalAmount()).isEqualTo(7);
+        assertThat(registry.get("sql.request.n_plus_one").tag("uri", "/todos").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("リクエスト外（バッチ・非同期スレッド）では数えない")
+    void outsideRequest_isIgnored() {
+        inspector.inspect("select 1");
+        assertThat(SqlStats.current()).isNull();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.todo.trace;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.todo.entity.User;
+import com.example.todo.service.CategoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TracingAspectTest {
+
+    @Autowired
+    private TraceSettings traceSettings;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger traceLogger;
+
+    @BeforeEach
+    void setUp() {
+        traceLogger = (Logger) LoggerFactory.getLogger("trace");
+        appender.start();
+        traceLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        traceLogger.detachAppender(appender);
+        traceSettings.setEnabled(false);
+        traceSettings.setSampleRate(0.01);
+        traceSettings.setMethodRate("CategoryService.findAll", -1);
+    }
+
+    @Test
+    @DisplayName("無効時は何も出さない")
+    void disabled_logsNothing() {
+        traceSettings.setEnabled(false);
+        categoryService.findAll();
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    @DisplayName("メソッド単位のサンプリング率で key=value のトレースを出す")
+    void enabled_logsSampledCallsAsKeyValues() {
+        traceSettings.setEnabled(true);
+        traceSettings.setSampleRate(0);
+        traceSettings.setMethodRate("CategoryService.findAll", 1.0);
+
+        categoryService.findAll();
+        categoryService.findById(categoryService.findAll().get(0).getId());
+
+        assertThat(appender.list).hasSize(2);
+        Map<String, Object> kv = keyValues(appender.list.get(0));
+        assertThat(kv).containsEntry("method", "CategoryService.findAll").containsEntry("outcome", "ok")
+                .containsKeys("durationUs", "args");
+        assertThat((String) kv.get("result")).contains("[size=");
+    }
+
+    @Test
+    @DisplayName("要約は toString を呼ばず、長さを上限で切る")
+    void summaries_areCappedAndSkipToString() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("someone");
+        user.setPassword("$2a$10$secret-hash");
+
+        String summary = TraceValues.summarize(new Object[]{user, "x".repeat(500), List.of(1, 2, 3), 42L}, 80);
+
+        assertThat(summary).startsWith("[User#7, \"xxx").doesNotContain("secret").hasSize(80).endsWith("…");
+        assertThat(TraceValues.summarize(List.of(1, 2, 3), 80)).endsWith("[size=3]");
+    }
+
+    private static Map<String, Object> keyValues(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream().collect(Collectors.toMap(kv -> kv.key, (KeyValuePair kv) -> kv.value));
+    }
+}